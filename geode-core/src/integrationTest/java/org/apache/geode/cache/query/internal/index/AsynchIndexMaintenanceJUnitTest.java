@@ -17,10 +17,12 @@ package org.apache.geode.cache.query.internal.index;
 import static java.lang.System.getProperties;
 import static org.apache.geode.cache.query.IndexType.FUNCTIONAL;
 import static org.apache.geode.distributed.internal.DistributionConfig.GEMFIRE_PREFIX;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertFalse;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 
 import org.junit.After;
@@ -34,8 +36,10 @@ import org.apache.geode.cache.query.CacheUtils;
 import org.apache.geode.cache.query.Index;
 import org.apache.geode.cache.query.IndexType;
 import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.data.Portfolio;
 import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.test.awaitility.GeodeAwaitility;
 import org.apache.geode.test.dunit.ThreadUtils;
 import org.apache.geode.test.dunit.WaitCriterion;
@@ -53,6 +57,8 @@ public class AsynchIndexMaintenanceJUnitTest {
 
   private Set idSet;
 
+  private final CountDownLatch updaterReleased = new CountDownLatch(1);
+
   private void init() throws Exception {
     idSet = new HashSet();
     CacheUtils.startCache();
@@ -69,9 +75,42 @@ public class AsynchIndexMaintenanceJUnitTest {
 
   @After
   public void tearDown() throws Exception {
+    IndexManager.testHook = null;
+    updaterReleased.countDown();
+    getProperties().remove(GEMFIRE_PREFIX + "AsynchIndexMaintenanceQueryWaitMillis");
     CacheUtils.closeCache();
   }
 
+  /**
+   * Makes the updater thread of the region wait for {@link #updaterReleased} before it applies an
+   * add or an update. Writers applying their own updates are not held up.
+   */
+  private void blockUpdater() {
+    IndexManager.testHook = spot -> {
+      if (spot == 5 && Thread.currentThread().getName().startsWith("OqlIndexUpdater")) {
+        try {
+          updaterReleased.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+  }
+
+  private IndexManager getIndexManager() {
+    return ((LocalRegion) region).getIndexManager();
+  }
+
+  /**
+   * Puts an entry and waits until the blocked updater thread has picked up its add, so that the
+   * following tasks stay queued.
+   */
+  private void putAndWaitForUpdaterToBlock(String key, int id) {
+    region.put(key, new Portfolio(id));
+    GeodeAwaitility.await()
+        .until(() -> getIndexManager().getUpdaterThread().getPendingTaskCount() == 0);
+  }
+
   private int getIndexSize(Index ri) {
     if (ri instanceof RangeIndex) {
       return ((RangeIndex) ri).valueToEntriesMap.size();
@@ -252,4 +291,116 @@ public class AsynchIndexMaintenanceJUnitTest {
     assertFalse(exceptionOccurred);
   }
 
+  @Test
+  public void queuedUpdatesOfAnEntryAreCoalesced() throws Exception {
+    getProperties().put(GEMFIRE_PREFIX + "AsynchIndexMaintenanceThreshold", "-1");
+    Index ri = qs.createIndex("statusIndex", FUNCTIONAL, "p.getID", "/portfolio p");
+    blockUpdater();
+    putAndWaitForUpdaterToBlock("0", 0);
+
+    region.put("1", new Portfolio(1));
+    for (int i = 2; i <= 10; i++) {
+      region.put("1", new Portfolio(i));
+    }
+
+    // the add of the entry and one update covering all the later ones
+    assertThat(getIndexManager().getUpdaterThread().getPendingTaskCount()).isEqualTo(2);
+
+    updaterReleased.countDown();
+    assertThat(getIndexManager().waitForIndexUpdates(30000)).isTrue();
+    assertThat(getIndexSize(ri)).isEqualTo(2);
+    SelectResults results = (SelectResults) qs
+        .newQuery("select * from /portfolio p where p.getID = 10").execute();
+    assertThat(results).hasSize(1);
+  }
+
+  @Test
+  public void writerAppliesItsUpdateInsteadOfBlockingWhenUpdaterIsBehind() throws Exception {
+    getProperties().put(GEMFIRE_PREFIX + "AsynchIndexMaintenanceThreshold", "5");
+    Index ri = qs.createIndex("statusIndex", FUNCTIONAL, "p.getID", "/portfolio p");
+    blockUpdater();
+    putAndWaitForUpdaterToBlock("0", 0);
+
+    for (int i = 1; i <= 20; i++) {
+      region.put("" + i, new Portfolio(i));
+    }
+
+    // five adds are queued behind the blocked one, the writer applied the others itself
+    assertThat(getIndexManager().getUpdaterThread().getPendingTaskCount()).isEqualTo(5);
+    assertThat(getIndexSize(ri)).isEqualTo(15);
+
+    updaterReleased.countDown();
+    assertThat(getIndexManager().waitForIndexUpdates(30000)).isTrue();
+    assertThat(getIndexSize(ri)).isEqualTo(21);
+  }
+
+  @Test
+  public void writerQueuesItsUpdateWhileAnUpdateOfTheEntryIsBeingApplied() throws Exception {
+    getProperties().put(GEMFIRE_PREFIX + "AsynchIndexMaintenanceThreshold", "1");
+    Index ri = qs.createIndex("statusIndex", FUNCTIONAL, "p.getID", "/portfolio p");
+    blockUpdater();
+    // the updater is applying the add of the entry
+    putAndWaitForUpdaterToBlock("0", 0);
+    region.put("1", new Portfolio(1));
+
+    region.put("0", new Portfolio(100));
+
+    // the update is queued behind the add instead of being applied alongside it
+    assertThat(getIndexManager().getUpdaterThread().getPendingTaskCount()).isEqualTo(2);
+
+    updaterReleased.countDown();
+    assertThat(getIndexManager().waitForIndexUpdates(30000)).isTrue();
+    assertThat(getIndexSize(ri)).isEqualTo(2);
+    SelectResults results = (SelectResults) qs
+        .newQuery("select * from /portfolio p where p.getID = 100").execute();
+    assertThat(results).hasSize(1);
+    results = (SelectResults) qs.newQuery("select * from /portfolio p where p.getID = 0").execute();
+    assertThat(results).isEmpty();
+  }
+
+  @Test
+  public void waitForIndexUpdatesWaitsForTasksQueuedBeforeTheCall() throws Exception {
+    getProperties().put(GEMFIRE_PREFIX + "AsynchIndexMaintenanceThreshold", "-1");
+    Index ri = qs.createIndex("statusIndex", FUNCTIONAL, "p.getID", "/portfolio p");
+    blockUpdater();
+    putAndWaitForUpdaterToBlock("0", 0);
+    // more than one batch of tasks
+    for (int i = 1; i <= 250; i++) {
+      region.put("" + i, new Portfolio(i));
+    }
+
+    assertThat(getIndexManager().waitForIndexUpdates(100)).isFalse();
+
+    updaterReleased.countDown();
+    assertThat(getIndexManager().waitForIndexUpdates(30000)).isTrue();
+    assertThat(getIndexSize(ri)).isEqualTo(251);
+  }
+
+  @Test
+  public void queryWaitsForPendingIndexUpdates() throws Exception {
+    getProperties().put(GEMFIRE_PREFIX + "AsynchIndexMaintenanceThreshold", "-1");
+    getProperties().put(GEMFIRE_PREFIX + "AsynchIndexMaintenanceQueryWaitMillis", "30000");
+    qs.createIndex("statusIndex", FUNCTIONAL, "p.getID", "/portfolio p");
+    blockUpdater();
+    putAndWaitForUpdaterToBlock("0", 0);
+    for (int i = 1; i <= 50; i++) {
+      region.put("" + i, new Portfolio(i));
+    }
+
+    Thread releaser = new Thread(() -> {
+      try {
+        Thread.sleep(500);
+      } catch (InterruptedException ignore) {
+      }
+      updaterReleased.countDown();
+    });
+    releaser.start();
+    try {
+      SelectResults results = (SelectResults) qs
+          .newQuery("select * from /portfolio p where p.getID >= 0").execute();
+      assertThat(results).hasSize(51);
+    } finally {
+      ThreadUtils.join(releaser, 30 * 1000);
+    }
+  }
 }
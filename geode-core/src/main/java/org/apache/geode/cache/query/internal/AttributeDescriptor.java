@@ -15,14 +15,13 @@
 
 package org.apache.geode.cache.query.internal;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -50,7 +49,8 @@ public class AttributeDescriptor {
   private final String _name;
   private final MethodInvocationAuthorizer _methodInvocationAuthorizer;
   /** cache for remembering the correct Member for a class and attribute */
-  private static final ConcurrentMap<List, Member> _localCache = new ConcurrentHashMap();
+  private static final ConcurrentMap<Class, ConcurrentMap<String, ReadMember>> _localCache =
+      new ConcurrentHashMap<>();
 
 
 
@@ -93,11 +93,15 @@ public class AttributeDescriptor {
     }
 
     Class resolutionClass = target.getClass();
-    Member m = getReadMember(resolutionClass);
+    ReadMember readMember = getResolvedReadMember(resolutionClass);
+    Member m = readMember.member;
     try {
       if (m instanceof Method) {
         try {
           _methodInvocationAuthorizer.authorizeMethodInvocation((Method) m, target);
+          if (readMember.handle != null) {
+            return MethodHandleAccessor.invoke(readMember.handle, target);
+          }
           return ((Method) m).invoke(target, (Object[]) null);
         } catch (EntryDestroyedException e) {
           // eat the Exception
@@ -122,7 +126,19 @@ public class AttributeDescriptor {
         }
       } else {
         try {
+          if (readMember.handle != null) {
+            return MethodHandleAccessor.invoke(readMember.handle, target);
+          }
           return ((Field) m).get(target);
+        } catch (InvocationTargetException e) {
+          Throwable t = e.getTargetException();
+          if (t instanceof EntryDestroyedException) {
+            return QueryService.UNDEFINED;
+          }
+          if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+          }
+          throw new QueryInvocationTargetException(t);
         } catch (IllegalAccessException e) {
           throw new NameNotFoundException(
               String.format(
@@ -140,27 +156,44 @@ public class AttributeDescriptor {
   }
 
   Member getReadMember(Class targetClass) throws NameNotFoundException {
+    return getResolvedReadMember(targetClass).member;
+  }
+
+  private ReadMember getResolvedReadMember(Class targetClass) throws NameNotFoundException {
 
     // mapping: public field (same name), method (getAttribute()),
     // method (attribute())
-    List key = new ArrayList();
-    key.add(targetClass);
-    key.add(_name);
-
-    Member m = _localCache.computeIfAbsent(key, k -> {
-      Member member = getReadField(targetClass);
-      return member == null ? getReadMethod(targetClass) : member;
-    });
+    ReadMember readMember = _localCache
+        .computeIfAbsent(targetClass, k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(_name, k -> {
+          Member member = getReadField(targetClass);
+          if (member == null) {
+            member = getReadMethod(targetClass);
+          }
+          return member == null ? null : new ReadMember(member);
+        });
 
-    if (m == null) {
+    if (readMember == null) {
       throw new NameNotFoundException(
           String.format("No public attribute named ' %s ' was found in class %s",
               new Object[] {_name, targetClass.getName()}));
     }
+    return readMember;
+  }
 
-    // override security for nonpublic derived classes with public members
-    ((AccessibleObject) m).setAccessible(true);
-    return m;
+  /** A resolved read member, made accessible once when it is resolved */
+  private static class ReadMember {
+    final Member member;
+    /** handle used to read the member, or null to use reflection */
+    final MethodHandle handle;
+
+    ReadMember(Member member) {
+      // override security for nonpublic derived classes with public members
+      ((AccessibleObject) member).setAccessible(true);
+      this.member = member;
+      this.handle = MethodHandleAccessor.USE_METHOD_HANDLES
+          ? MethodHandleAccessor.forMember(member) : null;
+    }
   }
 
 
@@ -676,6 +676,7 @@ public class CompiledSelect extends AbstractCompiledValue {
       QueryInvocationTargetException {
 
     SelectResults results = prepareEmptyResultSet(context, false);
+    boundOrderedResultsToLimit(results, context, false);
 
     // TODO: SELF : Work on limit implementation on bulk get
     // check for bulk get optimization
@@ -868,6 +869,7 @@ public class CompiledSelect extends AbstractCompiledValue {
     } else {
       int numElementsAdded = 0;
       SelectResults pResultSet = prepareEmptyResultSet(context, ignoreOrderBy);
+      boundOrderedResultsToLimit(pResultSet, context, ignoreOrderBy);
       boolean isStructType = resultSet.getCollectionType().getElementType() != null
           && resultSet.getCollectionType().getElementType().isStructType();
       if (isStructType) {
@@ -914,6 +916,25 @@ public class CompiledSelect extends AbstractCompiledValue {
     }
   }
 
+  /**
+   * For a non distinct ORDER BY query with a LIMIT, bounds the sorted results to the top limit rows,
+   * so that the evaluation keeps a bounded heap of candidates instead of sorting every matching row
+   * and truncating afterwards. For partitioned regions this is done per bucket, and the bucket
+   * results are then merged by {@link NWayMergeResults}.
+   */
+  private void boundOrderedResultsToLimit(SelectResults results, ExecutionContext context,
+      boolean ignoreOrderBy) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    if (this.orderByAttrs == null || ignoreOrderBy || this.distinct
+        || !(results instanceof SortedResultsBag) || ((Ordered) results).dataPreordered()) {
+      return;
+    }
+    int limitValue = evaluateLimitValue(context, this.limit);
+    if (limitValue > -1) {
+      ((SortedResultsBag) results).boundToTopK(limitValue);
+    }
+  }
+
   public enum DataContainerType {
     // isOrdered, distinct, elementType.isStructType(), ignoreOrderBy
     UNORDERED_DISTINCT_STRUCT(false, true, true, true),
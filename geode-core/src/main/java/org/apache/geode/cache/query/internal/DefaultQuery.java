@@ -98,6 +98,13 @@ public class DefaultQuery implements Query {
 
   public static int TEST_COMPILED_QUERY_CLEAR_TIME = -1;
 
+  /**
+   * System property to bound the number of compiled queries a server caches for its clients. Once
+   * the bound is reached, the least recently used compiled queries are evicted.
+   */
+  public static final int MAX_COMPILED_QUERIES =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "Query.MAX_COMPILED_QUERIES", 1000);
+
   /**
    * Use to represent null result. Used while adding PR results to the results-queue, which is a
    * blocking queue.
@@ -718,6 +725,29 @@ public class DefaultQuery implements Query {
     this.queryCancelledException = queryCanceledException;
   }
 
+  /**
+   * Returns a task which runs the given one with the query state of the calling thread: the flag
+   * the {@link QueryMonitor} sets when the query is canceled and the PDX read-serialized override.
+   * Used to continue executing this query on another thread.
+   */
+  public Runnable withQueryThreadState(final Runnable task) {
+    final AtomicBoolean canceled = queryCanceled.get();
+    final boolean pdxReadSerialized = this.cache.getPdxReadSerializedOverride();
+    return () -> {
+      Boolean initialPdxReadSerialized = this.cache.getPdxReadSerializedOverride();
+      queryCanceled.set(canceled);
+      this.cache.setPdxReadSerializedOverride(pdxReadSerialized);
+      try {
+        task.run();
+      } finally {
+        this.cache.setPdxReadSerializedOverride(initialPdxReadSerialized);
+        pdxClassToFieldsMap.remove();
+        pdxClassToMethodsMap.remove();
+        queryCanceled.remove();
+      }
+    };
+  }
+
   public void setIsCqQuery(boolean isCqQuery) {
     this.isCqQuery = isCqQuery;
   }
@@ -738,6 +768,58 @@ public class DefaultQuery implements Query {
     return this.lastUsed;
   }
 
+  /**
+   * Returns the query string with each run of whitespace outside of quoted literals, identifiers and
+   * comments collapsed to a single space, so that queries differing only in formatting share a
+   * compiled query. The whitespace ending a line comment is collapsed to a single newline instead,
+   * since it ends the comment.
+   */
+  public static String normalizeQueryString(String queryString) {
+    StringBuilder sb = new StringBuilder(queryString.length());
+    char quote = 0;
+    boolean pendingSpace = false;
+    boolean inLineComment = false;
+    for (int i = 0; i < queryString.length(); i++) {
+      char c = queryString.charAt(i);
+      if (quote == 0 && Character.isWhitespace(c)) {
+        pendingSpace = sb.length() > 0;
+        continue;
+      }
+      if (pendingSpace) {
+        sb.append(inLineComment ? '\n' : ' ');
+        pendingSpace = false;
+        inLineComment = false;
+      }
+      if (quote == 0) {
+        if (c == '\'' || c == '"') {
+          quote = c;
+        } else if (queryString.startsWith("--", i)) {
+          // the comment is kept as is, up to the newline ending it
+          int end = i;
+          while (end < queryString.length() && queryString.charAt(end) != '\n'
+              && queryString.charAt(end) != '\r') {
+            end++;
+          }
+          sb.append(queryString, i, end);
+          i = end - 1;
+          inLineComment = true;
+          continue;
+        } else if (queryString.startsWith("/*", i)) {
+          int end = queryString.indexOf("*/", i + 2);
+          end = end < 0 ? queryString.length() : end + 2;
+          sb.append(queryString, i, end);
+          i = end - 1;
+          continue;
+        }
+      } else if (c == quote) {
+        // a doubled quote inside a literal is an escaped quote and toggles back immediately
+        quote = 0;
+      }
+      sb.append(c);
+    }
+    return sb.toString();
+  }
+
   public InternalCqQuery getCqQuery() {
     return this.cqQuery;
   }
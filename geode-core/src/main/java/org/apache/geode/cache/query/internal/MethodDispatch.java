@@ -16,6 +16,7 @@
 package org.apache.geode.cache.query.internal;
 
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -42,6 +43,7 @@ public class MethodDispatch {
   private String _methodName;
   private Class[] _argTypes;
   private Method _method; // remember the right method
+  private MethodHandle _methodHandle; // used to invoke no argument methods, if enabled
   private MethodInvocationAuthorizer _methodInvocationAuthorizer;
 
   public MethodDispatch(MethodInvocationAuthorizer methodInvocationAuthorizer, Class targetClass,
@@ -55,15 +57,19 @@ public class MethodDispatch {
     // override security in case this is a method on a nonpublic class
     // with a public method
     _method.setAccessible(true);
+    if (MethodHandleAccessor.USE_METHOD_HANDLES) {
+      _methodHandle = MethodHandleAccessor.forMember(_method);
+    }
   }
 
   public Object invoke(Object target, List args)
       throws NameNotFoundException, QueryInvocationTargetException {
-    Object[] argsArray = args.toArray();
-
     try {
       _methodInvocationAuthorizer.authorizeMethodInvocation(_method, target);
-      return _method.invoke(target, argsArray);
+      if (_methodHandle != null && args.isEmpty()) {
+        return MethodHandleAccessor.invoke(_methodHandle, target);
+      }
+      return _method.invoke(target, args.toArray());
     } catch (IllegalAccessException e) {
       throw new NameNotFoundException(
           String.format(
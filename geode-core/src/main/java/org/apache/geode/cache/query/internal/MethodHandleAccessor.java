@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * Reads attributes and invokes no argument methods for the query engine through
+ * {@link MethodHandle}s which are created once, when the member is resolved, instead of going
+ * through {@link Method#invoke} or {@link Field#get} for every row.
+ *
+ * Enabled with the gemfire.Query.USE_METHOD_HANDLES system property.
+ */
+class MethodHandleAccessor {
+
+  static final boolean USE_METHOD_HANDLES =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "Query.USE_METHOD_HANDLES");
+
+  private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private MethodHandleAccessor() {}
+
+  /**
+   * Returns a handle of type (Object)Object reading the given field or invoking the given no
+   * argument method, or null if the member can not be accessed through a handle. The member must
+   * already have been made accessible.
+   */
+  static MethodHandle forMember(Member member) {
+    try {
+      MethodHandle handle;
+      if (member instanceof Method) {
+        if (((Method) member).getParameterCount() != 0) {
+          return null;
+        }
+        handle = LOOKUP.unreflect((Method) member);
+      } else if (member instanceof Field) {
+        handle = LOOKUP.unreflectGetter((Field) member);
+      } else {
+        return null;
+      }
+      if (Modifier.isStatic(member.getModifiers())) {
+        handle = MethodHandles.dropArguments(handle.asType(MethodType.methodType(Object.class)), 0,
+            Object.class);
+      }
+      return handle.asType(ACCESSOR_TYPE);
+    } catch (IllegalAccessException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Invokes the given handle on the target. Anything thrown by the member is wrapped in an
+   * {@link InvocationTargetException}, the same as reflective invocation does.
+   */
+  static Object invoke(MethodHandle handle, Object target) throws InvocationTargetException {
+    try {
+      return (Object) handle.invokeExact(target);
+    } catch (Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+  }
+}
@@ -40,6 +40,10 @@ public class SortedResultsBag<E> extends Bag implements Ordered {
   private final Map<E, Integer> sortedMap;
   private final boolean orderedDataAddition;
   private final boolean emitNullAtStart;
+  /**
+   * The maximum number of elements retained, or -1 if unbounded. See {@link #boundToTopK(int)}.
+   */
+  private int topK = -1;
 
   /**
    * Constructor for unordered input
@@ -140,6 +144,66 @@ public class SortedResultsBag<E> extends Bag implements Ordered {
     return false;
   }
 
+  /**
+   * Bounds this bag to the first <code>topK</code> elements in sort order. Once more than
+   * <code>topK</code> elements have been added, the element which would be emitted last is evicted,
+   * so that the evaluation of an ORDER BY ... LIMIT query (for example on a single bucket of a
+   * partitioned region) holds at most <code>topK</code> entries instead of every matching row.
+   *
+   * This is only applicable to a bag created for unordered input, i.e. one backed by a comparator.
+   */
+  public void boundToTopK(int topK) {
+    if (this.orderedDataAddition) {
+      throw new IllegalStateException("A bag for preordered data can not be bounded");
+    }
+    this.topK = topK;
+    evictBeyondTopK();
+  }
+
+  @Override
+  public boolean add(Object element) {
+    boolean added = super.add(element);
+    evictBeyondTopK();
+    return added;
+  }
+
+  @Override
+  public int addAndGetOccurence(Object element) {
+    int occurrence = super.addAndGetOccurence(element);
+    evictBeyondTopK();
+    return occurrence;
+  }
+
+  /**
+   * Evicts elements from the tail of the sort order until the bag holds no more than topK elements.
+   * Null elements are emitted either before or after all the other elements, so they are evicted
+   * first if they are at the tail.
+   */
+  private void evictBeyondTopK() {
+    if (this.topK < 0) {
+      return;
+    }
+    TreeMap<E, Integer> treeMap = (TreeMap<E, Integer>) this.sortedMap;
+    while (this.size > this.topK) {
+      if (this.numNulls > 0 && (!this.emitNullAtStart || treeMap.isEmpty())) {
+        this.numNulls--;
+      } else {
+        Map.Entry<E, Integer> last = treeMap.lastEntry();
+        int count = last.getValue();
+        if (count > 1) {
+          treeMap.put(last.getKey(), count - 1);
+        } else {
+          treeMap.remove(last.getKey());
+          Comparator comparator = treeMap.comparator();
+          if (comparator instanceof OrderByComparator) {
+            ((OrderByComparator) comparator).removeEvaluatedSortCriteria(last.getKey());
+          }
+        }
+      }
+      this.size--;
+    }
+  }
+
   @Override
   protected int mapGet(Object element) {
     Integer count = this.sortedMap.get(element);
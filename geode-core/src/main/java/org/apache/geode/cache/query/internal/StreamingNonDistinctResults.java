@@ -0,0 +1,339 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.InternalGemFireException;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.CumulativeNonDistinctResults.Metadata;
+import org.apache.geode.cache.query.internal.types.CollectionTypeImpl;
+import org.apache.geode.cache.query.internal.types.StructTypeImpl;
+import org.apache.geode.cache.query.internal.utils.PDXUtils;
+import org.apache.geode.cache.query.types.CollectionType;
+import org.apache.geode.cache.query.types.ObjectType;
+
+/**
+ * Non distinct results of a partitioned region query which are handed to the consumer as the
+ * chunks arrive from the data stores, instead of being gathered on the coordinator first.
+ *
+ * The producers (the threads processing the query replies) add chunks to a bounded queue and block
+ * while it is full, so a slow consumer applies backpressure all the way to the data stores. The
+ * consumer reads the results once through {@link #streamingIterator()}. All the other
+ * {@link SelectResults} operations are supported as well, but they drain the stream into memory
+ * first.
+ *
+ * @see CumulativeNonDistinctResults
+ */
+public class StreamingNonDistinctResults<E> extends AbstractCollection<E>
+    implements SelectResults<E> {
+
+  private static final long POLL_INTERVAL_MS = 100;
+
+  private final CollectionType collectionType;
+  private final BlockingQueue<Chunk> chunks;
+  private final int limit;
+  // the query whose results these are, or null
+  private final DefaultQuery query;
+
+  private volatile boolean endOfStream = false;
+  private volatile Throwable failure = null;
+  private volatile boolean aborted = false;
+
+  /** guarded by this */
+  private boolean streamConsumed = false;
+  /** guarded by this */
+  private List<E> materialized = null;
+
+  /**
+   * @param elementType the element type of the results
+   * @param maxQueuedChunks the number of chunks which may be queued before the producers block
+   * @param limit the query limit or -1 if there is none
+   */
+  public StreamingNonDistinctResults(ObjectType elementType, int maxQueuedChunks, int limit) {
+    this(elementType, maxQueuedChunks, limit, null);
+  }
+
+  /**
+   * @param elementType the element type of the results
+   * @param maxQueuedChunks the number of chunks which may be queued before the producers block
+   * @param limit the query limit or -1 if there is none
+   * @param query the query whose results these are; the consumer stops waiting for results once it
+   *        has been canceled
+   */
+  public StreamingNonDistinctResults(ObjectType elementType, int maxQueuedChunks, int limit,
+      DefaultQuery query) {
+    this.collectionType =
+        new CollectionTypeImpl(StreamingNonDistinctResults.class, elementType);
+    this.chunks = new ArrayBlockingQueue<>(maxQueuedChunks);
+    this.limit = limit;
+    this.query = query;
+  }
+
+  /**
+   * Queues a chunk of results, waiting up to the given time for space to become available.
+   *
+   * @return false if the chunk could not be queued in time or the consumer has stopped reading
+   */
+  public boolean offerChunk(Collection<E> chunk, Metadata metadata, long timeoutMs)
+      throws InterruptedException {
+    if (this.aborted) {
+      return false;
+    }
+    return this.chunks.offer(new Chunk(chunk, metadata), timeoutMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Marks the end of the results, after which the consumer stops once it has drained the queued
+   * chunks.
+   *
+   * @param failure the reason the query failed, or null if all the results have been produced
+   */
+  public void endOfStream(Throwable failure) {
+    this.failure = failure;
+    this.endOfStream = true;
+  }
+
+  /**
+   * Stops the stream. Producers adding further chunks are told to stop, and the queued chunks are
+   * released.
+   */
+  public void abort() {
+    this.aborted = true;
+    this.chunks.clear();
+  }
+
+  public boolean isAborted() {
+    return this.aborted;
+  }
+
+  /**
+   * Returns an iterator which hands out the results as they arrive. The stream can only be read
+   * once; if the results have already been drained into memory, an iterator over those is returned.
+   */
+  public synchronized Iterator<E> streamingIterator() {
+    if (this.materialized != null) {
+      return this.materialized.iterator();
+    }
+    if (this.streamConsumed) {
+      throw new IllegalStateException("The streamed query results have already been consumed");
+    }
+    this.streamConsumed = true;
+    return new StreamIterator();
+  }
+
+  private synchronized List<E> materialize() {
+    if (this.materialized == null) {
+      Iterator<E> iter = streamingIterator();
+      List<E> results = new ArrayList<>();
+      while (iter.hasNext()) {
+        results.add(iter.next());
+      }
+      this.materialized = results;
+    }
+    return this.materialized;
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return Collections.unmodifiableList(materialize()).iterator();
+  }
+
+  @Override
+  public int size() {
+    return materialize().size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return materialize().isEmpty();
+  }
+
+  @Override
+  public boolean add(E e) {
+    throw new UnsupportedOperationException("Addition to collection not supported");
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    throw new UnsupportedOperationException("Removal from collection not supported");
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends E> c) {
+    throw new UnsupportedOperationException("Addition to collection not supported");
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    throw new UnsupportedOperationException("Removal from collection not supported");
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    throw new UnsupportedOperationException("Removal from collection not supported");
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException("Removal from collection not supported");
+  }
+
+  @Override
+  public boolean isModifiable() {
+    return false;
+  }
+
+  @Override
+  public int occurrences(E element) {
+    int count = 0;
+    for (E v : this) {
+      if (element == null ? v == null : element.equals(v)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public Set<E> asSet() {
+    return new HashSet<E>(this);
+  }
+
+  @Override
+  public List<E> asList() {
+    return new ArrayList<E>(this);
+  }
+
+  @Override
+  public CollectionType getCollectionType() {
+    return this.collectionType;
+  }
+
+  @Override
+  public void setElementType(ObjectType elementType) {
+    throw new UnsupportedOperationException(" not supported");
+  }
+
+  private static class Chunk {
+    final Collection<?> results;
+    final Metadata metadata;
+
+    Chunk(Collection<?> results, Metadata metadata) {
+      this.results = results;
+      this.metadata = metadata;
+    }
+  }
+
+  private class StreamIterator implements Iterator<E> {
+    private final boolean isStruct = collectionType.getElementType().isStructType();
+    private final boolean[] objectChangedMarker = new boolean[1];
+    private Iterator<?> current = Collections.emptyIterator();
+    private Metadata currentMetadata;
+    private int numIterated = 0;
+
+    @Override
+    public boolean hasNext() {
+      if (limit > -1 && this.numIterated >= limit) {
+        abort();
+        return false;
+      }
+      while (!this.current.hasNext()) {
+        Chunk chunk = nextChunk();
+        if (chunk == null) {
+          return false;
+        }
+        this.current = chunk.results.iterator();
+        this.currentMetadata = chunk.metadata;
+      }
+      return true;
+    }
+
+    private Chunk nextChunk() {
+      boolean interrupted = false;
+      try {
+        for (;;) {
+          if (aborted) {
+            return null;
+          }
+          if (query != null && query.isCanceled()) {
+            // the producers may be waiting for data stores which will not reply in time
+            abort();
+            throw new InternalGemFireException("Unable to stream the query results",
+                query.getQueryCanceledException());
+          }
+          // read the end of stream flag before polling so that a chunk queued just before the
+          // end of the stream is not missed
+          boolean done = endOfStream;
+          Chunk chunk;
+          try {
+            chunk = chunks.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+          } catch (InterruptedException e) {
+            interrupted = true;
+            abort();
+            throw new InternalGemFireException(
+                "Interrupted while waiting for streamed query results", e);
+          }
+          if (chunk != null) {
+            return chunk;
+          }
+          if (done) {
+            if (failure != null) {
+              throw new InternalGemFireException("Unable to stream the query results", failure);
+            }
+            return null;
+          }
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      this.numIterated++;
+      Object original = this.current.next();
+      Object e = PDXUtils.convertPDX(original, this.isStruct,
+          this.currentMetadata.getDomainObjectForPdx, this.currentMetadata.getDeserializedObject,
+          this.currentMetadata.localResults, this.objectChangedMarker, false);
+      if (this.isStruct && this.objectChangedMarker[0]) {
+        return (E) new StructImpl((StructTypeImpl) collectionType.getElementType(), (Object[]) e);
+      }
+      return this.isStruct ? (E) original : (E) e;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("remove not supported");
+    }
+  }
+}
@@ -23,7 +23,6 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
@@ -103,10 +102,23 @@ public class IndexManager {
   private ConcurrentMap canonicalizedIteratorNameMap = new ConcurrentHashMap();
   private IndexUpdaterThread updater;
 
-  // Threshold for Queue.
+  /**
+   * The number of queued asynchronous index updates above which writers apply their updates
+   * themselves, or -1 for no limit
+   */
   private final int INDEX_MAINTENANCE_BUFFER =
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "AsynchIndexMaintenanceThreshold", -1);
 
+  /**
+   * The number of milliseconds a query waits for pending asynchronous index updates to be applied
+   * before using the indexes of a region. By default queries do not wait.
+   */
+  private final int ASYNCH_INDEX_MAINTENANCE_QUERY_WAIT_MS = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "AsynchIndexMaintenanceQueryWaitMillis", 0);
+
+  /** The maximum number of asynchronous index updates applied in one batch */
+  private static final int ASYNCH_INDEX_MAINTENANCE_BATCH_SIZE = 100;
+
   public static boolean JOIN_OPTIMIZATION =
       !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "index.DisableJoinOptimization");
 
@@ -144,6 +156,7 @@ public class IndexManager {
   public static final int INDEX_ELEMARRAY_SIZE =
       Integer.parseInt(System.getProperty(INDEX_ELEMARRAY_SIZE_PROP, "5"));
   public static final AtomicLong SAFE_QUERY_TIME = new AtomicLong(0);
+
   public static boolean ENABLE_UPDATE_IN_PROGRESS_INDEX_CALCULATION = true;
   /** The NULL constant */
   public static final Object NULL = new NullToken();
@@ -521,6 +534,7 @@ public class IndexManager {
   public IndexData getIndex(IndexType indexType, String[] definitions,
       CompiledValue indexedExpression, ExecutionContext context)
       throws AmbiguousNameException, TypeMismatchException, NameResolutionException {
+    waitForIndexUpdatesBeforeQuery();
     IndexData indxData = null;
     int qItrSize = definitions.length;
     Iterator it = this.indexes.values().iterator();
@@ -583,6 +597,7 @@ public class IndexManager {
   public IndexData getBestMatchIndex(IndexType indexType, String[] definitions,
       CompiledValue indexedExpression, ExecutionContext context)
       throws AmbiguousNameException, TypeMismatchException, NameResolutionException {
+    waitForIndexUpdatesBeforeQuery();
 
     Index bestIndex = null;
     Index bestPRIndex = null;
@@ -1332,6 +1347,32 @@ public class IndexManager {
     return this.indexMaintenanceSynchronous;
   }
 
+  /**
+   * Waits until the asynchronous index updates queued before this call have been applied.
+   *
+   * @param timeoutMs the maximum time to wait
+   * @return true if the indexes caught up, false if the wait timed out or was interrupted
+   */
+  public boolean waitForIndexUpdates(long timeoutMs) {
+    if (isIndexMaintenanceTypeSynchronous()) {
+      return true;
+    }
+    try {
+      return this.updater.waitForQueuedTasks(timeoutMs);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private void waitForIndexUpdatesBeforeQuery() {
+    if (ASYNCH_INDEX_MAINTENANCE_QUERY_WAIT_MS > 0 && !waitForIndexUpdates(
+        ASYNCH_INDEX_MAINTENANCE_QUERY_WAIT_MS) && logger.isDebugEnabled()) {
+      logger.debug("Querying indexes of {} before pending asynchronous index updates were applied",
+          this.region.getFullPath());
+    }
+  }
+
   public boolean isOverFlowRegion() {
     return this.isOverFlowToDisk;
   }
@@ -1394,21 +1435,42 @@ public class IndexManager {
 
     private volatile boolean shutdownRequested = false;
 
-    private volatile BlockingQueue pendingTasks;
+    private final BlockingQueue pendingTasks = new LinkedBlockingQueue();
+
+    /**
+     * The number of queued tasks above which an entry's update is applied by the writer instead of
+     * being queued, or zero or less for no limit
+     */
+    private final int updateThreshold;
+
+    /**
+     * The last queued task of each entry which has not been picked up yet, used to coalesce
+     * repeated updates of the same entry.
+     */
+    private final ConcurrentMap<RegionEntry, Object[]> lastPendingTaskPerEntry =
+        new ConcurrentHashMap<>();
+
+    /**
+     * The number of tasks of each entry which are queued or being applied by this thread. A writer
+     * only applies the update of an entry itself when the entry has none, so the updates of an
+     * entry are never applied concurrently or out of order.
+     */
+    private final ConcurrentMap<RegionEntry, Integer> outstandingTasksPerEntry =
+        new ConcurrentHashMap<>();
+
+    private final AtomicLong numTasksQueued = new AtomicLong();
+
+    /** guarded by tasksProcessedLock */
+    private long numTasksProcessed = 0;
+
+    private final Object tasksProcessedLock = new Object();
 
     /**
      * Creates instance of IndexUpdaterThread
      */
     IndexUpdaterThread(int updateThreshold, String threadName) {
       super(threadName);
-      // Check if threshold is set.
-      if (updateThreshold > 0) {
-        // Create a bounded queue.
-        pendingTasks = new ArrayBlockingQueue(updateThreshold);
-      } else {
-        // Create non-bounded queue.
-        pendingTasks = new LinkedBlockingQueue();
-      }
+      this.updateThreshold = updateThreshold;
     }
 
     public void addTask(int action, RegionEntry entry, int opCode) {
@@ -1416,9 +1478,64 @@ public class IndexManager {
       task[0] = action;
       task[1] = entry;
       task[2] = opCode;
+      if (entry != null && this.updateThreshold > 0
+          && pendingTasks.size() >= this.updateThreshold
+          && !outstandingTasksPerEntry.containsKey(entry)) {
+        // The updater is behind. The writer holds the entry lock, which the updater may need to
+        // read the value, so it must not wait for the updater. It applies the update itself
+        // instead, unless an earlier task for the entry is still queued or being applied and has
+        // to go first. Only writers holding the entry lock add tasks for the entry, so none can
+        // be added while this one is applied.
+        updateIndexes(task, false);
+        return;
+      }
+      if (entry != null && coalesce(entry, task)) {
+        return;
+      }
+      if (entry != null) {
+        outstandingTasksPerEntry.merge(entry, 1, Integer::sum);
+      }
+      numTasksQueued.incrementAndGet();
       pendingTasks.add(task);
     }
 
+    /**
+     * An update is applied from the current value of the entry, so an update of an entry whose last
+     * queued task is an update which has not been picked up yet is already covered by that task.
+     *
+     * @return true if the task does not need to be queued
+     */
+    private boolean coalesce(RegionEntry entry, Object[] task) {
+      boolean[] coalesced = new boolean[1];
+      lastPendingTaskPerEntry.compute(entry, (e, lastTask) -> {
+        if (lastTask != null && (Integer) task[0] == UPDATE_ENTRY
+            && (Integer) lastTask[0] == UPDATE_ENTRY) {
+          coalesced[0] = true;
+          return lastTask;
+        }
+        return task;
+      });
+      return coalesced[0];
+    }
+
+    /**
+     * Waits until at least as many tasks as were queued at the time of the call have been applied.
+     */
+    boolean waitForQueuedTasks(long timeoutMs) throws InterruptedException {
+      long target = numTasksQueued.get();
+      long deadline = System.currentTimeMillis() + timeoutMs;
+      synchronized (tasksProcessedLock) {
+        while (numTasksProcessed < target) {
+          long remaining = deadline - System.currentTimeMillis();
+          if (remaining <= 0 || !this.running) {
+            return false;
+          }
+          tasksProcessedLock.wait(remaining);
+        }
+      }
+      return true;
+    }
+
     /**
      * Stops this thread. Does not return until it has stopped.
      */
@@ -1449,25 +1566,44 @@ public class IndexManager {
             break;
           }
           try {
-            Object[] task = (Object[]) pendingTasks.take();
-            if (this.shutdownRequested) {
-              break;
+            List<Object[]> batch = new ArrayList<>(ASYNCH_INDEX_MAINTENANCE_BATCH_SIZE);
+            batch.add((Object[]) pendingTasks.take());
+            pendingTasks.drainTo(batch, ASYNCH_INDEX_MAINTENANCE_BATCH_SIZE - 1);
+            for (Object[] task : batch) {
+              if (this.shutdownRequested) {
+                break;
+              }
+              updateIndexes(task, true);
+            }
+            synchronized (tasksProcessedLock) {
+              numTasksProcessed += batch.size();
+              tasksProcessedLock.notifyAll();
             }
-            updateIndexes(task);
           } catch (InterruptedException ignore) {
             return; // give up (exit the thread)
           }
         }
       } finally {
         this.running = false;
+        synchronized (tasksProcessedLock) {
+          tasksProcessedLock.notifyAll();
+        }
       }
     }
 
-    private void updateIndexes(Object[] task) {
+    /**
+     * Applies the task.
+     *
+     * @param queued true if the task was queued, false if a writer applies it itself
+     */
+    private void updateIndexes(Object[] task, boolean queued) {
       int action = (Integer) task[0];
       RegionEntry entry = (RegionEntry) task[1];
       int opCode = (Integer) task[2];
-      // System.out.println("entry = "+entry.getKey());
+      if (entry != null) {
+        // later updates of the entry are no longer coalesced into this one
+        lastPendingTaskPerEntry.remove(entry, task);
+      }
       if (entry != null || action == RECREATE_INDEX) {
         try {
           if (action == RECREATE_INDEX) {
@@ -1484,6 +1620,11 @@ public class IndexManager {
           if (entry != null && action != RECREATE_INDEX) {
             entry.setUpdateInProgress(false);
           }
+          if (entry != null && queued) {
+            // a writer may apply the next update of the entry itself once this one is done
+            outstandingTasksPerEntry.computeIfPresent(entry,
+                (e, count) -> count == 1 ? null : count - 1);
+          }
         }
       }
     }
@@ -1497,6 +1638,13 @@ public class IndexManager {
       return this.pendingTasks.size() == 0;
     }
 
+    /**
+     * Used by tests to find out how many tasks are queued.
+     */
+    int getPendingTaskCount() {
+      return this.pendingTasks.size();
+    }
+
   }
 
   /**
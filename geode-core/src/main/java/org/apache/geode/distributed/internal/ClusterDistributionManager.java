@@ -193,6 +193,12 @@ public class ClusterDistributionManager implements DistributionManager {
   static final int MAX_SERIAL_QUEUE_THREAD =
       Integer.getInteger("DistributionManager.MAX_SERIAL_QUEUE_THREAD", 20).intValue();
 
+  /**
+   * Number of serial lanes in which serial messages with an ordering key are processed, zero if
+   * they are processed by the thread which received them
+   */
+  static final int SERIAL_LANES = Integer.getInteger("DistributionManager.SERIAL_LANES", 0);
+
   protected static final String FUNCTION_EXECUTION_PROCESSOR_THREAD_PREFIX =
       "Function Execution Processor";
 
@@ -460,6 +466,8 @@ public class ClusterDistributionManager implements DistributionManager {
 
   private SerialQueuedExecutorPool serialQueuedExecutorPool;
 
+  private SerialLanes serialLanes;
+
   /**
    * TODO why does the distribution manager arbitrate GII operations? That should be a Cache
    * function
@@ -680,6 +688,11 @@ public class ClusterDistributionManager implements DistributionManager {
             new SerialQueuedExecutorPool(this.stats, throttlingDisabled, this.threadMonitor);
       }
 
+      if (SERIAL_LANES > 0) {
+        this.serialLanes = new SerialLanes(SERIAL_LANES, this.stats,
+            system.getConfig().getDisableTcp(), this.threadMonitor);
+      }
+
       {
         BlockingQueue poolQueue;
         if (SERIAL_QUEUE_BYTE_LIMIT == 0) {
@@ -1631,6 +1644,9 @@ public class ClusterDistributionManager implements DistributionManager {
     if (this.serialQueuedExecutorPool != null) {
       this.serialQueuedExecutorPool.shutdown();
     }
+    if (this.serialLanes != null) {
+      this.serialLanes.shutdown();
+    }
     es = this.functionExecutionThread;
     if (es != null) {
       es.shutdown();
@@ -1693,6 +1709,13 @@ public class ClusterDistributionManager implements DistributionManager {
     if (remaining <= 0) {
       return;
     }
+    if (this.serialLanes != null) {
+      this.serialLanes.awaitTermination(remaining, TimeUnit.MILLISECONDS);
+      remaining = timeInMillis - (System.currentTimeMillis() - start);
+      if (remaining <= 0) {
+        return;
+      }
+    }
     Thread th = this.memberEventThread;
     if (th != null) {
       th.interrupt(); // bug #43452 - this thread sometimes eats interrupts, so we interrupt it
@@ -1825,6 +1848,9 @@ public class ClusterDistributionManager implements DistributionManager {
     if (this.serialThread != null) {
       this.serialThread.shutdownNow();
     }
+    if (this.serialLanes != null) {
+      this.serialLanes.shutdownNow();
+    }
     if (this.viewThread != null) {
       this.viewThread.shutdownNow();
     }
@@ -2968,6 +2994,28 @@ public class ClusterDistributionManager implements DistributionManager {
     }
   }
 
+  /** Returns whether serial messages with an ordering key are processed in serial lanes */
+  boolean hasSerialLanes() {
+    return this.serialLanes != null;
+  }
+
+  /**
+   * Processes a serial message with the given ordering key, received by the current thread, in the
+   * serial lane of its sender and key.
+   */
+  void executeInSerialLane(InternalDistributedMember sender, Object orderingKey,
+      SizeableRunnable task) {
+    this.serialLanes.execute(sender, orderingKey, task);
+  }
+
+  /**
+   * Waits until the serial messages the current thread handed to the serial lanes have been
+   * processed.
+   */
+  void awaitSerialLanes() {
+    this.serialLanes.awaitDispatched();
+  }
+
   /** returns the serialThread's queue if throttling is being used, null if not */
   public OverflowQueueWithDMStats<Runnable> getSerialQueue(InternalDistributedMember sender) {
     if (MULTI_SERIAL_EXECUTORS) {
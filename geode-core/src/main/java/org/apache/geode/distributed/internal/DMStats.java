@@ -698,4 +698,10 @@ public interface DMStats {
   long getUdpFinalCheckResponsesReceived();
 
   void incUdpFinalCheckResponsesReceived();
+
+  long getPhiAccrualChecks();
+
+  void incPhiAccrualChecks();
+
+  void setNeighborPhi(double phi);
 }
@@ -317,6 +317,15 @@ public abstract class DistributionMessage implements DataSerializableFixedID, Cl
     this.sender = _sender;
   }
 
+  /**
+   * Returns the key of the serial messages this message only has to be processed in order with, or
+   * null if it has to be processed in order with all the serial messages received before it. When
+   * serial lanes are enabled, serial messages with different keys are processed in parallel.
+   */
+  protected Object getSerialOrderingKey() {
+    return null;
+  }
+
   /**
    * Return the Executor in which to process this message.
    */
@@ -418,6 +427,28 @@ public abstract class DistributionMessage implements DataSerializableFixedID, Cl
 
     inlineProcess |= forceInline;
 
+    // only messages read from a shared connection go to the lanes. The reader of a thread owned
+    // connection keeps processing them in the order their sending thread wrote them.
+    if (inlineProcess && isSharedReceiver() && dm.hasSerialLanes()) {
+      final Object orderingKey = forceInline ? null : getSerialOrderingKey();
+      if (orderingKey != null) {
+        dm.executeInSerialLane(this.sender, orderingKey,
+            new SizeableRunnable(this.getBytesRead()) {
+              public void run() {
+                scheduleAction(dm);
+              }
+
+              @Override
+              public String toString() {
+                return "Processing {" + DistributionMessage.this.toString() + "}";
+              }
+            });
+        return;
+      }
+      // keep this message ordered with the ones this thread handed to the lanes
+      dm.awaitSerialLanes();
+    }
+
     if (inlineProcess) {
       dm.getStats().incNumSerialThreads(1);
       try {
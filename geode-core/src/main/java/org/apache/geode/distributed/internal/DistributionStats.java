@@ -234,6 +234,8 @@ public class DistributionStats implements DMStats {
   private static final int udpFinalCheckRequestsReceivedId;
   private static final int udpFinalCheckResponsesSentId;
   private static final int udpFinalCheckResponsesReceivedId;
+  private static final int phiAccrualChecksId;
+  private static final int neighborPhiId;
 
   static {
     String statName = "DistributionStats";
@@ -439,6 +441,11 @@ public class DistributionStats implements DMStats {
     final String udpFinalCheckResponsesReceivedDesc =
         "UDP final check responses that this member has received.";
 
+    final String phiAccrualChecksDesc =
+        "Checks of the member watched by this member started because the phi-accrual suspicion level of its heartbeats reached the threshold.";
+    final String neighborPhiDesc =
+        "The phi-accrual suspicion level of the member watched by this member, computed from the arrival times of its heartbeats.";
+
     StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
 
     type = f.createType(statName, statDescription, new StatisticDescriptor[] {
@@ -738,7 +745,9 @@ public class DistributionStats implements DMStats {
         f.createLongCounter("udpFinalCheckResponsesSent", udpFinalCheckResponsesSentDesc,
             "messages"),
         f.createLongCounter("udpFinalCheckResponsesReceived", udpFinalCheckResponsesReceivedDesc,
-            "messages"),});
+            "messages"),
+        f.createLongCounter("phiAccrualChecks", phiAccrualChecksDesc, "checks"),
+        f.createDoubleGauge("neighborPhi", neighborPhiDesc, "phi"),});
 
     // Initialize id fields
     sentMessagesId = type.nameToId("sentMessages");
@@ -928,6 +937,8 @@ public class DistributionStats implements DMStats {
     udpFinalCheckRequestsReceivedId = type.nameToId("udpFinalCheckRequestsReceived");
     udpFinalCheckResponsesSentId = type.nameToId("udpFinalCheckResponsesSent");
     udpFinalCheckResponsesReceivedId = type.nameToId("udpFinalCheckResponsesReceived");
+    phiAccrualChecksId = type.nameToId("phiAccrualChecks");
+    neighborPhiId = type.nameToId("neighborPhi");
   }
 
   /** The Statistics object that we delegate most behavior to */
@@ -2425,4 +2436,16 @@ public class DistributionStats implements DMStats {
     this.stats.incLong(udpFinalCheckResponsesReceivedId, 1L);
   }
 
+  public long getPhiAccrualChecks() {
+    return this.stats.getLong(phiAccrualChecksId);
+  }
+
+  public void incPhiAccrualChecks() {
+    this.stats.incLong(phiAccrualChecksId, 1L);
+  }
+
+  public void setNeighborPhi(double phi) {
+    this.stats.setDouble(neighborPhiId, phi);
+  }
+
 }
@@ -986,6 +986,17 @@ public class LonerDistributionManager implements DistributionManager {
     @Override
     public void incUdpFinalCheckResponsesReceived() {}
 
+    @Override
+    public long getPhiAccrualChecks() {
+      return 0;
+    }
+
+    @Override
+    public void incPhiAccrualChecks() {}
+
+    @Override
+    public void setNeighborPhi(double phi) {}
+
     @Override
     public long startUDPMsgEncryption() {
       return 0;
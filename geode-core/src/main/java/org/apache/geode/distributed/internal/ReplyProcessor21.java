@@ -87,6 +87,14 @@ public class ReplyProcessor21 implements MembershipListener {
    */
   public static final double PR_SEVERE_ALERT_RATIO;
 
+  /**
+   * How long, in nanoseconds, a thread waiting for the reply of a single member spins before it
+   * parks. Replies to small requests often arrive within microseconds, which is less than it takes
+   * to park and wake the waiting thread. Zero, the default, disables spinning.
+   */
+  static final long SPIN_WAIT_NANOS =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "ReplyProcessor21.SPIN_WAIT_NANOS", 0);
+
   /** All live reply processors in this VM */
   protected static final ProcessorKeeper21 keeper = new ProcessorKeeper21();
 
@@ -654,6 +662,10 @@ public class ReplyProcessor21 implements MembershipListener {
     }
 
     if (stillWaiting()) {
+      if (SPIN_WAIT_NANOS > 0 && this.members.length == 1) {
+        // the awaits below return without parking if the reply arrives while spinning
+        latch.spinAwait(SPIN_WAIT_NANOS);
+      }
       long timeout = getAckWaitThreshold() * 1000L;
       long timeSoFar = System.currentTimeMillis() - this.initTime;
       final long severeAlertTimeout = getAckSevereAlertThresholdMS();
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.logging.LoggingExecutors;
+import org.apache.geode.internal.monitoring.ThreadsMonitoring;
+import org.apache.geode.internal.tcp.Connection;
+import org.apache.geode.internal.tcp.ConnectionTable;
+
+/**
+ * Processes the serial messages which have an ordering key in a fixed number of serial threads, so
+ * that the messages for unrelated regions or buckets received on one connection are processed in
+ * parallel. The messages of a sender with the same key always go to the same lane, which keeps
+ * them in the order they were received. A serial message without a key is processed by the thread
+ * which received it once all the messages that thread handed to the lanes have been processed, so
+ * it stays ordered with respect to all of them.
+ */
+class SerialLanes {
+  private final ExecutorService[] lanes;
+
+  /** The messages handed to the lanes by each receiving thread which are not yet processed */
+  private final ThreadLocal<Dispatched> dispatched = ThreadLocal.withInitial(Dispatched::new);
+
+  private volatile boolean shutdown;
+
+  SerialLanes(int count, DistributionStats stats, boolean throttlingDisabled,
+      ThreadsMonitoring threadMonitoring) {
+    this.lanes = new ExecutorService[count];
+    for (int i = 0; i < count; i++) {
+      OverflowQueueWithDMStats<Runnable> poolQueue;
+      if (ClusterDistributionManager.SERIAL_QUEUE_BYTE_LIMIT == 0 || throttlingDisabled) {
+        poolQueue = new OverflowQueueWithDMStats<>(stats.getSerialQueueHelper());
+      } else {
+        poolQueue = new ThrottlingMemLinkedQueueWithDMStats<>(
+            ClusterDistributionManager.SERIAL_QUEUE_BYTE_LIMIT,
+            ClusterDistributionManager.SERIAL_QUEUE_THROTTLE,
+            ClusterDistributionManager.SERIAL_QUEUE_SIZE_LIMIT,
+            ClusterDistributionManager.SERIAL_QUEUE_SIZE_THROTTLE, stats.getSerialQueueHelper());
+      }
+      this.lanes[i] = LoggingExecutors.newSerialThreadPool("Serial Lane Message Processor" + i,
+          thread -> stats.incSerialPooledThreadStarts(), SerialLanes::doLaneThread,
+          stats.getSerialPooledProcessorHelper(), threadMonitoring, poolQueue);
+    }
+  }
+
+  private static void doLaneThread(Runnable command) {
+    ConnectionTable.threadWantsSharedResources();
+    Connection.makeReaderThread();
+    try {
+      command.run();
+    } finally {
+      ConnectionTable.releaseThreadsSockets();
+    }
+  }
+
+  void execute(InternalDistributedMember sender, Object orderingKey, SizeableRunnable task) {
+    final Dispatched dispatched = this.dispatched.get();
+    int hash = 31 * sender.hashCode() + orderingKey.hashCode();
+    ExecutorService lane = this.lanes[Math.floorMod(hash, this.lanes.length)];
+    dispatched.increment();
+    try {
+      lane.execute(new SizeableRunnable(task.getSize()) {
+        public void run() {
+          try {
+            task.run();
+          } finally {
+            dispatched.decrement();
+          }
+        }
+
+        @Override
+        public String toString() {
+          return task.toString();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      dispatched.decrement();
+      if (!this.shutdown) {
+        throw e;
+      }
+    }
+  }
+
+  void awaitDispatched() {
+    this.dispatched.get().await(this);
+  }
+
+  void shutdown() {
+    this.shutdown = true;
+    for (ExecutorService lane : this.lanes) {
+      lane.shutdown();
+    }
+  }
+
+  void shutdownNow() {
+    this.shutdown = true;
+    for (ExecutorService lane : this.lanes) {
+      lane.shutdownNow();
+    }
+  }
+
+  void awaitTermination(long time, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(time);
+    for (ExecutorService lane : this.lanes) {
+      long remainingNanos = deadline - System.nanoTime();
+      if (remainingNanos <= 0) {
+        return;
+      }
+      lane.awaitTermination(remainingNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private static class Dispatched {
+    private int count;
+
+    synchronized void increment() {
+      this.count++;
+    }
+
+    synchronized void decrement() {
+      if (--this.count == 0) {
+        notifyAll();
+      }
+    }
+
+    synchronized void await(SerialLanes lanes) {
+      boolean interrupted = false;
+      try {
+        while (this.count > 0 && !lanes.shutdown) {
+          try {
+            wait(100);
+          } catch (InterruptedException e) {
+            interrupted = true;
+          }
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+}
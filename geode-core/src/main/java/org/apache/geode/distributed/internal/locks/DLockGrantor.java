@@ -25,6 +25,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -66,6 +67,13 @@ public class DLockGrantor {
       Boolean.getBoolean(
           DistributionConfig.GEMFIRE_PREFIX + "DLockService.DLockGrantor.debugSuspendLock");
 
+  /**
+   * Number of locks guarding the creation and removal of grant tokens. Tokens for names in
+   * different stripes are created and removed concurrently.
+   */
+  static final int GRANT_TOKEN_STRIPES = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "DLockService.DLockGrantor.grantTokenStripes", 64);
+
   /**
    * Default wait before grantor thread will reawaken to check for expirations and timeouts.
    */
@@ -95,9 +103,16 @@ public class DLockGrantor {
    * Map of grant tokens for tracking grantor-side state of distributed locks. Key: Object name,
    * Value: DLockGrantToken grant
    *
-   * guarded.By grantTokens
+   * Reads do not lock. Adding or removing the token of a name is guarded.By the stripe of the name
+   * in {@link #grantTokenStripes}.
+   */
+  private final Map grantTokens = new ConcurrentHashMap();
+
+  /**
+   * Locks guarding the addition and removal of grant tokens. Operations which have to see a stable
+   * set of all the grant tokens synchronize on every stripe, in order.
    */
-  private final Map grantTokens = new HashMap();
+  private final Object[] grantTokenStripes = createGrantTokenStripes();
 
   /**
    * Dedicated thread responsible for handling expirations and timeouts.
@@ -657,7 +672,7 @@ public class DLockGrantor {
   /**
    * TEST HOOK: Allows testing to determine if there are waiting requests for a lock.
    * <p>
-   * Synchronizes on grantTokens and the grant token if one exists.
+   * Synchronizes on the grant token if one exists.
    *
    * @param name the lock to check for waiting requests for
    * @return true if the named lock has requests waiting to acquire it
@@ -674,7 +689,7 @@ public class DLockGrantor {
   /**
    * Handles a DLockQueryMessage. Returns DLockGrantToken for the lock or null.
    * <p>
-   * Acquires destroyReadLock. Synchronizes on grantTokens.
+   * Acquires destroyReadLock.
    *
    * @param query the dlock query message to handle
    * @return DLockGrantToken for the lock or null
@@ -698,7 +713,8 @@ public class DLockGrantor {
    * Handles the provided lock request. The lock will either be granted, refused if try-lock, or
    * scheduled at end of waiting queue to eventually be granted or timed out.
    * <p>
-   * Acquires destroyReadLock. Synchronizes on grantTokens, suspendLock and the grant token.
+   * Acquires destroyReadLock. Synchronizes on the grant token stripe, suspendLock and the grant
+   * token.
    *
    * @param request the lock request to be processed by this grantor
    * @throws LockGrantorDestroyedException if grantor is destroyed
@@ -759,8 +775,8 @@ public class DLockGrantor {
   /**
    * Internally handles a lock request which has permission to proceed.
    * <p>
-   * Calling thread must hold destroyReadLock. Synchronizes on grantTokens, suspendLock and the
-   * grant token.
+   * Calling thread must hold destroyReadLock. Synchronizes on the grant token stripe, suspendLock
+   * and the grant token.
    *
    * @param request the lock request to be processed by this grantor guarded.By
    *        {@link #acquireDestroyReadLock(long)}
@@ -785,6 +801,12 @@ public class DLockGrantor {
 
       // if request was a failed try-lock...
       else if (request.isTryLock()) {
+        if (DLockService.CACHE_LEASES) {
+          // otherwise a cached lease would fail every try-lock until it expires
+          synchronized (grant) {
+            grant.revokeLease();
+          }
+        }
         cleanupSuspendState(request);
         request.respondWithTryLockFailed(request.getObjectName());
       }
@@ -807,8 +829,8 @@ public class DLockGrantor {
   /**
    * Initializes this new grantor with previously held locks as provided during grantor recovery.
    * <p>
-   * Acquires destroyReadLock. Synchronizes on this grantor, grantTokens, suspendLock, the grant
-   * token.
+   * Acquires destroyReadLock. Synchronizes on this grantor, every grant token stripe, suspendLock,
+   * the grant token.
    *
    * @param owner the member that owns the tokens to be scheduled
    * @param tokens set of DLockRemoteTokens to be scheduled for owner
@@ -824,87 +846,95 @@ public class DLockGrantor {
     }
 
     try {
-      synchronized (this.grantTokens) {
-        Set members = this.dlock.getDistributionManager().getDistributionManagerIds();
+      synchronizeOnAllGrantTokenStripes(() -> basicInitializeHeldLocks(owner, tokens));
+      return;
+    } finally {
+      releaseDestroyReadLock();
+    }
+  }
 
-        final boolean isDebugEnabled_DLS = logger.isTraceEnabled(LogMarker.DLS_VERBOSE);
-        for (Iterator iter = tokens.iterator(); iter.hasNext();) {
-          DLockRemoteToken token = (DLockRemoteToken) iter.next();
-          DLockGrantToken grantToken = getOrCreateGrant(token.getName());
-          try {
+  /**
+   * Schedules the previously held locks of owner during grantor recovery.
+   * <p>
+   * Caller must hold destroyReadLock and synchronize on every grant token stripe. Synchronizes on
+   * suspendLock and the grant token.
+   */
+  private void basicInitializeHeldLocks(InternalDistributedMember owner, Set tokens) {
+    Set members = this.dlock.getDistributionManager().getDistributionManagerIds();
 
-            // make sure the token's owner is still in the system
-            if (!members.contains(owner)) {
-              // skipping because member is no longer in view
-              if (isDebugEnabled_DLS) {
-                logger.trace(LogMarker.DLS_VERBOSE,
-                    "Initialization of held locks is skipping {} because owner {} is not in view: ",
-                    token, owner, members);
-              }
-              continue;
-            }
+    final boolean isDebugEnabled_DLS = logger.isTraceEnabled(LogMarker.DLS_VERBOSE);
+    for (Iterator iter = tokens.iterator(); iter.hasNext();) {
+      DLockRemoteToken token = (DLockRemoteToken) iter.next();
+      DLockGrantToken grantToken = getOrCreateGrant(token.getName());
+      try {
 
-            RemoteThread rThread = null;
-            boolean isSuspendLock = false;
-            int lockId = -1;
+        // make sure the token's owner is still in the system
+        if (!members.contains(owner)) {
+          // skipping because member is no longer in view
+          if (isDebugEnabled_DLS) {
+            logger.trace(LogMarker.DLS_VERBOSE,
+                "Initialization of held locks is skipping {} because owner {} is not in view: ",
+                token, owner, members);
+          }
+          continue;
+        }
 
-            synchronized (grantToken) {
-              if (grantToken.isLeaseHeld()) {
-                logger.error(LogMarker.DLS_MARKER,
-                    "Initialization of held locks is skipping {} because lock is already held: {}",
-                    token, grantToken);
-                continue;
-              }
+        RemoteThread rThread = null;
+        boolean isSuspendLock = false;
+        int lockId = -1;
 
-              grantToken.grantLock(owner, token.getLeaseExpireTime(), token.getLeaseId(),
-                  token.getLesseeThread());
+        synchronized (grantToken) {
+          if (grantToken.isLeaseHeld()) {
+            logger.error(LogMarker.DLS_MARKER,
+                "Initialization of held locks is skipping {} because lock is already held: {}",
+                token, grantToken);
+            continue;
+          }
 
-              // grantToken may have already expired or is about to expire
-              // complete initialization but make sure grantor thread will wake
-              // up and expire it as soon as it's running
-              if (grantToken.getLeaseExpireTime() > -1
-                  && grantToken.getLeaseExpireTime() < Long.MAX_VALUE) {
-                long now = DLockService.getLockTimeStamp(this.dm);
-                this.thread.checkTimeToWait(grantToken.getLeaseExpireTime() - now, true);
-              }
+          grantToken.grantLock(owner, token.getLeaseExpireTime(), token.getLeaseId(),
+              token.getLesseeThread());
 
-              rThread = grantToken.getRemoteThread();
-              isSuspendLock = grantToken.isSuspendLockingToken();
-              lockId = grantToken.getLockId();
-            }
+          // grantToken may have already expired or is about to expire
+          // complete initialization but make sure grantor thread will wake
+          // up and expire it as soon as it's running
+          if (grantToken.getLeaseExpireTime() > -1
+              && grantToken.getLeaseExpireTime() < Long.MAX_VALUE) {
+            long now = DLockService.getLockTimeStamp(this.dm);
+            this.thread.checkTimeToWait(grantToken.getLeaseExpireTime() - now, true);
+          }
 
-            // update the readLock and suspendLocking states...
-            synchronized (suspendLock) {
-              if (isSuspendLock) {
-                suspendLocking(rThread, lockId);
-              } else {
-                Assert.assertTrue(!isLockingSuspended() || isLockingSuspendedBy(rThread),
-                    "Locking is suspended by a different thread: " + token);
-                Integer integer = (Integer) readLockCountMap.get(rThread);
-                int readLockCount = integer == null ? 0 : integer.intValue();
-                readLockCount++;
-                readLockCountMap.put(rThread, Integer.valueOf(readLockCount));
-                totalReadLockCount++;
-                checkTotalReadLockCount();
-              }
-            } // suspendLock sync
+          rThread = grantToken.getRemoteThread();
+          isSuspendLock = grantToken.isSuspendLockingToken();
+          lockId = grantToken.getLockId();
+        }
 
-          } finally {
-            grantToken.decAccess();
+        // update the readLock and suspendLocking states...
+        synchronized (suspendLock) {
+          if (isSuspendLock) {
+            suspendLocking(rThread, lockId);
+          } else {
+            Assert.assertTrue(!isLockingSuspended() || isLockingSuspendedBy(rThread),
+                "Locking is suspended by a different thread: " + token);
+            Integer integer = (Integer) readLockCountMap.get(rThread);
+            int readLockCount = integer == null ? 0 : integer.intValue();
+            readLockCount++;
+            readLockCountMap.put(rThread, Integer.valueOf(readLockCount));
+            totalReadLockCount++;
+            checkTotalReadLockCount();
           }
+        } // suspendLock sync
 
-        } // tokens iter
-      } // grantTokens sync
-      return;
-    } finally {
-      releaseDestroyReadLock();
-    }
+      } finally {
+        grantToken.decAccess();
+      }
+
+    } // tokens iter
   }
 
   /**
    * Handles a request for extending the lease time of an already held lock.
    * <p>
-   * Acquires destroyReadLock. Synchronizes on grantTokens and the grant token.
+   * Acquires destroyReadLock. Synchronizes on the grant token stripe and the grant token.
    *
    * @param request the lock request to be reentered for lease extension
    * @return new extended leaseExpireTime or 0 if requestor no longer holds lock
@@ -957,7 +987,7 @@ public class DLockGrantor {
    * Release named lock if held by owner using lockId. Called from DLockReleaseMessage.basicProcess
    * for remote unlock.
    * <p>
-   * Acquires destroyReadLock. Synchronizes on grantTokens and the grant token.
+   * Acquires destroyReadLock. Synchronizes on the grant token stripe and the grant token.
    *
    * @param name the name of the lock to release
    * @param owner the member releasing the lock
@@ -983,7 +1013,7 @@ public class DLockGrantor {
    * Fetches the actual grant token and releases it if leased by owner using lockId.
    * DLockReleaseMessage.basicProcess -> releaseIfLocked -> getAndReleaseGrantIfLockedBy
    * <p>
-   * Caller must hold destroyReadLock. Synchronizes on grantTokens and the grant token.
+   * Caller must hold destroyReadLock. Synchronizes on the grant token stripe and the grant token.
    *
    * @param name the name of the lock to release
    * @param owner the member attempting to release the granted lock
@@ -992,7 +1022,7 @@ public class DLockGrantor {
    */
   private void getAndReleaseGrantIfLockedBy(Object name, InternalDistributedMember owner,
       int lockId) {
-    synchronized (this.grantTokens) {
+    synchronized (getGrantTokenStripe(name)) {
       DLockGrantToken grantToken = basicGetGrantToken(name);
       if (grantToken != null) { // checking isTokenDestroyed here will deadlock
         synchronized (grantToken) {
@@ -1016,7 +1046,7 @@ public class DLockGrantor {
    * if one exists. Called from DLockReleaseProcessor when another process releases a lock and after
    * the reply has been sent.
    * <p>
-   * Acquires destroyReadLock. Synchronizes on grantTokens and the grant token.
+   * Acquires destroyReadLock. Synchronizes on the grant token stripe and the grant token.
    *
    * @param name the name of the lock to grant
    * @throws LockGrantorDestroyedException if grantor is destroyed
@@ -1041,7 +1071,8 @@ public class DLockGrantor {
   /**
    * Handles the departure of a member by releasing every lock it owned.
    * <p>
-   * Acquires destroyReadLock. Synchronizes on grantTokens, suspendLock, and the grant token.
+   * Acquires destroyReadLock. Synchronizes on every grant token stripe, suspendLock, and the grant
+   * token.
    *
    * @param owner the member that departed
    */
@@ -1094,53 +1125,7 @@ public class DLockGrantor {
               }
             }
           } // synchronized
-          synchronized (this.grantTokens) {
-            // do not call handleDepartureOf while iterating grantTokens
-            // changes fix bug 39172 (ConcurrentModificationException)
-
-            // 1) built up list of grants that reference departed member
-            List grantsReferencingMember = new ArrayList();
-            Collection grants = this.grantTokens.values();
-            for (Iterator iter = grants.iterator(); iter.hasNext();) {
-              DLockGrantToken grant = (DLockGrantToken) iter.next();
-              try {
-                grant.checkDepartureOf(owner, grantsReferencingMember);
-              } catch (CancelException e) {
-                if (isDebugEnabled_DLS) {
-                  logger.trace(LogMarker.DLS_VERBOSE,
-                      "[DlockGrantor.handleDepartureOf] ignored cancellation (3)");
-                }
-              }
-            } // for
-
-            // 2) call handleDepartureOf on list of grantsReferencingMember
-            ArrayList grantsToRemoveIfUnused = new ArrayList();
-            for (Iterator iter = grantsReferencingMember.iterator(); iter.hasNext();) {
-              DLockGrantToken grant = (DLockGrantToken) iter.next();
-              try {
-                grant.handleDepartureOf(owner, grantsToRemoveIfUnused);
-              } catch (CancelException e) {
-                if (isDebugEnabled_DLS) {
-                  logger.trace(LogMarker.DLS_VERBOSE,
-                      "[DlockGrantor.handleDepartureOf] ignored cancellation (4)");
-                }
-              }
-            } // for
-
-            // 3) remove grants in grantsToRemoveIfUnused list
-            // TODO: if grantsReferencingMember is always empty remove this
-            for (Iterator iter = grantsToRemoveIfUnused.iterator(); iter.hasNext();) {
-              DLockGrantToken grant = (DLockGrantToken) iter.next();
-              try {
-                removeGrantIfUnused(grant);
-              } catch (CancelException e) {
-                if (isDebugEnabled_DLS) {
-                  logger.trace(LogMarker.DLS_VERBOSE,
-                      "[DlockGrantor.handleDepartureOf] ignored cancellation (5)");
-                }
-              }
-            } // for
-          } // synchronized this.grantTokens
+          synchronizeOnAllGrantTokenStripes(() -> releaseGrantsOf(owner));
         } // finally
       } finally {
         releaseDestroyReadLock();
@@ -1148,10 +1133,65 @@ public class DLockGrantor {
     }
   }
 
+  /**
+   * Releases the grants held by and the requests of the departed owner.
+   * <p>
+   * Caller must hold destroyReadLock and synchronize on every grant token stripe. Synchronizes on
+   * suspendLock and the grant tokens.
+   */
+  private void releaseGrantsOf(InternalDistributedMember owner) {
+    final boolean isDebugEnabled_DLS = logger.isTraceEnabled(LogMarker.DLS_VERBOSE);
+    // do not call handleDepartureOf while iterating grantTokens
+    // changes fix bug 39172 (ConcurrentModificationException)
+
+    // 1) built up list of grants that reference departed member
+    List grantsReferencingMember = new ArrayList();
+    Collection grants = this.grantTokens.values();
+    for (Iterator iter = grants.iterator(); iter.hasNext();) {
+      DLockGrantToken grant = (DLockGrantToken) iter.next();
+      try {
+        grant.checkDepartureOf(owner, grantsReferencingMember);
+      } catch (CancelException e) {
+        if (isDebugEnabled_DLS) {
+          logger.trace(LogMarker.DLS_VERBOSE,
+              "[DlockGrantor.handleDepartureOf] ignored cancellation (3)");
+        }
+      }
+    } // for
+
+    // 2) call handleDepartureOf on list of grantsReferencingMember
+    ArrayList grantsToRemoveIfUnused = new ArrayList();
+    for (Iterator iter = grantsReferencingMember.iterator(); iter.hasNext();) {
+      DLockGrantToken grant = (DLockGrantToken) iter.next();
+      try {
+        grant.handleDepartureOf(owner, grantsToRemoveIfUnused);
+      } catch (CancelException e) {
+        if (isDebugEnabled_DLS) {
+          logger.trace(LogMarker.DLS_VERBOSE,
+              "[DlockGrantor.handleDepartureOf] ignored cancellation (4)");
+        }
+      }
+    } // for
+
+    // 3) remove grants in grantsToRemoveIfUnused list
+    // TODO: if grantsReferencingMember is always empty remove this
+    for (Iterator iter = grantsToRemoveIfUnused.iterator(); iter.hasNext();) {
+      DLockGrantToken grant = (DLockGrantToken) iter.next();
+      try {
+        removeGrantIfUnused(grant);
+      } catch (CancelException e) {
+        if (isDebugEnabled_DLS) {
+          logger.trace(LogMarker.DLS_VERBOSE,
+              "[DlockGrantor.handleDepartureOf] ignored cancellation (5)");
+        }
+      }
+    } // for
+  }
+
   /**
    * Destroys this grantor without attempting to transfer grant tokens to a successor.
    * <p>
-   * Acquires destroyWriteLock. Synchronizes on this grantor, grantTokens, and each grant token.
+   * Acquires destroyWriteLock. Synchronizes on this grantor and each grant token.
    */
   void destroy() {
     synchronized (this) {
@@ -1174,15 +1214,14 @@ public class DLockGrantor {
             // assume the worst case and tell the elder that recovery will be required
             locksHeld = true;
           } else {
-            synchronized (this.grantTokens) {
-              InternalDistributedMember me = this.dlock.getDistributionManager().getId();
-              for (Iterator iter = this.grantTokens.values().iterator(); iter.hasNext();) {
-                DLockGrantToken grant = (DLockGrantToken) iter.next();
-                InternalDistributedMember owner = grant.getOwner();
-                if (owner != null && !owner.equals(me)) {
-                  locksHeld = true;
-                  break;
-                }
+            // the destroyWriteLock keeps lock requests from changing the grant tokens
+            InternalDistributedMember me = this.dlock.getDistributionManager().getId();
+            for (Iterator iter = this.grantTokens.values().iterator(); iter.hasNext();) {
+              DLockGrantToken grant = (DLockGrantToken) iter.next();
+              InternalDistributedMember owner = grant.getOwner();
+              if (owner != null && !owner.equals(me)) {
+                locksHeld = true;
+                break;
               }
             }
           }
@@ -1212,8 +1251,8 @@ public class DLockGrantor {
   /**
    * Send replies to all waiting requestors to notify them that this is no longer the grantor.
    * <p>
-   * Caller must acquire destroyWriteLock. Synchronizes on suspendLock, grantTokens, and each grant
-   * token.
+   * Caller must acquire destroyWriteLock. Synchronizes on suspendLock, every grant token stripe,
+   * and each grant token.
    *
    * guarded.By {@link #acquireDestroyWriteLock(long)}
    */
@@ -1221,13 +1260,13 @@ public class DLockGrantor {
     Assert.assertHoldsLock(this, true);
     makeDestroyed();
     // reply to all pending requests w/ NOT_GRANTOR
-    synchronized (this.grantTokens) {
+    synchronizeOnAllGrantTokenStripes(() -> {
       Collection grants = this.grantTokens.values();
       for (Iterator iter = grants.iterator(); iter.hasNext();) {
         DLockGrantToken grant = (DLockGrantToken) iter.next();
         grant.handleGrantorDestruction();
       }
-    }
+    });
 
     synchronized (suspendLock) {
       final boolean isDebugEnabled_DLS = logger.isTraceEnabled(LogMarker.DLS_VERBOSE);
@@ -1310,7 +1349,8 @@ public class DLockGrantor {
   /**
    * Drain currently permitted requests and grant lock to next requestor.
    * <p>
-   * Acquires destroyReadLock. Synchronizes on suspendLock, grantTokens, and the grant token.
+   * Acquires destroyReadLock. Synchronizes on suspendLock, the grant token stripe, and the grant
+   * token.
    *
    * @param objectName the lock to perform post release tasks for
    */
@@ -1440,29 +1480,34 @@ public class DLockGrantor {
   /**
    * Returns a snapshot of the current grant tokens.
    * <p>
-   * Synchronizes on grantTokens.
+   * Does not synchronize, so tokens added or removed concurrently may or may not be included.
    *
    * @return a snapshot of the current grant tokens
    */
   protected Collection snapshotGrantTokens() {
-    Collection snapshot = null;
-    synchronized (this.grantTokens) {
-      snapshot = new ArrayList(this.grantTokens.values());
-    }
-    return snapshot;
+    return new ArrayList(this.grantTokens.values());
   }
 
   /**
    * Fetches or creates a new grant token for the named lock.
    * <p>
-   * Synchronizes on grantTokens and the grant token.
+   * Synchronizes on the grant token stripe and the grant token.
    *
    * @param name the name of the lock
    * @return the grant token for the named lock
    */
-  private DLockGrantToken getOrCreateGrant(Object name) {
-    DLockGrantToken grantToken = null;
-    synchronized (this.grantTokens) {
+  DLockGrantToken getOrCreateGrant(Object name) {
+    DLockGrantToken grantToken = basicGetGrantToken(name);
+    if (grantToken != null) {
+      // a token is only removed while it is not being accessed, see removeGrantIfUnused
+      synchronized (grantToken) {
+        if (!grantToken.isDestroyed()) {
+          grantToken.incAccess();
+          return grantToken;
+        }
+      }
+    }
+    synchronized (getGrantTokenStripe(name)) {
       grantToken = basicGetGrantToken(name);
       if (grantToken == null) { // checking isTokenDestroyed here will deadlock
         grantToken = new DLockGrantToken(this.dlock, this, name);
@@ -1486,26 +1531,22 @@ public class DLockGrantor {
   /**
    * TEST HOOK: Returns an unmodifible collection backed by the values of the DLockGrantToken map
    * for testing purposes only.
-   * <p>
-   * Synchronizes on grantTokens.
    *
    * @return unmodifible collection of the grant tokens
    */
   public Collection getGrantTokens() {
-    synchronized (this.grantTokens) {
-      return Collections.unmodifiableCollection(this.grantTokens.values());
-    }
+    return Collections.unmodifiableCollection(this.grantTokens.values());
   }
 
   /**
    * Remove the grant token if it is unused.
    * <p>
-   * Synchronizes on grantTokens and the grant token.
+   * Synchronizes on the grant token stripe and the grant token.
    *
    * @param grant the grant token to remove
    */
   protected void removeGrantIfUnused(DLockGrantToken grant) {
-    synchronized (this.grantTokens) {
+    synchronized (getGrantTokenStripe(grant.getName())) {
       synchronized (grant) {
         if (isDestroyed() || grant.isDestroyed()) {
           return;
@@ -1522,7 +1563,7 @@ public class DLockGrantor {
   /**
    * Iterates over grants and attempts to remove any that are no longer in use.
    * <p>
-   * Synchronizes on grantTokens and the grant token.
+   * Synchronizes on the grant token stripe and the grant token.
    *
    * @param grants the grants to be checked for removal
    */
@@ -1535,22 +1576,51 @@ public class DLockGrantor {
 
   /**
    * Returns the DLockGrantToken from grant tokens map stored under the key name.
-   * <p>
-   * Synchronizes on grantTokens.
    */
   public DLockGrantToken getGrantToken(Object name) {
-    synchronized (this.grantTokens) {
-      return basicGetGrantToken(name);
+    return basicGetGrantToken(name);
+  }
+
+  private static Object[] createGrantTokenStripes() {
+    Object[] stripes = new Object[Math.max(1, GRANT_TOKEN_STRIPES)];
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i] = new Object();
+    }
+    return stripes;
+  }
+
+  /**
+   * Returns the lock guarding the addition and removal of the grant token for the named lock.
+   */
+  private Object getGrantTokenStripe(Object name) {
+    int hash = name.hashCode();
+    hash ^= (hash >>> 16);
+    return this.grantTokenStripes[Math.floorMod(hash, this.grantTokenStripes.length)];
+  }
+
+  /**
+   * Runs the action while synchronized on every grant token stripe. Stripes are always taken in
+   * the same order so this cannot deadlock with another thread doing the same.
+   */
+  private void synchronizeOnAllGrantTokenStripes(Runnable action) {
+    synchronizeOnGrantTokenStripes(0, action);
+  }
+
+  private void synchronizeOnGrantTokenStripes(int index, Runnable action) {
+    if (index == this.grantTokenStripes.length) {
+      action.run();
+      return;
+    }
+    synchronized (this.grantTokenStripes[index]) {
+      synchronizeOnGrantTokenStripes(index + 1, action);
     }
   }
 
   /**
    * Fetches the grant token value stored in the map under key name.
-   * <p>
-   * Caller must synchronize on grantTokens
    *
    * @param name the key to fetch the grant token value for
-   * @return the grant token stored under key name guarded.By {@link #grantTokens}
+   * @return the grant token stored under key name
    */
   private DLockGrantToken basicGetGrantToken(Object name) {
     return (DLockGrantToken) this.grantTokens.get(name);
@@ -1559,9 +1629,9 @@ public class DLockGrantor {
   /**
    * Stores the grant token as a value in the map under the key of its name.
    * <p>
-   * Caller must synchronize on grantTokens
+   * Caller must synchronize on the grant token stripe of its name
    *
-   * @param grantToken the grant token to store in the map guarded.By {@link #grantTokens}
+   * @param grantToken the grant token to store in the map
    */
   private void basicPutGrantToken(DLockGrantToken grantToken) {
     this.grantTokens.put(grantToken.getName(), grantToken);
@@ -1571,10 +1641,9 @@ public class DLockGrantor {
   /**
    * Removes the grant token from the map.
    * <p>
-   * Caller must synchronize on grantTokens and then the grantToken.
+   * Caller must synchronize on the grant token stripe of its name and then the grantToken.
    *
-   * @param grantToken the grant token to remove from the map. guarded.By {@link #grantTokens} and
-   *        grantToken
+   * @param grantToken the grant token to remove from the map
    */
   private void basicRemoveGrantToken(DLockGrantToken grantToken) {
     Object removed = this.grantTokens.remove(grantToken.getName()); // changed to ref token
@@ -2041,8 +2110,8 @@ public class DLockGrantor {
    * Drains newly permitted requests that have been removed from suspendQueue. All requests in the
    * permittedRequests queue already have permission to proceed with granting or scheduling.
    * <p>
-   * Caller must acquire destroyReadLock. Synchronizes on suspendLock, grantTokens and each grant
-   * token.
+   * Caller must acquire destroyReadLock. Synchronizes on suspendLock, the grant token stripe and
+   * each grant token.
    *
    * Concurrency: protected by {@link #destroyLock} via invoking
    * {@link #acquireDestroyReadLock(long)}
@@ -2107,10 +2176,12 @@ public class DLockGrantor {
   }
 
   /**
-   * Synchronizes on suspendLock.
+   * Synchronizes on suspendLock. Synchronizes on each grant token after releasing suspendLock if
+   * the request has to wait for leases which may be cached.
    */
   private boolean acquireSuspendLockPermission(DLockRequestMessage request) {
     boolean permitLockRequest = false;
+    boolean revokeLeases = false;
     final RemoteThread rThread = request.getRemoteThread();
     Assert.assertTrue(rThread != null);
 
@@ -2125,6 +2196,7 @@ public class DLockGrantor {
       boolean othersHaveReadLocks = totalReadLockCount > readLockCount;
       final boolean isDebugEnabled_DLS = logger.isTraceEnabled(LogMarker.DLS_VERBOSE);
       if (isLockingSuspended() || writeLockWaiters > 0 || othersHaveReadLocks) {
+        revokeLeases = DLockService.CACHE_LEASES && othersHaveReadLocks;
         writeLockWaiters++;
         suspendQueue.addLast(request);
         this.thread.checkTimeToWait(calcWaitMillisFromNow(request), false);
@@ -2148,6 +2220,15 @@ public class DLockGrantor {
             permitLockRequest, displayStatus(rThread, null));
       }
     } // suspendLock sync
+    if (revokeLeases) {
+      // cached leases would keep holding their read locks until they expire
+      for (Object value : this.grantTokens.values()) {
+        DLockGrantToken grantToken = (DLockGrantToken) value;
+        synchronized (grantToken) {
+          grantToken.revokeLease();
+        }
+      }
+    }
     return permitLockRequest;
   }
 
@@ -2237,10 +2318,10 @@ public class DLockGrantor {
   /**
    * TEST HOOK: Logs all grant tokens and other lock information for this service at INFO level.
    * <p>
-   * Synchronizes on grantTokens.
+   * Synchronizes on every grant token stripe.
    */
   protected void dumpService() {
-    synchronized (this.grantTokens) {
+    synchronizeOnAllGrantTokenStripes(() -> {
       StringBuffer buffer = new StringBuffer();
       buffer.append("DLockGrantor.dumpService() for ").append(this);
       buffer.append("\n").append(this.grantTokens.size()).append(" grantTokens\n");
@@ -2253,7 +2334,7 @@ public class DLockGrantor {
       logger.info(LogMarker.DLS_MARKER, "{}", buffer);
       logger.info(LogMarker.DLS_MARKER, "{}",
           "\nreadLockCountMap:\n" + readLockCountMap);
-    }
+    });
   }
 
   /**
@@ -2370,6 +2451,13 @@ public class DLockGrantor {
      */
     private RemoteThread lesseeThread = null;
 
+    /**
+     * The id of the current lease if the lessee has been asked to release it.
+     *
+     * guarded.By this
+     */
+    private int revokedLeaseId = -1;
+
     /**
      * Instatiates a new instance of DLockGrantToken.
      *
@@ -2417,9 +2505,26 @@ public class DLockGrantor {
       }
       this.pendingRequests.add(request);
       this.dlock.getStats().incPendingRequests(1);
+      if (DLockService.CACHE_LEASES) {
+        revokeLease();
+      }
       return true;
     }
 
+    /**
+     * Asks the lessee to release the current lease, which it may have cached after unlocking this
+     * lock. The lessee is asked only once per lease.
+     * <p>
+     * Caller must synchronize on this grant token.
+     */
+    void revokeLease() {
+      if (isLeaseHeld() && this.revokedLeaseId != this.leaseId) {
+        this.revokedLeaseId = this.leaseId;
+        DLockRevokeLeaseMessage.send(this.grantor.dm, this.lessee, this.dlock.getName(),
+            this.lockName, this.leaseId);
+      }
+    }
+
     /**
      * Sends NOT_GRANTOR replies to every request waiting for this grant token and then destroys the
      * grant token.
@@ -2611,7 +2716,7 @@ public class DLockGrantor {
      * Cleans up any state for the departed member. If the lock is held by this member, it will be
      * released. Any pending lock requests for this member will be removed.
      * <p>
-     * Synchronizes on this grant token, suspendLock, and grantTokens.
+     * Synchronizes on this grant token, suspendLock, and the grant token stripe.
      *
      * @param member the departed member
      */
@@ -3157,6 +3262,7 @@ public class DLockGrantor {
       this.leaseExpireTime = newLeaseExpireTime;
       this.leaseId = lockId;
       this.lesseeThread = remoteThread;
+      this.revokedLeaseId = -1;
       if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
         logger.trace(LogMarker.DLS_VERBOSE, "[DLockGrantToken.grantLock.grantor] Granting {}",
             toString(false));
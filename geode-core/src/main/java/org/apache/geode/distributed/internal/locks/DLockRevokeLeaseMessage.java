@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.geode.distributed.internal.locks;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.internal.ClusterDistributionManager;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.HighPriorityDistributionMessage;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * Sent by the grantor to the member holding the lease of a lock when another lock request has to
+ * wait for that lease. The member releases the lease right away if it only kept it as a cached
+ * lease, or as soon as it unlocks the lock otherwise.
+ *
+ * @see DLockService#CACHE_LEASES
+ */
+public class DLockRevokeLeaseMessage extends HighPriorityDistributionMessage {
+  private static final Logger logger = LogService.getLogger();
+
+  /** The name of the DistributedLockService */
+  protected String serviceName;
+
+  /** The object name */
+  protected Object objectName;
+
+  /** The id of the lease to release */
+  protected int leaseId;
+
+  public DLockRevokeLeaseMessage() {}
+
+  /**
+   * Asks the lessee to release the given lease. Lessees running an older version never cache
+   * leases and are not asked.
+   * <p>
+   * Does not block, so it may be called while synchronized on the grant token.
+   */
+  static void send(DistributionManager dm, InternalDistributedMember lessee, String serviceName,
+      Object objectName, int leaseId) {
+    if (lessee.equals(dm.getId())) {
+      DLockService svc = DLockService.getInternalServiceNamed(serviceName);
+      if (svc != null) {
+        dm.getWaitingThreadPool().execute(() -> svc.revokeLease(objectName, leaseId));
+      }
+      return;
+    }
+    if (lessee.getVersionObject().compareTo(Version.CURRENT) < 0) {
+      return;
+    }
+    DLockRevokeLeaseMessage msg = new DLockRevokeLeaseMessage();
+    msg.serviceName = serviceName;
+    msg.objectName = objectName;
+    msg.leaseId = leaseId;
+    msg.setRecipient(lessee);
+    dm.putOutgoing(msg);
+  }
+
+  @Override
+  protected void process(final ClusterDistributionManager dm) {
+    final DLockService svc = DLockService.getInternalServiceNamed(this.serviceName);
+    if (svc == null) {
+      return;
+    }
+    if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
+      logger.trace(LogMarker.DLS_VERBOSE, "[DLockRevokeLeaseMessage.process] {}", this);
+    }
+    // releasing the lease waits for a reply from the grantor
+    dm.getWaitingThreadPool().execute(() -> svc.revokeLease(this.objectName, this.leaseId));
+  }
+
+  @Override
+  public int getDSFID() {
+    return DLOCK_REVOKE_LEASE_MESSAGE;
+  }
+
+  @Override
+  public void toData(DataOutput out) throws IOException {
+    super.toData(out);
+    DataSerializer.writeString(this.serviceName, out);
+    DataSerializer.writeObject(this.objectName, out);
+    out.writeInt(this.leaseId);
+  }
+
+  @Override
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    super.fromData(in);
+    this.serviceName = DataSerializer.readString(in);
+    this.objectName = DataSerializer.readObject(in);
+    this.leaseId = in.readInt();
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("DLockRevokeLeaseMessage for ").append(this.serviceName).append(", ")
+        .append(this.objectName).append("; leaseId=").append(this.leaseId).toString();
+  }
+}
@@ -82,6 +82,15 @@ public class DLockService extends DistributedLockService {
   private static final boolean AUTOMATE_FREE_RESOURCES =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "DLockService.automateFreeResources");
 
+  /**
+   * True if a member keeps the lease of a lock after it has been unlocked, so that the same thread
+   * can lock it again without a round trip to the grantor. The grantor asks for a cached lease to
+   * be released once another request has to wait for it or a try-lock is refused because of it.
+   * Must be set on every member.
+   */
+  static final boolean CACHE_LEASES =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "DLockService.cacheLeases");
+
   static final int INVALID_LEASE_ID = -1;
 
   /** Unique name for this instance of the named locking service */
@@ -1201,7 +1210,7 @@ public class DLockService extends DistributedLockService {
         return false;
       synchronized (token) {
         token.checkForExpiration();
-        if (token.getLesseeThread() == null) {
+        if (token.getLesseeThread() == null || token.isLeaseCached()) {
           return false;
         }
         return token.getLesseeThread().getThreadId() == threadId;
@@ -1417,9 +1426,27 @@ public class DLockService extends DistributedLockService {
           // Check for recursive lock
           boolean reentrant = false;
           int recursionBefore = -1;
+          boolean releaseCachedLease = false;
 
           synchronized (token) {
             token.checkForExpiration();
+            if (token.isLeaseCached()) {
+              RemoteThread rThread = new RemoteThread(getDistributionManager().getId(), threadId);
+              long minLeaseExpireTime = startTime + requestLeaseTime;
+              if (requestLeaseTime == Long.MAX_VALUE || minLeaseExpireTime < 0) {
+                minLeaseExpireTime = Long.MAX_VALUE;
+              }
+              if (token.reuseCachedLease(rThread, minLeaseExpireTime)) {
+                if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
+                  logger.trace(LogMarker.DLS_VERBOSE, "{}, name: {} - reused cached lease: {}",
+                      this, name, token);
+                }
+                gotLock = true;
+                break;
+              }
+              // cached for another thread or too short, so the grantor has to lease it again
+              releaseCachedLease = token.uncacheLease();
+            }
             if (token.isLeaseHeldByCurrentThread()) {
               if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
                 logger.trace(LogMarker.DLS_VERBOSE, "{} , name: {} - lock() is reentrant: {}", this,
@@ -1440,6 +1467,10 @@ public class DLockService extends DistributedLockService {
             } // isLeaseHeldByCurrentThread
           } // token sync
 
+          if (releaseCachedLease) {
+            releaseUncachedLease(name, token);
+          }
+
           LockGrantorId theLockGrantorId = getLockGrantorId();
 
           if (reentrant) {
@@ -1734,6 +1765,7 @@ public class DLockService extends DistributedLockService {
     long statStart = getStats().startLockRelease();
 
     boolean hadRecursion = false;
+    boolean cached = false;
     boolean unlocked = false;
     int lockId = -1;
     DLockToken token = null;
@@ -1757,7 +1789,7 @@ public class DLockService extends DistributedLockService {
         synchronized (token) {
           token.checkForExpiration();
           rThread = token.getLesseeThread();
-          if (!token.isLeaseHeldByCurrentOrRemoteThread(rThread)) {
+          if (token.isLeaseCached() || !token.isLeaseHeldByCurrentOrRemoteThread(rThread)) {
             token.throwIfCurrentThreadHadExpiredLease();
             if (isDebugEnabled_DLS) {
               logger.trace(LogMarker.DLS_VERBOSE, "{}, [unlock] {} not leased by this thread.",
@@ -1774,37 +1806,16 @@ public class DLockService extends DistributedLockService {
           Assert.assertTrue(lockId > -1);
           if (hadRecursion) {
             unlocked = token.releaseLock(lockId, rThread);
+          } else if (CACHE_LEASES && !SUSPEND_LOCKING_TOKEN.equals(name) && token.cacheLease()) {
+            cached = true;
           } else {
             token.setIgnoreForRecovery(true);
           }
         } // token sync
       } // tokens map sync
 
-      if (!hadRecursion) {
-        boolean lockBatch = false;
-        boolean released = false;
-
-        while (!released) {
-          checkDestroyed();
-          LockGrantorId theLockGrantorId = getLockGrantorId();
-          try {
-            synchronized (this.lockGrantorIdLock) {
-              unlocked = token.releaseLock(lockId, rThread);
-            }
-            released = callReleaseProcessor(theLockGrantorId.getLockGrantorMember(), name,
-                lockBatch, lockId);
-
-          } catch (LockGrantorDestroyedException e) { // part of fix for bug 35239
-            // loop back around to get next lock grantor
-          } catch (LockServiceDestroyedException e) { // part of fix for bug 35239
-            // done... NonGrantorDestroyedMessage will release locks for us
-            released = true;
-          } finally {
-            if (!released) {
-              notLockGrantorId(theLockGrantorId, 0, TimeUnit.MILLISECONDS);
-            }
-          }
-        } // while !released
+      if (!hadRecursion && !cached) {
+        unlocked = releaseWithGrantor(name, token, lockId, rThread);
       } // !hadRecursion
 
     } // try
@@ -1812,7 +1823,7 @@ public class DLockService extends DistributedLockService {
       try {
         if (!hadRecursion && lockId > -1 && token != null) {
           decActiveLocks();
-          if (!unlocked) {
+          if (!unlocked && !cached) {
             // // token is still held if grantor was remote, so now we unlock...
             // checkDestroyed(); // part of fix for bug 35239
             // // this release is ok even if we have become the lock grantor
@@ -1832,6 +1843,102 @@ public class DLockService extends DistributedLockService {
     }
   }
 
+  /**
+   * Releases the given lease of a lock with the grantor. Caller must have set ignoreForRecovery on
+   * the lock token.
+   *
+   * @return true if the lease was released by the lock token before asking the grantor
+   */
+  private boolean releaseWithGrantor(Object name, DLockToken token, int lockId,
+      RemoteThread rThread) {
+    boolean unlocked = false;
+    boolean released = false;
+    while (!released) {
+      checkDestroyed();
+      LockGrantorId theLockGrantorId = getLockGrantorId();
+      try {
+        synchronized (this.lockGrantorIdLock) {
+          unlocked = token.releaseLock(lockId, rThread);
+        }
+        released = callReleaseProcessor(theLockGrantorId.getLockGrantorMember(), name, false,
+            lockId);
+
+      } catch (LockGrantorDestroyedException e) { // part of fix for bug 35239
+        // loop back around to get next lock grantor
+      } catch (LockServiceDestroyedException e) { // part of fix for bug 35239
+        // done... NonGrantorDestroyedMessage will release locks for us
+        released = true;
+      } finally {
+        if (!released) {
+          notLockGrantorId(theLockGrantorId, 0, TimeUnit.MILLISECONDS);
+        }
+      }
+    } // while !released
+    return unlocked;
+  }
+
+  /**
+   * Releases a lease which was cached after its lock was unlocked and has just been uncached by
+   * {@link DLockToken#uncacheLease()} or {@link DLockToken#revokeLease(int)}.
+   */
+  private void releaseUncachedLease(Object name, DLockToken token) {
+    int lockId;
+    RemoteThread rThread;
+    synchronized (token) {
+      lockId = token.getLeaseId();
+      rThread = token.getLesseeThread();
+    }
+    if (lockId < 0) {
+      // expired in the meantime
+      return;
+    }
+    if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
+      logger.trace(LogMarker.DLS_VERBOSE, "{}, name: {} - releasing cached lease {}", this, name,
+          lockId);
+    }
+    try {
+      if (!releaseWithGrantor(name, token, lockId, rThread)) {
+        token.releaseLock(lockId, rThread);
+      }
+    } finally {
+      if (this.automateFreeResources) {
+        freeResources(name);
+      }
+    }
+  }
+
+  /**
+   * Handles the request of the grantor to release a lease held by this member, which is sent when
+   * another lock request has to wait for it. A cached lease is released right away. A lease which
+   * is currently locked is released instead of being cached when it is unlocked.
+   *
+   * @param name the name of the lock
+   * @param leaseId the id of the lease to release
+   */
+  void revokeLease(Object name, int leaseId) {
+    if (isDestroyed()) {
+      return;
+    }
+    DLockToken token;
+    synchronized (this.tokens) {
+      token = basicGetToken(name);
+    }
+    if (token == null) {
+      return;
+    }
+    boolean release;
+    synchronized (token) {
+      release = token.revokeLease(leaseId);
+    }
+    if (release) {
+      try {
+        releaseUncachedLease(name, token);
+      } catch (LockServiceDestroyedException ignore) {
+        // the grantor releases the leases of a destroyed service
+      }
+    }
+  }
+
   /**
    * Query the grantor for current leasing information of a lock. Returns the current lease info.
    *
@@ -101,6 +101,25 @@ public class DLockToken {
    */
   private boolean ignoreForRecovery = false;
 
+  /**
+   * True if the lease is kept after the lock has been unlocked so that the leasing thread can lock
+   * it again without asking the grantor. The actual local thread is null while the lease is cached.
+   */
+  private boolean leaseCached = false;
+
+  /**
+   * True if the grantor has asked for the current lease to be released, so that it is not cached
+   * once the lock is unlocked.
+   */
+  private boolean leaseRevoked = false;
+
+  /**
+   * The highest lease id the grantor has asked to be released. The grantor asks only once per
+   * lease, and may ask before the requesting thread has been granted the lease, so the lease is
+   * not cached if it is granted later.
+   */
+  private int highestRevokedLeaseId = -1;
+
   // -------------------------------------------------------------------------
   // Constructors
   // -------------------------------------------------------------------------
@@ -311,6 +330,8 @@ public class DLockToken {
     checkForExpiration(); // TODO: this should throw.
 
     this.ignoreForRecovery = false;
+    this.leaseCached = false;
+    this.leaseRevoked = newLeaseId == this.highestRevokedLeaseId;
     this.leaseExpireTime = newLeaseExpireTime;
     this.leaseId = newLeaseId;
     this.lesseeThread = remoteThread;
@@ -377,6 +398,98 @@ public class DLockToken {
     this.ignoreForRecovery = value;
   }
 
+  /**
+   * Returns true if the current lease is cached for reuse by its leasing thread. Caller must
+   * synchronize on this lock token.
+   *
+   * @return true if the current lease is cached
+   */
+  boolean isLeaseCached() {
+    return this.leaseCached;
+  }
+
+  /**
+   * Keeps the lease of the calling thread after it unlocked this lock instead of releasing it, if
+   * the lock is not re-entered and the grantor has not revoked the lease. The usage of the lease is
+   * kept as well, so this lock token is not freed. Caller must synchronize on this lock token.
+   *
+   * @return true if the lease is now cached
+   */
+  boolean cacheLease() {
+    if (this.leaseRevoked || this.recursion > 0 || !isLeaseHeldByCurrentThread()) {
+      return false;
+    }
+    this.leaseCached = true;
+    this.thread = null;
+    if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
+      logger.trace(LogMarker.DLS_VERBOSE, "[DLockToken.cacheLease] cached {}", this);
+    }
+    return true;
+  }
+
+  /**
+   * Locks this lock again for the calling thread using the cached lease, if the lease was granted
+   * to the same remote thread and lasts until at least the given time. Caller must synchronize on
+   * this lock token and must have incremented the usage of it for this lock request.
+   *
+   * @param remoteThread remotable identity of the calling thread
+   * @param minLeaseExpireTime absolute time the lease must last until, or Long.MAX_VALUE
+   * @return true if the calling thread now holds the cached lease
+   */
+  boolean reuseCachedLease(RemoteThread remoteThread, long minLeaseExpireTime) {
+    if (!this.leaseCached || !remoteThread.equals(this.lesseeThread)
+        || this.leaseExpireTime < minLeaseExpireTime) {
+      return false;
+    }
+    this.leaseCached = false;
+    this.thread = Thread.currentThread();
+    // the usage of the cached lease now accounts for this lock request
+    decUsage();
+    if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
+      logger.trace(LogMarker.DLS_VERBOSE, "[DLockToken.reuseCachedLease] reused {}", this);
+    }
+    return true;
+  }
+
+  /**
+   * Stops caching the current lease so that no thread can reuse it while it is being released.
+   * The lease remains held until {@link #releaseLock(int, RemoteThread)} is called for it. Caller
+   * must synchronize on this lock token.
+   *
+   * @return true if the lease was cached and has to be released by the caller
+   */
+  boolean uncacheLease() {
+    if (!this.leaseCached) {
+      return false;
+    }
+    this.leaseCached = false;
+    this.ignoreForRecovery = true;
+    return true;
+  }
+
+  /**
+   * Handles the request of the grantor to release the given lease. Caller must synchronize on this
+   * lock token.
+   *
+   * @param leaseIdToRevoke lease id the grantor wants released
+   * @return true if the lease was cached and has to be released by the caller, false if it is not
+   *         the current lease or it is currently locked and will be released when unlocked
+   */
+  boolean revokeLease(int leaseIdToRevoke) {
+    if (!isLeaseHeld(leaseIdToRevoke)) {
+      // the lease may not have been granted to the requesting thread yet
+      if (leaseIdToRevoke > this.highestRevokedLeaseId) {
+        this.highestRevokedLeaseId = leaseIdToRevoke;
+      }
+      return false;
+    }
+    if (uncacheLease()) {
+      return true;
+    }
+    this.leaseRevoked = true;
+    return false;
+  }
+
   /**
    * Releases the current lease on this lock token. Synchronizes on this lock token.
    *
@@ -444,6 +557,8 @@ public class DLockToken {
     this.thread = null;
     this.recursion = 0;
     this.ignoreForRecovery = false;
+    this.leaseCached = false;
+    this.leaseRevoked = false;
 
     decUsage();
   }
@@ -514,6 +629,10 @@ public class DLockToken {
     if (logger.isTraceEnabled(LogMarker.DLS_VERBOSE)) {
       logger.trace(LogMarker.DLS_VERBOSE, "[noteExpiredLease] {}", this.thread);
     }
+    if (this.thread == null) {
+      // the lease was cached, so no thread is waiting to learn about it
+      return;
+    }
     if (this.expiredLeases == null) {
       this.expiredLeases = new WeakHashMap();
     }
@@ -533,7 +652,8 @@ public class DLockToken {
       return "DLockToken" + "@" + Integer.toHexString(hashCode()) + ", name: " + this.name
           + ", thread: <" + getThreadName() + ">" + ", recursion: " + this.recursion
           + ", leaseExpireTime: " + this.leaseExpireTime + ", leaseId: " + this.leaseId
-          + ", ignoreForRecovery: " + this.ignoreForRecovery + ", lesseeThread: "
+          + ", ignoreForRecovery: " + this.ignoreForRecovery + ", leaseCached: "
+          + this.leaseCached + ", lesseeThread: "
           + this.lesseeThread + ", usageCount: " + this.usageCount + ", currentTime: "
           + getCurrentTime();
     }
@@ -132,6 +132,32 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
   public static final long MEMBER_SUSPECT_COLLECTION_INTERVAL =
       Long.getLong("geode.suspect-member-collection-interval", 200);
 
+  /**
+   * The phi-accrual suspicion level, computed from the arrival times of the heartbeats of the
+   * member being watched, at which that member is checked. See {@link HeartbeatIntervals}. With
+   * the default of zero the member is checked once it has not been heard from for an interval.
+   */
+  public static final double PHI_ACCRUAL_THRESHOLD =
+      Double.parseDouble(System.getProperty("geode.phi-accrual-threshold", "0"));
+
+  /**
+   * The number of most recent heartbeat intervals of a member used to compute its phi
+   */
+  private static final int PHI_ACCRUAL_SAMPLES =
+      Integer.getInteger("geode.phi-accrual-samples", 100);
+
+  /**
+   * The smallest standard deviation of heartbeat intervals used to compute phi, in milliseconds
+   */
+  private static final long PHI_ACCRUAL_MIN_STD_DEVIATION =
+      Long.getLong("geode.phi-accrual-min-std-deviation", 100);
+
+  /**
+   * The number of times per interval the member being watched is checked when the phi-accrual
+   * threshold is set, so that it is checked soon after its phi reaches the threshold
+   */
+  private static final int PHI_ACCRUAL_CHECKS_PER_INTERVAL = 4;
+
   private volatile long currentTimeStamp;
 
   /**
@@ -145,6 +171,13 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
   final ConcurrentMap<InternalDistributedMember, TimeStamp> memberTimeStamps =
       new ConcurrentHashMap<>();
 
+  /**
+   * Intervals between the periodic heartbeats of members, recorded if the phi-accrual threshold is
+   * set
+   */
+  final ConcurrentMap<InternalDistributedMember, HeartbeatIntervals> heartbeatIntervals =
+      new ConcurrentHashMap<>();
+
   /**
    * Members currently being suspected and the view they were suspected in
    */
@@ -259,6 +292,21 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
           return;
         }
 
+        if (PHI_ACCRUAL_THRESHOLD > 0) {
+          HeartbeatIntervals intervals = heartbeatIntervals.get(neighbour);
+          if (intervals != null && intervals.hasEnoughSamples()) {
+            double phi = intervals.phi(currentTime);
+            stats.setNeighborPhi(phi);
+            // a check already in progress is not repeated while phi stays above the threshold
+            if (phi >= PHI_ACCRUAL_THRESHOLD && intervals.checkStarted()) {
+              logger.debug("Checking member {} with phi {}", neighbour, phi);
+              stats.incPhiAccrualChecks();
+              checkMember(neighbour);
+            }
+            return;
+          }
+        }
+
         long interval = memberTimeoutInMillis / GMSHealthMonitor.LOGICAL_INTERVAL;
         long lastTS = currentTime - nextNeighborTS.getTime();
         if (lastTS + interval >= memberTimeoutInMillis) {
@@ -410,11 +458,16 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
 
     // we need to check this member
     checkExecutor.execute(() -> {
-      boolean pinged;
+      boolean pinged = false;
       try {
         pinged = GMSHealthMonitor.this.doCheckMember(mbr, true);
       } catch (CancelException e) {
         return;
+      } finally {
+        HeartbeatIntervals intervals = heartbeatIntervals.get(mbr);
+        if (intervals != null) {
+          intervals.checkEnded(pinged, System.currentTimeMillis());
+        }
       }
 
       if (!pinged) {
@@ -613,6 +666,9 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
     checkExecutor = LoggingExecutors.newCachedThreadPool("Geode Failure Detection thread ", true);
     Monitor m = this.new Monitor(memberTimeout);
     long delay = memberTimeout / LOGICAL_INTERVAL;
+    if (PHI_ACCRUAL_THRESHOLD > 0) {
+      delay = Math.max(delay / PHI_ACCRUAL_CHECKS_PER_INTERVAL, 1);
+    }
     monitorFuture = scheduler.scheduleAtFixedRate(m, delay, delay, TimeUnit.MILLISECONDS);
     serverSocketExecutor =
         LoggingExecutors.newCachedThreadPool("Geode Failure Detection Server thread ", true);
@@ -782,6 +838,7 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
         it.remove();
       }
     }
+    heartbeatIntervals.keySet().retainAll(newView.getMembers());
     currentView = newView;
     setNextNeighbor(newView, null);
   }
@@ -841,6 +898,8 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
       InternalDistributedMember oldNeighbor = nextNeighbor;
       if (oldNeighbor != newNeighbor) {
         logger.info("Failure detection is now watching {}", newNeighbor);
+        // a new neighbor may not have been sending heartbeats to this member
+        heartbeatIntervals.remove(newNeighbor);
         nextNeighbor = newNeighbor;
       }
     }
@@ -1086,7 +1145,14 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
 
     }
     // we got heartbeat lets update timestamp
-    contactedBy(m.getSender(), System.currentTimeMillis());
+    long now = System.currentTimeMillis();
+    if (m.getRequestId() < 0 && PHI_ACCRUAL_THRESHOLD > 0) {
+      // only periodic heartbeats are sent at regular intervals
+      heartbeatIntervals.computeIfAbsent(m.getSender(),
+          k -> new HeartbeatIntervals(PHI_ACCRUAL_SAMPLES, PHI_ACCRUAL_MIN_STD_DEVIATION))
+          .heartbeatReceived(now);
+    }
+    contactedBy(m.getSender(), now);
   }
 
   /**
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.fd;
+
+/**
+ * The most recent intervals between the periodic heartbeats received from a member. They are used
+ * to compute the phi-accrual suspicion level of the member, which is the negative log10 of the
+ * probability that a heartbeat is still to come after the time elapsed since the last one, given
+ * the mean and standard deviation of the recorded intervals.
+ * <p>
+ * A phi of 1 means the chance of wrongly suspecting the member is about 10%, a phi of 2 about 1%,
+ * and so on. Members whose heartbeats arrive irregularly get a larger standard deviation and so
+ * are suspected later than members whose heartbeats arrive like clockwork.
+ * <p>
+ * A successful check of the member counts as a heartbeat when computing phi, without being recorded
+ * as an interval, so that a member which answered a check is not checked again right away.
+ */
+class HeartbeatIntervals {
+
+  /** The number of intervals needed before a phi is computed. */
+  static final int MIN_SAMPLES = 3;
+
+  private final long[] intervals;
+
+  private final long minStdDeviation;
+
+  private int count;
+
+  private int next;
+
+  private long lastArrival = -1;
+
+  private long lastSuccessfulCheck = -1;
+
+  private boolean checkInProgress;
+
+  /**
+   * @param maxSamples the number of most recent intervals to keep
+   * @param minStdDeviation the standard deviation in milliseconds assumed for intervals which
+   *        vary less, so that a slightly late heartbeat does not make phi soar
+   */
+  HeartbeatIntervals(int maxSamples, long minStdDeviation) {
+    this.intervals = new long[maxSamples];
+    this.minStdDeviation = minStdDeviation;
+  }
+
+  /**
+   * Records the arrival of a heartbeat at the given time in milliseconds.
+   */
+  synchronized void heartbeatReceived(long arrivalTime) {
+    if (this.lastArrival >= 0 && arrivalTime > this.lastArrival) {
+      this.intervals[this.next] = arrivalTime - this.lastArrival;
+      this.next = (this.next + 1) % this.intervals.length;
+      if (this.count < this.intervals.length) {
+        this.count++;
+      }
+    }
+    if (arrivalTime > this.lastArrival) {
+      this.lastArrival = arrivalTime;
+    }
+  }
+
+  /**
+   * Records the start of a check of the member. Returns false if a check is already in progress,
+   * in which case no other check should be started.
+   */
+  synchronized boolean checkStarted() {
+    if (this.checkInProgress) {
+      return false;
+    }
+    this.checkInProgress = true;
+    return true;
+  }
+
+  /**
+   * Records the end of a check of the member at the given time in milliseconds.
+   */
+  synchronized void checkEnded(boolean succeeded, long endTime) {
+    this.checkInProgress = false;
+    if (succeeded && endTime > this.lastSuccessfulCheck) {
+      this.lastSuccessfulCheck = endTime;
+    }
+  }
+
+  /**
+   * Returns true if enough heartbeats have been received to compute a meaningful phi.
+   */
+  synchronized boolean hasEnoughSamples() {
+    return this.count >= MIN_SAMPLES;
+  }
+
+  /**
+   * Returns the suspicion level of the member at the given time in milliseconds, or 0 if not
+   * enough heartbeats have been received yet. The time elapsed is measured from the last heartbeat
+   * or the last successful check, whichever is later.
+   */
+  synchronized double phi(long now) {
+    if (this.count < MIN_SAMPLES) {
+      return 0;
+    }
+    double sum = 0;
+    double sumOfSquares = 0;
+    for (int i = 0; i < this.count; i++) {
+      sum += this.intervals[i];
+      sumOfSquares += (double) this.intervals[i] * this.intervals[i];
+    }
+    double mean = sum / this.count;
+    double variance = Math.max(sumOfSquares / this.count - mean * mean, 0);
+    double stdDeviation = Math.max(Math.sqrt(variance), this.minStdDeviation);
+    return phi(now - Math.max(this.lastArrival, this.lastSuccessfulCheck), mean, stdDeviation);
+  }
+
+  /**
+   * Computes phi using the logistic approximation of the cumulative distribution function of the
+   * normal distribution.
+   */
+  static double phi(long elapsed, double mean, double stdDeviation) {
+    double y = (elapsed - mean) / stdDeviation;
+    double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+    if (elapsed > mean) {
+      return -Math.log10(e / (1.0 + e));
+    } else {
+      return -Math.log10(1.0 - 1.0 / (1.0 + e));
+    }
+  }
+}
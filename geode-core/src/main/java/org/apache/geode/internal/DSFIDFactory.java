@@ -77,6 +77,7 @@ import org.apache.geode.distributed.internal.locks.DLockRecoverGrantorProcessor.
 import org.apache.geode.distributed.internal.locks.DLockReleaseProcessor;
 import org.apache.geode.distributed.internal.locks.DLockRemoteToken;
 import org.apache.geode.distributed.internal.locks.DLockRequestProcessor;
+import org.apache.geode.distributed.internal.locks.DLockRevokeLeaseMessage;
 import org.apache.geode.distributed.internal.locks.DLockService;
 import org.apache.geode.distributed.internal.locks.DeposeGrantorProcessor;
 import org.apache.geode.distributed.internal.locks.ElderInitProcessor;
@@ -194,6 +195,7 @@ import org.apache.geode.internal.admin.statalerts.NumberThresholdDecoratorImpl;
 import org.apache.geode.internal.cache.AddCacheServerProfileMessage;
 import org.apache.geode.internal.cache.BucketAdvisor;
 import org.apache.geode.internal.cache.CacheDistributionAdvisor;
+import org.apache.geode.internal.cache.CacheOperationRelayMessage;
 import org.apache.geode.internal.cache.CacheServerAdvisor.CacheServerProfile;
 import org.apache.geode.internal.cache.ClientRegionEventImpl;
 import org.apache.geode.internal.cache.CloseCacheMessage;
@@ -937,6 +939,8 @@ public class DSFIDFactory implements DataSerializableFixedID {
     registerDSFID(GATEWAY_SENDER_QUEUE_ENTRY_SYNCHRONIZATION_ENTRY,
         GatewaySenderQueueEntrySynchronizationOperation.GatewaySenderQueueEntrySynchronizationEntry.class);
     registerDSFID(ABORT_BACKUP_REQUEST, AbortBackupRequest.class);
+    registerDSFID(CACHE_OPERATION_RELAY_MESSAGE, CacheOperationRelayMessage.class);
+    registerDSFID(DLOCK_REVOKE_LEASE_MESSAGE, DLockRevokeLeaseMessage.class);
   }
 
   /**
@@ -824,6 +824,8 @@ public interface DataSerializableFixedID extends SerializationVersions {
   short GATEWAY_SENDER_QUEUE_ENTRY_SYNCHRONIZATION_MESSAGE = 2181;
   short GATEWAY_SENDER_QUEUE_ENTRY_SYNCHRONIZATION_ENTRY = 2182;
   short ABORT_BACKUP_REQUEST = 2183;
+  short CACHE_OPERATION_RELAY_MESSAGE = 2184;
+  short DLOCK_REVOKE_LEASE_MESSAGE = 2185;
 
   // NOTE, codes > 65535 will take 4 bytes to serialize
 
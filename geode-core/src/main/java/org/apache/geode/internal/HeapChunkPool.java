@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * Per thread pools of the heap buffers used as chunks by the {@link HeapDataOutputStream}s which
+ * recycle their chunks. Buffers are pooled in power of two size classes, so a chunk may have more
+ * capacity than was asked for. A buffer released by another thread than the one which acquired it
+ * goes to the pool of the releasing thread. The buffers a thread keeps are limited in number per
+ * size class and in total bytes; buffers released beyond those limits are left to the garbage
+ * collector.
+ */
+class HeapChunkPool {
+
+  /** The largest chunk which is pooled. Larger chunks are allocated and discarded as before. */
+  static final int MAX_POOLED_CHUNK_SIZE = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "HeapDataOutputStream.MAX_POOLED_CHUNK_SIZE", 64 * 1024);
+
+  /** The number of chunks of each size class a thread keeps. */
+  static final int MAX_POOLED_CHUNKS = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "HeapDataOutputStream.MAX_POOLED_CHUNKS", 4);
+
+  /** The number of bytes of pooled chunks a thread keeps. */
+  static final int MAX_POOLED_BYTES = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "HeapDataOutputStream.MAX_POOLED_BYTES", 128 * 1024);
+
+  private static final int MIN_POOLED_CHUNK_SIZE = 32;
+
+  /** The chunks pooled by one thread */
+  private static class ThreadChunks {
+    @SuppressWarnings("unchecked")
+    final ArrayDeque<ByteBuffer>[] classes = new ArrayDeque[sizeClass(MAX_POOLED_CHUNK_SIZE) + 1];
+
+    /** The total capacity of the chunks in {@link #classes} */
+    int pooledBytes;
+  }
+
+  private static final ThreadLocal<ThreadChunks> pools = ThreadLocal.withInitial(ThreadChunks::new);
+
+  private HeapChunkPool() {
+    // no instances allowed
+  }
+
+  /**
+   * Returns the log2 of the capacity of the buffers pooled for the given size.
+   */
+  static int sizeClass(int size) {
+    return 32 - Integer.numberOfLeadingZeros(Math.max(size, MIN_POOLED_CHUNK_SIZE) - 1);
+  }
+
+  /**
+   * Returns a cleared buffer with at least the given capacity, or null if buffers of that size are
+   * not pooled.
+   */
+  static ByteBuffer acquire(int size) {
+    if (size > MAX_POOLED_CHUNK_SIZE) {
+      return null;
+    }
+    int sizeClass = sizeClass(size);
+    ThreadChunks chunks = pools.get();
+    ArrayDeque<ByteBuffer> pool = chunks.classes[sizeClass];
+    if (pool != null) {
+      ByteBuffer result = pool.pollLast();
+      if (result != null) {
+        chunks.pooledBytes -= result.capacity();
+        result.clear();
+        return result;
+      }
+    }
+    return ByteBuffer.allocate(1 << sizeClass);
+  }
+
+  /**
+   * Returns a buffer obtained from {@link #acquire(int)} to the pool of the current thread. The
+   * buffer must no longer be referenced by its previous user.
+   */
+  static void release(ByteBuffer buffer) {
+    ThreadChunks chunks = pools.get();
+    if (chunks.pooledBytes + buffer.capacity() > MAX_POOLED_BYTES) {
+      return;
+    }
+    int sizeClass = sizeClass(buffer.capacity());
+    ArrayDeque<ByteBuffer> pool = chunks.classes[sizeClass];
+    if (pool == null) {
+      pool = new ArrayDeque<>(MAX_POOLED_CHUNKS);
+      chunks.classes[sizeClass] = pool;
+    }
+    if (pool.size() < MAX_POOLED_CHUNKS) {
+      pool.addLast(buffer);
+      chunks.pooledBytes += buffer.capacity();
+    }
+  }
+
+  /** Returns the number of bytes of chunks pooled by the current thread. Used by tests. */
+  static int getPooledBytes() {
+    return pools.get().pooledBytes;
+  }
+
+  /** Discards the chunks pooled by the current thread. Used by tests. */
+  static void clear() {
+    pools.remove();
+  }
+}
@@ -22,6 +22,7 @@ import java.io.UTFDataFormatException;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 
@@ -69,6 +70,18 @@ public class HeapDataOutputStream extends OutputStream
   private int memoPosition;
   private Version version;
   private boolean doNotCopy;
+  /**
+   * True if the buffers this stream allocates are taken from, and returned by {@link #close()} to,
+   * the {@link HeapChunkPool}.
+   */
+  private boolean recycleChunks;
+  /** The buffers taken from the pool, which are returned to it when this stream is closed. */
+  private ArrayList<ByteBuffer> pooledChunks;
+  /**
+   * True once buffers of this stream may be referenced from outside of it, in which case they are
+   * not returned to the pool.
+   */
+  private boolean chunksExposed;
 
   private static final int INITIAL_CAPACITY = 1024;
 
@@ -102,12 +115,25 @@ public class HeapDataOutputStream extends OutputStream
    *        instead referenced.
    */
   public HeapDataOutputStream(int allocSize, Version version, boolean doNotCopy) {
+    this(allocSize, version, doNotCopy, false);
+  }
+
+  /**
+   * @param doNotCopy if true then byte arrays/buffers/sources will not be copied to this hdos but
+   *        instead referenced.
+   * @param recycleChunks if true then the buffers of this hdos are taken from a per thread pool and
+   *        returned to it when this hdos is closed. The contents must not be used once it is
+   *        closed.
+   */
+  public HeapDataOutputStream(int allocSize, Version version, boolean doNotCopy,
+      boolean recycleChunks) {
     if (allocSize < 32) {
       this.MIN_CHUNK_SIZE = 32;
     } else {
       this.MIN_CHUNK_SIZE = allocSize;
     }
-    this.buffer = ByteBuffer.allocate(allocSize);
+    this.recycleChunks = recycleChunks;
+    this.buffer = allocate(allocSize);
     this.version = version;
     this.doNotCopy = doNotCopy;
   }
@@ -217,7 +243,36 @@ public class HeapDataOutputStream extends OutputStream
     if (amount < MIN_CHUNK_SIZE) {
       amount = MIN_CHUNK_SIZE;
     }
-    this.buffer = ByteBuffer.allocate(amount);
+    this.buffer = allocate(amount);
+  }
+
+  private ByteBuffer allocate(int capacity) {
+    if (this.recycleChunks) {
+      ByteBuffer result = HeapChunkPool.acquire(capacity);
+      if (result != null) {
+        if (this.pooledChunks == null) {
+          this.pooledChunks = new ArrayList<>();
+        }
+        this.pooledChunks.add(result);
+        return result;
+      }
+    }
+    return ByteBuffer.allocate(capacity);
+  }
+
+  /**
+   * Returns the pooled buffers to the pool unless they may be referenced from outside of this
+   * stream.
+   */
+  private void releasePooledChunks() {
+    if (this.pooledChunks != null) {
+      if (!this.chunksExposed) {
+        for (ByteBuffer bb : this.pooledChunks) {
+          HeapChunkPool.release(bb);
+        }
+      }
+      this.pooledChunks = null;
+    }
   }
 
   private void checkIfWritable() {
@@ -280,6 +335,7 @@ public class HeapDataOutputStream extends OutputStream
   }
 
   public void fillByteBufferArray(ByteBuffer[] bbArray, int offset) {
+    this.chunksExposed = true;
     if (this.chunks != null) {
       for (ByteBuffer bb : this.chunks) {
         bbArray[offset++] = bb;
@@ -306,7 +362,7 @@ public class HeapDataOutputStream extends OutputStream
     this.chunks.add(bufToAdd);
     int newPos = oldBuffer.limit();
     if ((oldBuffer.capacity() - newPos) <= 0) {
-      this.buffer = ByteBuffer.allocate(MIN_CHUNK_SIZE);
+      this.buffer = allocate(MIN_CHUNK_SIZE);
     } else {
       oldBuffer.limit(oldBuffer.capacity());
       oldBuffer.position(newPos);
@@ -402,6 +458,7 @@ public class HeapDataOutputStream extends OutputStream
    * Returns a ByteBuffer of the unused buffer; returns null if the buffer was completely used.
    */
   public ByteBuffer finishWritingAndReturnUnusedBuffer() {
+    this.chunksExposed = true;
     finishWriting();
     ByteBuffer result = this.buffer.duplicate();
     if (result.remaining() == 0) {
@@ -422,6 +479,11 @@ public class HeapDataOutputStream extends OutputStream
   @Override
   public void close() {
     reset();
+    if (this.pooledChunks != null) {
+      // the current buffer may go back to the pool so it must not be written to again
+      this.buffer = ByteBuffer.allocate(0);
+      releasePooledChunks();
+    }
   }
 
   /**
@@ -429,6 +491,7 @@ public class HeapDataOutputStream extends OutputStream
    * written to past this point until it has been reset.
    */
   public ByteBuffer toByteBuffer() {
+    this.chunksExposed = true;
     finishWriting();
     consolidateChunks();
     return this.buffer;
@@ -657,6 +720,8 @@ public class HeapDataOutputStream extends OutputStream
    * Write the contents of this stream to the specified stream.
    */
   public void sendTo(ByteBufferWriter out) {
+    // the writer may keep references to our buffers
+    this.chunksExposed = true;
     finishWriting();
     if (this.chunks != null) {
       for (ByteBuffer bb : this.chunks) {
@@ -679,6 +744,7 @@ public class HeapDataOutputStream extends OutputStream
    * stream.
    */
   public InputStream getInputStream() {
+    this.chunksExposed = true;
     return new HDInputStream();
   }
 
@@ -1282,6 +1348,7 @@ public class HeapDataOutputStream extends OutputStream
       other.finishWriting();
       InternalDataSerializer.writeArrayLength(other.size(), this);
       if (this.doNotCopy) {
+        other.chunksExposed = true;
         if (other.chunks != null) {
           for (ByteBuffer bb : other.chunks) {
             write(bb);
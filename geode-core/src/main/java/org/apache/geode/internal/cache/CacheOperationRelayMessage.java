@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.SerializationException;
+import org.apache.geode.distributed.internal.ClusterDistributionManager;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.MembershipListener;
+import org.apache.geode.distributed.internal.ReplyException;
+import org.apache.geode.distributed.internal.ReplyMessage;
+import org.apache.geode.distributed.internal.SerialDistributionMessage;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.DistributedCacheOperation.CacheOperationMessage;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.util.BlobHelper;
+
+/**
+ * Distributes a serialized {@link CacheOperationMessage} through a tree of the recipients instead
+ * of sending it from the originating member to every one of them.
+ *
+ * The originating member sends the operation to at most {@link #RELAY_FANOUT} recipients, each
+ * of which is given the list of recipients below it. A member receiving the operation first
+ * relays it the same way to the members below it and then processes it as if it had been sent by
+ * the originating member, so its reply goes directly to the waiting reply processor of the
+ * originating member.
+ *
+ * If a relaying member leaves before the operation completes, the originating member sends the
+ * operation directly to the members below it. Those which already received it process it again,
+ * which is why relaying is only used for regions with concurrency checks enabled.
+ *
+ * Relaying is enabled with the gemfire.DistributedCacheOperation.RELAY_FANOUT system property, and
+ * is only used when every recipient runs a version which knows about this message.
+ */
+public class CacheOperationRelayMessage extends SerialDistributionMessage {
+
+  private static final Logger logger = LogService.getLogger();
+
+  /** The number of members a member sends a relayed operation to. Zero disables relaying. */
+  static final int RELAY_FANOUT = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "DistributedCacheOperation.RELAY_FANOUT", 0);
+
+  /** The number of recipients below which operations are sent directly. */
+  static final int MIN_RELAY_RECIPIENTS = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "DistributedCacheOperation.MIN_RELAY_RECIPIENTS", 16);
+
+  private InternalDistributedMember origin;
+
+  private int processorId;
+
+  private int fanout;
+
+  private byte[] operationBytes;
+
+  /** the members this message has to be relayed to */
+  private ArrayList<InternalDistributedMember> subtree;
+
+  public CacheOperationRelayMessage() {
+    // for deserialization
+  }
+
+  CacheOperationRelayMessage(InternalDistributedMember origin, int processorId, int fanout,
+      byte[] operationBytes, Collection<InternalDistributedMember> recipients,
+      List<InternalDistributedMember> subtree) {
+    this.origin = origin;
+    this.processorId = processorId;
+    this.fanout = fanout;
+    this.operationBytes = operationBytes;
+    this.subtree = new ArrayList<>(subtree);
+    setRecipients(recipients);
+  }
+
+  /**
+   * Returns whether an operation may be relayed to the given recipients.
+   */
+  static boolean canRelay(Set<InternalDistributedMember> recipients) {
+    if (RELAY_FANOUT <= 0 || recipients.size() < Math.max(MIN_RELAY_RECIPIENTS, RELAY_FANOUT + 1)) {
+      return false;
+    }
+    for (InternalDistributedMember recipient : recipients) {
+      if (recipient.getVersionObject().compareTo(Version.CURRENT) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Sends the given operation message to the recipients through a relay tree. The processor of
+   * the message must be waiting for a reply of every recipient. The returned relay has to be
+   * closed once the replies have been received.
+   */
+  static Relay relay(DistributionManager dm, CacheOperationMessage msg,
+      Set<InternalDistributedMember> recipients) {
+    // the replies come from the recipients, not over the connection the message is sent on
+    msg.registerProcessor();
+    byte[] operationBytes;
+    try {
+      operationBytes = BlobHelper.serializeToBlob(msg);
+    } catch (IOException e) {
+      throw new SerializationException("Unable to serialize " + msg, e);
+    }
+    return relay(dm, msg.processorId, operationBytes, new ArrayList<>(recipients), RELAY_FANOUT);
+  }
+
+  /**
+   * Sends the given serialized operation to the members through a relay tree with the given
+   * fanout.
+   */
+  static Relay relay(DistributionManager dm, int processorId, byte[] operationBytes,
+      List<InternalDistributedMember> members, int fanout) {
+    Relay relay = new Relay(dm, processorId, fanout, operationBytes);
+    relay.addDescendants(members, fanout);
+    dm.addMembershipListener(relay);
+    relayToSubtrees(dm, dm.getId(), processorId, fanout, operationBytes, members);
+    return relay;
+  }
+
+  /**
+   * Splits the given members into at most fanout subtrees of about the same size. The first member
+   * of a subtree relays the operation to the other members of it.
+   */
+  static List<List<InternalDistributedMember>> split(List<InternalDistributedMember> members,
+      int fanout) {
+    int count = Math.min(fanout, members.size());
+    List<List<InternalDistributedMember>> subtrees = new ArrayList<>(count);
+    int start = 0;
+    for (int i = 0; i < count; i++) {
+      int end = start + (members.size() - start) / (count - i);
+      subtrees.add(members.subList(start, end));
+      start = end;
+    }
+    return subtrees;
+  }
+
+  private static void relayToSubtrees(DistributionManager dm, InternalDistributedMember origin,
+      int processorId, int fanout, byte[] operationBytes, List<InternalDistributedMember> members) {
+    for (List<InternalDistributedMember> subtree : split(members, fanout)) {
+      InternalDistributedMember child = subtree.get(0);
+      List<InternalDistributedMember> rest = subtree.subList(1, subtree.size());
+      Set<InternalDistributedMember> failures =
+          dm.putOutgoing(new CacheOperationRelayMessage(origin, processorId, fanout,
+              operationBytes, Collections.singleton(child), rest));
+      if (failures != null && failures.contains(child) && !rest.isEmpty()) {
+        // the child can not relay the operation, so the members below it get it directly
+        sendDirectly(dm, origin, processorId, fanout, operationBytes, rest);
+      }
+    }
+  }
+
+  private static void sendDirectly(DistributionManager dm, InternalDistributedMember origin,
+      int processorId, int fanout, byte[] operationBytes,
+      Collection<InternalDistributedMember> members) {
+    dm.putOutgoing(new CacheOperationRelayMessage(origin, processorId, fanout, operationBytes,
+        members, Collections.emptyList()));
+  }
+
+  @Override
+  protected void process(ClusterDistributionManager dm) {
+    if (!this.subtree.isEmpty()) {
+      relayToSubtrees(dm, this.origin, this.processorId, this.fanout, this.operationBytes,
+          this.subtree);
+    }
+    CacheOperationMessage operation;
+    try {
+      operation = (CacheOperationMessage) BlobHelper.deserializeBlob(this.operationBytes);
+    } catch (IOException | ClassNotFoundException | RuntimeException e) {
+      ReplyMessage.send(this.origin, this.processorId, new ReplyException(e), dm);
+      return;
+    }
+    // replies, version tags and events all refer to the member the operation originated from
+    operation.setSender(this.origin);
+    if (logger.isDebugEnabled()) {
+      logger.debug("Processing {} relayed by {} to {} more members", operation, getSender(),
+          this.subtree.size());
+    }
+    operation.process(dm);
+  }
+
+  List<InternalDistributedMember> getSubtree() {
+    return this.subtree;
+  }
+
+  @Override
+  public int getDSFID() {
+    return CACHE_OPERATION_RELAY_MESSAGE;
+  }
+
+  @Override
+  public void toData(DataOutput out) throws IOException {
+    super.toData(out);
+    DataSerializer.writeObject(this.origin, out);
+    out.writeInt(this.processorId);
+    out.writeInt(this.fanout);
+    DataSerializer.writeByteArray(this.operationBytes, out);
+    DataSerializer.writeArrayList(this.subtree, out);
+  }
+
+  @Override
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    super.fromData(in);
+    this.origin = DataSerializer.readObject(in);
+    this.processorId = in.readInt();
+    this.fanout = in.readInt();
+    this.operationBytes = DataSerializer.readByteArray(in);
+    this.subtree = DataSerializer.readArrayList(in);
+  }
+
+  @Override
+  public String toString() {
+    return getShortClassName() + "(origin=" + this.origin + "; processorId=" + this.processorId
+        + "; relayTo=" + this.subtree.size() + " members)";
+  }
+
+  /**
+   * Watches the relaying members of an operation sent by this member, and sends the operation
+   * directly to the members below a relaying member which leaves.
+   */
+  static class Relay implements MembershipListener, AutoCloseable {
+
+    private final DistributionManager dm;
+
+    private final int processorId;
+
+    private final int fanout;
+
+    private final byte[] operationBytes;
+
+    /** the members below each relaying member */
+    private final Map<InternalDistributedMember, List<InternalDistributedMember>> descendants =
+        new HashMap<>();
+
+    private Relay(DistributionManager dm, int processorId, int fanout, byte[] operationBytes) {
+      this.dm = dm;
+      this.processorId = processorId;
+      this.fanout = fanout;
+      this.operationBytes = operationBytes;
+    }
+
+    private void addDescendants(List<InternalDistributedMember> members, int fanout) {
+      for (List<InternalDistributedMember> subtree : split(members, fanout)) {
+        if (subtree.size() > 1) {
+          List<InternalDistributedMember> rest = subtree.subList(1, subtree.size());
+          this.descendants.put(subtree.get(0), rest);
+          addDescendants(rest, fanout);
+        }
+      }
+    }
+
+    @Override
+    public void memberDeparted(DistributionManager distributionManager,
+        InternalDistributedMember id, boolean crashed) {
+      List<InternalDistributedMember> lost = this.descendants.get(id);
+      if (lost == null) {
+        return;
+      }
+      if (logger.isDebugEnabled()) {
+        logger.debug("Relaying member {} departed, sending operation directly to {}", id, lost);
+      }
+      this.dm.getWaitingThreadPool().execute(() -> sendDirectly(this.dm, this.dm.getId(),
+          this.processorId, this.fanout, this.operationBytes, lost));
+    }
+
+    @Override
+    public void memberJoined(DistributionManager distributionManager,
+        InternalDistributedMember id) {}
+
+    @Override
+    public void memberSuspect(DistributionManager distributionManager,
+        InternalDistributedMember id, InternalDistributedMember whoSuspected, String reason) {}
+
+    @Override
+    public void quorumLost(DistributionManager distributionManager,
+        Set<InternalDistributedMember> failures, List<InternalDistributedMember> remaining) {}
+
+    @Override
+    public void close() {
+      this.dm.removeMembershipListener(this);
+    }
+  }
+}
@@ -17,6 +17,7 @@ package org.apache.geode.internal.cache;
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import joptsimple.internal.Strings;
 
@@ -320,6 +321,31 @@ public class DiskRegion extends AbstractDiskRegion {
     });
   }
 
+  /**
+   * Unmark the entries with one of the given keys as "Recovered From Disk", so they are kept after
+   * a GII in which the image provider did not send them because it has the same entries.
+   *
+   * @return the number of entries unmarked
+   */
+  int keepRecoveredEntries(final DiskRecoveryStore drs, final Predicate<Object> keys) {
+    final AtomicInteger count = new AtomicInteger();
+    // iterate over all region entries in drs
+    drs.foreachRegionEntry(new RegionEntryCallback() {
+      public void handleRegionEntry(RegionEntry regionEntry) {
+        DiskEntry de = (DiskEntry) regionEntry;
+        synchronized (de) {
+          DiskId id = de.getDiskId();
+          if (id != null && EntryBits.isRecoveredFromDisk(id.getUserBits())
+              && keys.test(de.getKey())) {
+            id.setRecoveredFromDisk(false);
+            count.incrementAndGet();
+          }
+        }
+      }
+    });
+    return count.get();
+  }
+
   public boolean isOverflowEnabled() {
     return this.overflowEnabled;
   }
@@ -455,6 +455,16 @@ public abstract class DistributedCacheOperation {
           }
         }
 
+        // relaying leaves out the members which need another form of the message
+        final boolean relayed = shouldAck && !useMulticast && adjunctRecipients.isEmpty()
+            && needsOldValueInCacheOp.isEmpty() && cachelessNodes.isEmpty()
+            && this.event.getOperation().isEntry() && !isPutAll && !isRemoveAll
+            && !region.isUsedForPartitionedRegionBucket() && region.getConcurrencyChecksEnabled()
+            && CacheOperationRelayMessage.canRelay(recipients);
+        if (relayed) {
+          directAck = false;
+        }
+
         if (logger.isDebugEnabled()) {
           logger.debug("recipients for {}: {} with adjunct messages to: {}", this, recipients,
               adjunctRecipients);
@@ -551,8 +561,13 @@ public abstract class DistributedCacheOperation {
               null);
         }
 
-        msg.setRecipients(recipients);
-        failures = mgr.putOutgoing(msg);
+        CacheOperationRelayMessage.Relay relay = null;
+        if (relayed) {
+          relay = CacheOperationRelayMessage.relay(mgr, msg, recipients);
+        } else {
+          msg.setRecipients(recipients);
+          failures = mgr.putOutgoing(msg);
+        }
 
         // distribute to members needing the old value now
         if (needsOldValueInCacheOp.size() > 0) {
@@ -658,7 +673,13 @@ public abstract class DistributedCacheOperation {
           event.setLocalFilterInfo(filterInfo);
         }
 
-        waitForAckIfNeeded(msg, persistentIds);
+        try {
+          waitForAckIfNeeded(msg, persistentIds);
+        } finally {
+          if (relay != null) {
+            relay.close();
+          }
+        }
 
         if (/* msg != null && */reliableOp) {
           Set successfulRecips = new HashSet(recipients);
@@ -1487,6 +1508,13 @@ public abstract class DistributedCacheOperation {
       return this.directAck;
     }
 
+    @Override
+    protected Object getSerialOrderingKey() {
+      // operations on different regions or buckets do not depend on each other, but region
+      // operations have to stay ordered with everything else
+      return this.op != null && this.op.isEntry() ? this.regionPath : null;
+    }
+
     public void setSendDelta(boolean sendDelta) {
       this.sendDelta = sendDelta;
     }
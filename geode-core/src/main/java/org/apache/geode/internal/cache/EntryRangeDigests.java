@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.Iterator;
+
+import org.apache.geode.internal.cache.versions.VersionSource;
+import org.apache.geode.internal.cache.versions.VersionStamp;
+
+/**
+ * Digests of the keys and versions of the entries of a region, one for each range of key hashes.
+ * A member recovering from disk that cannot do a delta GII sends its digests along with the
+ * request for a full image, and the image provider does not send the entries in the ranges whose
+ * digests equal its own.
+ * <p>
+ * The digest of a range is the sum of a hash of the key and version of each entry in the range,
+ * so it does not depend on the order in which the entries are iterated.
+ */
+class EntryRangeDigests {
+
+  private final long[] digests;
+
+  EntryRangeDigests(int ranges) {
+    this.digests = new long[ranges];
+  }
+
+  EntryRangeDigests(long[] digests) {
+    this.digests = digests;
+  }
+
+  /**
+   * Computes the digests of the entries of the given region, including tombstones.
+   */
+  static EntryRangeDigests compute(DistributedRegion rgn, int ranges) {
+    EntryRangeDigests result = new EntryRangeDigests(ranges);
+    VersionSource<?> myId = rgn.getVersionMember();
+    for (Iterator<RegionEntry> it = rgn.getBestIterator(false); it.hasNext();) {
+      RegionEntry re = it.next();
+      if (rgn.checkEntryNotValid(re)) {
+        continue;
+      }
+      result.add(re, myId);
+    }
+    return result;
+  }
+
+  /**
+   * Adds the given entry to the digest of its range.
+   *
+   * @param myId the version member of the region, used for entries without one
+   */
+  void add(RegionEntry re, VersionSource<?> myId) {
+    VersionStamp<?> stamp = re.getVersionStamp();
+    if (stamp == null) {
+      add(re.getKey(), null, 0, 0);
+      return;
+    }
+    synchronized (re) {
+      VersionSource<?> id = stamp.getMemberID();
+      if (id == null) {
+        id = myId;
+      }
+      add(re.getKey(), id, stamp.getRegionVersion(), stamp.getEntryVersion());
+    }
+  }
+
+  void add(Object key, VersionSource<?> id, long regionVersion, int entryVersion) {
+    long hash = key.hashCode();
+    hash = hash * 31 + (id == null ? 0 : id.hashCode());
+    hash = hash * 31 + regionVersion;
+    hash = hash * 31 + entryVersion;
+    this.digests[getRange(key)] += mix(hash);
+  }
+
+  /**
+   * Returns the range of key hashes the given key belongs to.
+   */
+  int getRange(Object key) {
+    return (int) ((mix(key.hashCode()) >>> 1) % this.digests.length);
+  }
+
+  /**
+   * Returns, for each range, whether its digest equals the one of the other digests. No range
+   * matches if the other digests have a different number of ranges.
+   */
+  boolean[] getMatchingRanges(EntryRangeDigests other) {
+    boolean[] matching = new boolean[this.digests.length];
+    if (other.digests.length == this.digests.length) {
+      for (int i = 0; i < this.digests.length; i++) {
+        matching[i] = this.digests[i] == other.digests[i];
+      }
+    }
+    return matching;
+  }
+
+  long[] getDigests() {
+    return this.digests;
+  }
+
+  /**
+   * The finalizer of the 64 bit MurmurHash3, which spreads the bits of similar hashes.
+   */
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -45,14 +45,20 @@ import org.apache.geode.internal.logging.LogService;
  * processed chunk. Upon receiving the FlowControlPermit message, the provider will increase the
  * number of permits available.
  *
+ * If {@link InitialImageOperation#MAX_CHUNK_PERMITS} is larger than
+ * {@link InitialImageOperation#CHUNK_PERMITS}, the number of messages allowed in flight adapts to
+ * the rate at which the target processes chunks, see {@link Window}.
  */
 public class InitialImageFlowControl implements MembershipListener {
   private static final Logger logger = LogService.getLogger();
 
   private static final ProcessorKeeper21 keeper = new ProcessorKeeper21(false);
   private int id;
-  private int maxPermits = InitialImageOperation.CHUNK_PERMITS;
-  private final Semaphore permits = new Semaphore(maxPermits);
+  private final Window window =
+      new Window(InitialImageOperation.CHUNK_PERMITS, InitialImageOperation.MAX_CHUNK_PERMITS);
+  private final Semaphore permits = new Semaphore(InitialImageOperation.CHUNK_PERMITS);
+  /** permits which are not released when returned because the window has shrunk */
+  private int permitsToDrop; // guarded by window
   private final DistributionManager dm;
   private final InternalDistributedMember target;
   private final AtomicBoolean aborted = new AtomicBoolean();
@@ -76,7 +82,23 @@ public class InitialImageFlowControl implements MembershipListener {
   }
 
   private void releasePermit() {
-    permits.release();
+    int release = 1;
+    synchronized (window) {
+      int change = window.chunkProcessed(System.nanoTime());
+      if (change > 0) {
+        release += change;
+      } else if (change < 0) {
+        permitsToDrop -= change;
+      }
+      if (permitsToDrop > 0 && release > 0) {
+        int dropped = Math.min(permitsToDrop, release);
+        permitsToDrop -= dropped;
+        release -= dropped;
+      }
+    }
+    if (release > 0) {
+      permits.release(release);
+    }
     incMessagesInFlight(-1);
   }
 
@@ -117,6 +139,10 @@ public class InitialImageFlowControl implements MembershipListener {
     if (timeout <= 0) {
       timeout = Long.MAX_VALUE;
     }
+    if (aborted.get() || permits.tryAcquire()) {
+      return;
+    }
+    window.limited();
     if (!aborted.get() && !permits.tryAcquire(timeout - timeSoFar - 1, TimeUnit.MILLISECONDS)) {
       checkCancellation();
 
@@ -164,7 +190,9 @@ public class InitialImageFlowControl implements MembershipListener {
 
   private void abort() {
     if (!aborted.getAndSet(true)) {
-      incMessagesInFlight(-(maxPermits - permits.availablePermits()));
+      synchronized (window) {
+        incMessagesInFlight(-(window.getSize() + permitsToDrop - permits.availablePermits()));
+      }
       // Just in case java has issues with semaphores rolling over, set this
       // to half Integer.MAX_VALUE rather to release all of the waiters
       permits.release(Integer.MAX_VALUE / 2);
@@ -190,6 +218,77 @@ public class InitialImageFlowControl implements MembershipListener {
   }
 
 
+  /**
+   * The number of chunks allowed in flight. It starts at the minimum size and is adjusted each time
+   * the target has processed as many chunks as the window size. The window grows by one if the
+   * provider had to wait for a permit and the chunks were processed at least as fast as in the
+   * previous round, and shrinks by one if they were processed more than 10% slower. So the window
+   * only grows while more chunks in flight keep the target busier.
+   */
+  static class Window {
+
+    private final int minSize;
+
+    private final int maxSize;
+
+    private int size;
+
+    private int processed;
+
+    private long roundStart = -1;
+
+    private double lastRate;
+
+    private volatile boolean limited;
+
+    Window(int minSize, int maxSize) {
+      this.minSize = minSize;
+      this.maxSize = Math.max(minSize, maxSize);
+      this.size = minSize;
+    }
+
+    int getSize() {
+      return this.size;
+    }
+
+    /**
+     * Notes that the provider has to wait for a permit because the window is full.
+     */
+    void limited() {
+      this.limited = true;
+    }
+
+    /**
+     * Notes that the target has processed another chunk. Returns the change of the window size.
+     * Caller must synchronize on this window.
+     */
+    int chunkProcessed(long nanoTime) {
+      if (this.maxSize == this.minSize) {
+        return 0;
+      }
+      if (this.roundStart < 0) {
+        this.roundStart = nanoTime;
+        return 0;
+      }
+      if (++this.processed < this.size) {
+        return 0;
+      }
+      double rate = (double) this.processed / Math.max(nanoTime - this.roundStart, 1);
+      int change = 0;
+      if (this.limited && rate >= this.lastRate && this.size < this.maxSize) {
+        change = 1;
+      } else if (rate < this.lastRate * 0.9 && this.size > this.minSize) {
+        change = -1;
+      }
+      this.size += change;
+      this.lastRate = rate;
+      this.processed = 0;
+      this.roundStart = nanoTime;
+      this.limited = false;
+      return change;
+    }
+  }
+
   public static class FlowControlPermitMessage extends DistributionMessage
       implements DataSerializableFixedID {
     private int keeperId;
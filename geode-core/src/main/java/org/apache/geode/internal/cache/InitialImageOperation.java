@@ -117,6 +117,15 @@ public class InitialImageOperation {
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "GetInitialImage.CHUNK_PERMITS", 16)
           .intValue();
 
+  /**
+   * Largest number of in flight GII chunks. If larger than CHUNK_PERMITS the number of chunks in
+   * flight adapts to the rate at which the requester processes them.
+   */
+  public static int MAX_CHUNK_PERMITS = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "GetInitialImage.MAX_CHUNK_PERMITS",
+          CHUNK_PERMITS)
+      .intValue();
+
   /**
    * maximum number of unfinished operations to be supported by delta GII
    */
@@ -124,6 +133,15 @@ public class InitialImageOperation {
       DistributionConfig.GEMFIRE_PREFIX + "GetInitialImage.MAXIMUM_UNFINISHED_OPERATIONS", 10000)
       .intValue();
 
+  /**
+   * Number of key hash ranges whose digests a member recovering from disk sends with a request for
+   * a full image. The image provider does not send the entries of the ranges in which it has the
+   * same keys and versions. Zero disables the digests.
+   */
+  public static int ENTRY_DIGEST_RANGES = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "GetInitialImage.ENTRY_DIGEST_RANGES", 0)
+      .intValue();
+
   /**
    * Allowed number GIIs in parallel
    */
@@ -156,6 +174,12 @@ public class InitialImageOperation {
    */
   protected Map<VersionSource, Long> gcVersions;
 
+  /**
+   * the key hash ranges in which the GII source has the same entries as this member, received with
+   * the last GII chunk if this member sent its {@link EntryRangeDigests}
+   */
+  protected volatile boolean[] matchingRanges;
+
   /**
    * true if this is delta gii
    */
@@ -426,6 +450,8 @@ public class InitialImageOperation {
       m.keysOnly = false;
       m.targetReinitialized = targetReinitialized;
       m.setRecipient(recipient);
+      EntryRangeDigests rangeDigests = null;
+      this.matchingRanges = null;
 
       if (this.region.getConcurrencyChecksEnabled()) {
         if (allowDeltaGII && recoveredFromDisk) {
@@ -463,6 +489,12 @@ public class InitialImageOperation {
           }
           m.checkTombstoneVersions = true;
         }
+        if (m.versionVector == null && recoveredFromDisk && ENTRY_DIGEST_RANGES > 0
+            && recipient.getVersionObject().compareTo(Version.GEODE_190) >= 0) {
+          // the provider leaves out the entries we recovered in the same version
+          rangeDigests = EntryRangeDigests.compute(this.region, ENTRY_DIGEST_RANGES);
+          m.rangeDigests = rangeDigests.getDigests();
+        }
         if (received_rvv != null) {
           // pack the original RVV, then save the received one
           if (internalBeforeSavedReceivedRVV != null
@@ -527,6 +559,17 @@ public class InitialImageOperation {
             }
           }
 
+          if (this.gotImage && rangeDigests != null && this.matchingRanges != null) {
+            final EntryRangeDigests digests = rangeDigests;
+            final boolean[] matching = this.matchingRanges;
+            int kept = this.region.getDiskRegion().keepRecoveredEntries(this.region,
+                key -> matching[digests.getRange(key)]);
+            if (isDebugEnabled) {
+              logger.debug("Region {} kept {} recovered entries the provider did not send",
+                  this.region.getFullPath(), kept);
+            }
+          }
+
           continue;
         } catch (InternalGemFireException ex) {
           Throwable cause = ex.getCause();
@@ -1366,6 +1409,10 @@ public class InitialImageOperation {
           if (m.gcVersions != null) {
             InitialImageOperation.this.gcVersions = m.gcVersions;
           }
+
+          if (m.matchingRanges != null) {
+            InitialImageOperation.this.matchingRanges = m.matchingRanges;
+          }
         }
         if (isDone) {
           super.process(msg, false); // removes from members and cause us to
@@ -1550,6 +1597,12 @@ public class InitialImageOperation {
      */
     protected boolean checkTombstoneVersions;
 
+    /**
+     * the digests of the requester's entries for each key hash range, if it recovered from disk and
+     * asks for a full image
+     */
+    protected long[] rangeDigests;
+
     /**
      * If true, recipient should wait until fully initialized before returning data.
      */
@@ -1742,9 +1795,18 @@ public class InitialImageOperation {
               }
             }
           }
+          EntryRangeDigests digests = null;
+          boolean[] matching = null;
+          if (this.rangeDigests != null && this.versionVector == null
+              && rgn.getConcurrencyChecksEnabled()) {
+            digests = EntryRangeDigests.compute(rgn, this.rangeDigests.length);
+            matching = digests.getMatchingRanges(new EntryRangeDigests(this.rangeDigests));
+          }
+          final boolean[] matchingRanges = matching;
           final RegionVersionHolder holderToSend = holderToSync;
           boolean finished = chunkEntries(rgn, CHUNK_SIZE_IN_BYTES, !keysOnly, versionVector,
-              (HashSet) this.unfinishedKeys, flowControl, new ObjectIntProcedure() {
+              (HashSet) this.unfinishedKeys, digests, matchingRanges, flowControl,
+              new ObjectIntProcedure() {
                 int msgNum = 0;
 
                 boolean last = false;
@@ -1777,7 +1839,8 @@ public class InitialImageOperation {
                       }
                       replyWithData(dm, entries, seriesNum, msgNum++, numSeries, this.last,
                           flowControlId,
-                          versionVector != null, holderToSend, gcVersions);
+                          versionVector != null, holderToSend, gcVersions,
+                          this.last ? matchingRanges : null);
                     }
                     return !abort;
                   } catch (CancelException e) {
@@ -1864,7 +1927,7 @@ public class InitialImageOperation {
           }
           // null chunk signals receiver that we are aborting
           ImageReplyMessage.send(getSender(), processorId, rex, dm, null, 0, 0, 1, true, 0, false,
-              null, null);
+              null, null, null);
         } // !success
 
         if (internalAfterSentImageReply != null
@@ -1883,10 +1946,13 @@ public class InitialImageOperation {
      *
      * @param versionVector requester's region version vector
      * @param unfinishedKeys keys of unfinished operation (persistent region only)
+     * @param rangeDigests the digests of this region's entries if the requester sent its own
+     * @param matchingRanges the key hash ranges whose entries the requester already has
      * @return true if finished all chunks, false if stopped early
      */
     protected boolean chunkEntries(DistributedRegion rgn, int chunkSizeInBytes,
         boolean includeValues, RegionVersionVector versionVector, HashSet unfinishedKeys,
+        EntryRangeDigests rangeDigests, boolean[] matchingRanges,
         InitialImageFlowControl flowControl, ObjectIntProcedure proc) throws IOException {
       boolean keepGoing = true;
       boolean sentLastChunk = false;
@@ -1963,6 +2029,10 @@ public class InitialImageOperation {
                         continue;
                       }
                     }
+                    // leave out the entries the recipient recovered in the same version
+                    if (matchingRanges != null && matchingRanges[rangeDigests.getRange(key)]) {
+                      continue;
+                    }
                     entry = new InitialImageOperation.Entry();
                     entry.key = key;
                     entry.setVersionTag(stamp.asVersionTag());
@@ -2027,14 +2097,16 @@ public class InitialImageOperation {
     private void replyNoData(ClusterDistributionManager dm, boolean isDeltaGII,
         Map<VersionSource, Long> gcVersions) {
       ImageReplyMessage.send(getSender(), this.processorId, null, dm, null, 0, 0, 1, true, 0,
-          isDeltaGII, null, gcVersions);
+          isDeltaGII, null, gcVersions, null);
     }
 
     protected void replyWithData(ClusterDistributionManager dm, List entries, int seriesNum,
         int msgNum, int numSeries, boolean lastInSeries, int flowControlId, boolean isDeltaGII,
-        RegionVersionHolder holderToSend, Map<VersionSource, Long> gcVersions) {
+        RegionVersionHolder holderToSend, Map<VersionSource, Long> gcVersions,
+        boolean[] matchingRanges) {
       ImageReplyMessage.send(getSender(), this.processorId, null, dm, entries, seriesNum, msgNum,
-          numSeries, lastInSeries, flowControlId, isDeltaGII, holderToSend, gcVersions);
+          numSeries, lastInSeries, flowControlId, isDeltaGII, holderToSend, gcVersions,
+          matchingRanges);
     }
 
 
@@ -2071,6 +2143,9 @@ public class InitialImageOperation {
       this.versionVector = (RegionVersionVector) DataSerializer.readObject(in);
       this.lostMemberID = (InternalDistributedMember) DataSerializer.readObject(in);
       this.unfinishedKeys = (Set) DataSerializer.readObject(in);
+      if (InternalDataSerializer.getVersionForDataStream(in).compareTo(Version.GEODE_190) >= 0) {
+        this.rangeDigests = DataSerializer.readLongArray(in);
+      }
     }
 
     @Override
@@ -2085,6 +2160,9 @@ public class InitialImageOperation {
       DataSerializer.writeObject(this.versionVector, out);
       DataSerializer.writeObject(this.lostMemberID, out);
       DataSerializer.writeObject(this.unfinishedKeys, out);
+      if (InternalDataSerializer.getVersionForDataStream(out).compareTo(Version.GEODE_190) >= 0) {
+        DataSerializer.writeLongArray(this.rangeDigests, out);
+      }
     }
 
     @Override
@@ -2114,6 +2192,9 @@ public class InitialImageOperation {
       }
       buff.append("; versionVector=").append(versionVector);
       buff.append("; unfinished keys=").append(unfinishedKeys);
+      if (this.rangeDigests != null) {
+        buff.append("; rangeDigests=").append(this.rangeDigests.length);
+      }
       buff.append(")");
       return buff.toString();
     }
@@ -2717,6 +2798,12 @@ public class InitialImageOperation {
      */
     private Map<VersionSource, Long> gcVersions;
 
+    /**
+     * The key hash ranges whose entries were not sent because the GII recipient already has them.
+     * This is sent with the last GII chunk if the recipient sent its {@link EntryRangeDigests}.
+     */
+    private boolean[] matchingRanges;
+
     /** the {@link Version} of the remote peer */
     private transient Version remoteVersion;
 
@@ -2738,11 +2825,13 @@ public class InitialImageOperation {
      * @param lastInSeries if this is the last message in this series
      * @param isDeltaGII if this message is for deltaGII
      * @param holderToSend higher version holder to sync for the lost member
+     * @param matchingRanges the key hash ranges whose entries were not sent
      */
     public static void send(InternalDistributedMember recipient, int processorId,
         ReplyException exception, ClusterDistributionManager dm, List entries, int seriesNum,
         int msgNum, int numSeries, boolean lastInSeries, int flowControlId, boolean isDeltaGII,
-        RegionVersionHolder holderToSend, Map<VersionSource, Long> gcVersions) {
+        RegionVersionHolder holderToSend, Map<VersionSource, Long> gcVersions,
+        boolean[] matchingRanges) {
       ImageReplyMessage m = new ImageReplyMessage();
 
       m.processorId = processorId;
@@ -2763,6 +2852,7 @@ public class InitialImageOperation {
       m.holderToSend = holderToSend;
       m.hasHolderToSend = (holderToSend != null);
       m.gcVersions = gcVersions;
+      m.matchingRanges = matchingRanges;
       dm.putOutgoing(m);
     }
 
@@ -2829,6 +2919,9 @@ public class InitialImageOperation {
         long value = InternalDataSerializer.readUnsignedVL(in);
         gcVersions.put(key, value);
       }
+      if (InternalDataSerializer.getVersionForDataStream(in).compareTo(Version.GEODE_190) >= 0) {
+        this.matchingRanges = DataSerializer.readBooleanArray(in);
+      }
     }
 
     @Override
@@ -2858,6 +2951,9 @@ public class InitialImageOperation {
           InternalDataSerializer.writeUnsignedVL(entry.getValue(), out);
         }
       }
+      if (InternalDataSerializer.getVersionForDataStream(out).compareTo(Version.GEODE_190) >= 0) {
+        DataSerializer.writeBooleanArray(this.matchingRanges, out);
+      }
     }
 
     @Override
@@ -1933,6 +1933,18 @@ public class PartitionedRegion extends LocalRegion
 
     PartitionedRegionQueryEvaluator prqe = new PartitionedRegionQueryEvaluator(this.getSystem(),
         this, query, parameters, results, allBuckets);
+    if (prqe.isStreamable()) {
+      // the results are handed out as they arrive, duplicates need not be dropped as
+      // only non distinct queries are streamed
+      try {
+        return prqe.streamBuckets();
+      } catch (QueryException qe) {
+        throw new QueryInvocationTargetException(
+            String.format("Unexpected query exception occurred during query execution %s",
+                qe.getMessage()),
+            qe);
+      }
+    }
     for (;;) {
       this.getCancelCriterion().checkCancelInProgress(null);
       boolean interrupted = Thread.interrupted();
@@ -30,6 +30,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import org.apache.logging.log4j.Logger;
@@ -58,6 +59,7 @@ import org.apache.geode.cache.query.internal.QueryMonitor;
 import org.apache.geode.cache.query.internal.ResultsSet;
 import org.apache.geode.cache.query.internal.SortedResultsBag;
 import org.apache.geode.cache.query.internal.SortedStructBag;
+import org.apache.geode.cache.query.internal.StreamingNonDistinctResults;
 import org.apache.geode.cache.query.internal.StructSet;
 import org.apache.geode.cache.query.internal.utils.PDXUtils;
 import org.apache.geode.cache.query.types.ObjectType;
@@ -116,6 +118,24 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
   private static final int MAX_PR_QUERY_RETRIES =
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "MAX_PR_QUERY_RETRIES", 10).intValue();
 
+  /**
+   * If true, the results of non distinct, unordered client queries are streamed from the data
+   * stores to the client instead of being gathered on this member first.
+   *
+   * @see StreamingNonDistinctResults
+   */
+  static final boolean STREAM_RESULTS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "PR_QUERY_STREAM_RESULTS");
+
+  /**
+   * The number of result chunks which may be queued for a streamed query before the threads
+   * processing the replies from the data stores block.
+   */
+  private static final int MAX_STREAMED_CHUNKS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "PR_QUERY_MAX_STREAMED_CHUNKS", 16);
+
+  private static final long STREAMED_CHUNK_WAIT_MS = 100;
+
   private final PartitionedRegion pr;
   private volatile Map<InternalDistributedMember, List<Integer>> node2bucketIds;
   private final DefaultQuery query;
@@ -131,6 +151,10 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
   private final Set<Integer> bucketsToQuery;
   // set of members failed to execute query
   private Set<InternalDistributedMember> failedMembers;
+  // non null if the results are being streamed, see streamBuckets
+  private volatile StreamingNonDistinctResults streamingResults;
+  // members whose results have already been handed to the consumer of the streamed results
+  private final Set<InternalDistributedMember> streamedMembers = ConcurrentHashMap.newKeySet();
 
   /**
    * Construct a PartitionedRegionQueryEvaluator
@@ -229,7 +253,11 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
 
     synchronized (results) {
       if (!QueryMonitor.isLowMemory() && !this.query.isCanceled()) {
-        results.add(objects);
+        if (this.streamingResults == null) {
+          results.add(objects);
+        } else if (!streamChunk(objects, sender)) {
+          return false;
+        }
       } else {
         if (logger.isDebugEnabled()) {
           logger.debug("query canceled while gathering results, aborting");
@@ -255,6 +283,39 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
     return true;
   }
 
+  /**
+   * Hands a chunk of results to the consumer of the streamed results, waiting while the consumer is
+   * behind.
+   *
+   * @return false if the consumer stopped reading or the query has been canceled
+   */
+  private boolean streamChunk(Collection objects, InternalDistributedMember sender) {
+    if (objects.isEmpty()) {
+      return true;
+    }
+    final boolean localResults = sender.equals(this.pr.getMyId());
+    CumulativeNonDistinctResults.Metadata metadata = localResults
+        ? CumulativeNonDistinctResults.getCollectionMetadata(false, false, true)
+        : CumulativeNonDistinctResults.getCollectionMetadata(
+            !this.pr.getCache().getPdxReadSerializedByAnyGemFireServices(), true, false);
+    this.streamedMembers.add(sender);
+    try {
+      while (!this.streamingResults.offerChunk(objects, metadata, STREAMED_CHUNK_WAIT_MS)) {
+        if (this.streamingResults.isAborted() || this.query.isCanceled()
+            || QueryMonitor.isLowMemory()) {
+          if (logger.isDebugEnabled()) {
+            logger.debug("Stopped streaming the results of query {}", this.query.getQueryString());
+          }
+          return false;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+    return true;
+  }
+
   // TODO Asif: optimize it by creating a Sorted SelectResults Object at the time of fromData , so
   // that processData already receives ordered data.
   private List sortIncomingData(List objects, List<CompiledSortCriterion> orderByAttribs) {
@@ -393,6 +454,12 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
         // should we allow this to timeout?
         failedMembers = processor.waitForCacheOrQueryException();
         for (InternalDistributedMember member : failedMembers) {
+          if (this.streamingResults != null && this.streamedMembers.contains(member)) {
+            // the partial results of this member have already been handed out, so its buckets
+            // can not be queried again without producing duplicates
+            throw new QueryException("Member " + member
+                + " failed after some of its query results had been streamed");
+          }
           memberStreamCorrupted(member);
         }
         requiresRetry |= !failedMembers.isEmpty();
@@ -490,6 +557,10 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
       if (th != null) {
         th.hook(1);
       }
+      if (this.streamingResults != null && this.streamingResults.isAborted()) {
+        // the consumer has all the results it wants
+        needsRetry = false;
+      }
 
       if (needsRetry) {
         // Shobhit: Only one chance is allowed for Function queries.
@@ -529,9 +600,75 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
       throw new QueryException(msg);
     }
 
+    if (this.streamingResults != null) {
+      return this.streamingResults;
+    }
     return addResultsToResultSet();
   }
 
+  /**
+   * Returns true if the results of the query can be streamed by {@link #streamBuckets()}. Only non
+   * distinct, unordered queries from clients without aggregates qualify, since all the other
+   * queries need the complete results on this member before the first one can be returned.
+   */
+  public boolean isStreamable() {
+    if (!STREAM_RESULTS || this.query == null || !this.query.isRemoteQuery()
+        || this.query.isTraced() || this.query.isQueryWithFunctionContext()) {
+      return false;
+    }
+    CompiledSelect cs = this.query.getSimpleSelect();
+    // select * queries without a where clause keep the results serialized for the client, which
+    // are sent from a list of all the results
+    return cs != null && cs.getType() != CompiledValue.GROUP_BY_SELECT && !cs.isDistinct()
+        && !cs.isOrderBy() && !cs.isCount()
+        && (cs.getWhereClause() != null || cs.getProjectionAttributes() != null);
+  }
+
+  /**
+   * Executes the query like {@link #queryBuckets(TestHook)}, but returns immediately with results
+   * that are handed to the caller as they arrive from the data stores. The query is executed by a
+   * thread of the waiting pool with the query state of the caller, and that thread blocks while the
+   * caller is behind in reading the results. The query is monitored by the {@link QueryMonitor}
+   * until all its results have been produced, so it is canceled if it runs for too long or memory
+   * runs low while the results are streamed.
+   *
+   * Buckets are retried as usual, unless a member fails after some of its results have already
+   * been streamed, in which case reading the results fails.
+   */
+  public SelectResults streamBuckets() throws QueryException {
+    final StreamingNonDistinctResults results = new StreamingNonDistinctResults(
+        this.cumulativeResults.getCollectionType().getElementType(), MAX_STREAMED_CHUNKS,
+        this.query.getLimit(this.parameters), this.query);
+    this.streamingResults = results;
+    final QueryMonitor queryMonitor = this.pr.getCache().getQueryMonitor();
+    // the streamer blocks while the caller is behind, so it runs in the waiting pool
+    this.sys.getDistributionManager().getWaitingThreadPool()
+        .execute(this.query.withQueryThreadState(() -> {
+          ScheduledFuture cancelationTask = null;
+          Throwable failure = null;
+          try {
+            if (queryMonitor != null) {
+              queryMonitor.monitorQueryThread(this.query);
+              // kept, since the query of the local buckets replaces the task of the query
+              cancelationTask = this.query.getCancelationTask().orElse(null);
+            }
+            queryBuckets(null);
+          } catch (VirtualMachineError e) {
+            SystemFailure.initiateFailure(e);
+            throw e;
+          } catch (Throwable t) {
+            SystemFailure.checkFailure();
+            failure = t;
+          } finally {
+            if (cancelationTask != null) {
+              cancelationTask.cancel(false);
+            }
+            results.endOfStream(failure);
+          }
+        }));
+    return results;
+  }
+
   /**
    * Wait for 10 ms between reattempts.
    */
@@ -1000,6 +1137,15 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
           prQueryTraceInfoList.add(queryTraceInfo);
         }
 
+        if (this.streamingResults != null) {
+          for (Object o : resultCollector) {
+            if (o instanceof Collection && !streamChunk((Collection) o, me)) {
+              break;
+            }
+          }
+          resultCollector = new MemberResultsList();
+        }
+
         resultCollector.setLastChunkReceived(true);
         // Add results to the results-list. If prior successfully completed
         // results exist from previous executions on different buckets, add (to) those results as
@@ -15,6 +15,7 @@
 package org.apache.geode.internal.cache.tier.sockets;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -29,6 +30,7 @@ import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.Struct;
 import org.apache.geode.cache.query.internal.CqEntry;
 import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.cache.query.internal.StreamingNonDistinctResults;
 import org.apache.geode.cache.query.internal.cq.ServerCQ;
 import org.apache.geode.cache.query.internal.types.CollectionTypeImpl;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
@@ -130,7 +132,25 @@ public abstract class BaseCommandQuery extends BaseCommand {
         result = queryContext.getQueryResult();
       }
 
-      if (result instanceof SelectResults) {
+      if (result instanceof StreamingNonDistinctResults && cqQuery == null
+          && !((DefaultQuery) query).isKeepSerialized()) {
+        StreamingNonDistinctResults streamingResults = (StreamingNonDistinctResults) result;
+        try {
+          long oldStart = start;
+          start = DistributionStats.getStatTime();
+          stats.incProcessQueryTime(start - oldStart);
+
+          if (sendResults) {
+            queryResponseMsg.setMessageType(MessageType.RESPONSE);
+            queryResponseMsg.setTransactionId(msg.getTransactionId());
+            queryResponseMsg.sendHeader();
+          }
+          sendStreamedResultsAsObjectArray(streamingResults, servConn, queryString, sendResults);
+        } finally {
+          // stop the data stores from producing more results if sending failed
+          streamingResults.abort();
+        }
+      } else if (result instanceof SelectResults) {
         SelectResults selectResults = (SelectResults) result;
 
         if (logger.isDebugEnabled()) {
@@ -439,6 +459,46 @@ public abstract class BaseCommandQuery extends BaseCommand {
     }
   }
 
+  /**
+   * Sends the results to the client a chunk at a time as they arrive from the data stores, rather
+   * than waiting for all of them. Since the number of results is not known up front, a chunk is
+   * only known to be the last one once the stream has ended.
+   */
+  private void sendStreamedResultsAsObjectArray(StreamingNonDistinctResults selectResults,
+      ServerConnection servConn, String queryString, boolean sendResults) throws IOException {
+    CollectionType collectionType = getCollectionType(selectResults);
+    boolean isStructs = collectionType.getElementType().isStructType();
+    Iterator iterator = selectResults.streamingIterator();
+    List<Object> results = new ArrayList<>(MAXIMUM_CHUNK_SIZE);
+    int numberOfChunks = 0;
+    boolean lastChunk = !iterator.hasNext();
+    while (!lastChunk) {
+      Object result = iterator.next();
+      // instance check added to fix bug 40516.
+      if (isStructs && (result instanceof Struct)) {
+        results.add(((Struct) result).getFieldValues());
+      } else {
+        results.add(result);
+      }
+      lastChunk = !iterator.hasNext();
+      if (lastChunk || results.size() == MAXIMUM_CHUNK_SIZE) {
+        if (sendResults) {
+          writeQueryResponseChunk(results.toArray(), collectionType, lastChunk, servConn);
+          if (logger.isDebugEnabled()) {
+            logger.debug("{}: Sent streamed chunk {} of query response for query: {}",
+                servConn.getName(), numberOfChunks + 1, queryString);
+          }
+        }
+        numberOfChunks++;
+        results.clear();
+      }
+    }
+    if (sendResults && numberOfChunks == 0) {
+      // Send 1 empty chunk
+      writeQueryResponseChunk(new Object[0], collectionType, true, servConn);
+    }
+  }
+
   private void sendResultsAsObjectPartList(int numberOfChunks, ServerConnection servConn, List objs,
       boolean isStructs, CollectionType collectionType, String queryString, ServerCQ cqQuery,
       boolean sendCqResultsWithKey, boolean sendResults, final SecurityService securityService)
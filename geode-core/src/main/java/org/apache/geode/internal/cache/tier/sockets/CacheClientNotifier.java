@@ -1911,7 +1911,8 @@ public class CacheClientNotifier {
   }
 
   public void addCompiledQuery(DefaultQuery query) {
-    if (this.compiledQueries.putIfAbsent(query.getQueryString(), query) == null) {
+    String key = DefaultQuery.normalizeQueryString(query.getQueryString());
+    if (this.compiledQueries.putIfAbsent(key, query) == null) {
       // Added successfully.
       this.statistics.incCompiledQueryCount(1);
       if (logger.isDebugEnabled()) {
@@ -1921,11 +1922,51 @@ public class CacheClientNotifier {
       }
       // Start the clearIdleCompiledQueries thread.
       startCompiledQueryCleanupThread();
+      evictCompiledQueries(key);
     }
   }
 
   public Query getCompiledQuery(String queryString) {
-    return this.compiledQueries.get(queryString);
+    return this.compiledQueries.get(DefaultQuery.normalizeQueryString(queryString));
+  }
+
+  private boolean removeCompiledQuery(String key, DefaultQuery query) {
+    if (this.compiledQueries.remove(key, query)) {
+      this.statistics.incCompiledQueryCount(-1);
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            "Removed compiled query from ccn.compliedQueries list. Query: {}. Total compiled queries: {}",
+            query.getQueryString(), this.statistics.getCompiledQueryCount());
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Evicts compiled queries while there are more than DefaultQuery.MAX_COMPILED_QUERIES. The last
+   * used flag gives each query a second chance, so this approximates least recently used eviction
+   * without ordering the lookups. The query just added under the given key is never evicted.
+   */
+  private void evictCompiledQueries(String addedKey) {
+    int max = Math.max(DefaultQuery.MAX_COMPILED_QUERIES, 0);
+    // two passes are enough: the first clears the last used flags of the queries it skips
+    for (int pass = 0; pass < 2 && this.compiledQueries.size() > max; pass++) {
+      for (Map.Entry<String, DefaultQuery> e : this.compiledQueries.entrySet()) {
+        if (this.compiledQueries.size() <= max) {
+          return;
+        }
+        if (e.getKey().equals(addedKey)) {
+          continue;
+        }
+        DefaultQuery q = e.getValue();
+        if (q.getLastUsed()) {
+          q.setLastUsed(false);
+        } else {
+          removeCompiledQuery(e.getKey(), q);
+        }
+      }
+    }
   }
 
   private void clearCompiledQueries() {
@@ -1952,7 +1993,6 @@ public class CacheClientNotifier {
     SystemTimer.SystemTimerTask task = new SystemTimer.SystemTimerTask() {
       @Override
       public void run2() {
-        final boolean isDebugEnabled = logger.isDebugEnabled();
         for (Map.Entry<String, DefaultQuery> e : compiledQueries.entrySet()) {
           DefaultQuery q = e.getValue();
           // Check if the query last used flag.
@@ -1961,15 +2001,7 @@ public class CacheClientNotifier {
           if (q.getLastUsed()) {
             q.setLastUsed(false);
           } else {
-            if (compiledQueries.remove(e.getKey()) != null) {
-              // If successfully removed decrement the counter.
-              statistics.incCompiledQueryCount(-1);
-              if (isDebugEnabled) {
-                logger.debug("Removed compiled query from ccn.compliedQueries list. Query: "
-                    + q.getQueryString() + ". Total compiled queries are : "
-                    + statistics.getCompiledQueryCount());
-              }
-            }
+            removeCompiledQuery(e.getKey(), q);
           }
         }
       }
@@ -368,8 +368,9 @@ public class Message {
     }
 
     // Create the HDOS with a flag telling it that it can keep any byte[] or ByteBuffers/ByteSources
-    // passed to it. Do NOT close the HeapDataOutputStream!
-    HeapDataOutputStream hdos = new HeapDataOutputStream(this.chunkSize, v, true);
+    // passed to it. Do NOT close the HeapDataOutputStream! The part closes it when it is cleared,
+    // which returns its buffers to the pool.
+    HeapDataOutputStream hdos = new HeapDataOutputStream(this.chunkSize, v, true, true);
     try {
       BlobHelper.serializeTo(o, hdos);
     } catch (IOException ex) {
@@ -391,8 +392,8 @@ public class Message {
       v = null;
     }
 
-    // do NOT close the HeapDataOutputStream
-    HeapDataOutputStream hdos = new HeapDataOutputStream(this.chunkSize, v);
+    // do NOT close the HeapDataOutputStream, the part closes it when it is cleared
+    HeapDataOutputStream hdos = new HeapDataOutputStream(this.chunkSize, v, false, true);
     try {
       BlobHelper.serializeTo(o, hdos);
     } catch (IOException ex) {
@@ -15,16 +15,26 @@
 package org.apache.geode.internal.cache.tier.sockets.command;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.geode.CancelException;
+import org.apache.geode.InternalGemFireException;
 import org.apache.geode.cache.EntryNotFoundException;
 import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.operations.DestroyOperationContext;
 import org.apache.geode.cache.operations.PutOperationContext;
 import org.apache.geode.cache.wan.GatewayReceiver;
 import org.apache.geode.distributed.DistributedSystem;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.DistributionStats;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.Version;
@@ -33,6 +43,7 @@ import org.apache.geode.internal.cache.EventID;
 import org.apache.geode.internal.cache.EventIDHolder;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.ha.ThreadIdentifier;
 import org.apache.geode.internal.cache.tier.CachedRegionHelper;
 import org.apache.geode.internal.cache.tier.Command;
 import org.apache.geode.internal.cache.tier.MessageType;
@@ -42,7 +53,9 @@ import org.apache.geode.internal.cache.tier.sockets.Part;
 import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
 import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.cache.wan.BatchException70;
+import org.apache.geode.internal.cache.wan.GatewayBatchValueCompression;
 import org.apache.geode.internal.cache.wan.GatewayReceiverStats;
+import org.apache.geode.internal.logging.LoggingExecutors;
 import org.apache.geode.internal.security.AuthorizeRequest;
 import org.apache.geode.internal.security.SecurityService;
 import org.apache.geode.internal.util.BlobHelper;
@@ -57,6 +70,18 @@ public class GatewayReceiverCommand extends BaseCommand {
 
   private static final GatewayReceiverCommand singleton = new GatewayReceiverCommand();
 
+  /**
+   * The number of threads, in addition to the server connection thread, which apply the events of
+   * a batch concurrently. The events are partitioned by originating thread and by key, so the
+   * events of a thread and the events for a key are still applied in order. By default the events
+   * are applied by the server connection thread.
+   */
+  static int APPLY_THREADS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "GatewayReceiver.APPLY_THREADS", 0);
+
+  /** GuardedBy GatewayReceiverCommand.class */
+  private static ExecutorService applyPool;
+
   public static Command getCommand() {
     return singleton;
   }
@@ -77,23 +102,14 @@ public class GatewayReceiverCommand extends BaseCommand {
   @Override
   public void cmdExecute(final Message clientMessage, final ServerConnection serverConnection,
       final SecurityService securityService, long start) throws IOException, InterruptedException {
-    Part regionNamePart = null, keyPart = null, valuePart = null, callbackArgPart = null;
-    String regionName = null;
-    Object callbackArg = null, key = null;
     int partNumber = 0;
-    CachedRegionHelper crHelper = serverConnection.getCachedRegionHelper();
     GatewayReceiverStats stats = (GatewayReceiverStats) serverConnection.getCacheServerStats();
-    EventID eventId = null;
-    LocalRegion region = null;
-    List<BatchException70> exceptions = new ArrayList<BatchException70>();
-    Throwable fatalException = null;
     // requiresResponse = true;// let PROCESS_BATCH deal with this itself
     {
       long oldStart = start;
       start = DistributionStats.getStatTime();
       stats.incReadProcessBatchRequestTime(start - oldStart);
     }
-    Part callbackArgExistsPart;
 
     stats.incBatchSize(clientMessage.getPayloadLength());
 
@@ -163,16 +179,90 @@ public class GatewayReceiverCommand extends BaseCommand {
     boolean removeOnException =
         clientMessage.getPart(partNumber++).getSerializedForm()[0] == 1 ? true : false;
 
-    // event received in batch also have PDX events at the start of the batch,to
-    // represent correct index on which the exception occurred, number of PDX
-    // events need to be subtracted.
-    int indexWithoutPDXEvent = -1; //
-    for (int i = 0; i < numberOfEvents; i++) {
+    int[] eventParts = new int[numberOfEvents];
+    int[] eventIndexes = new int[numberOfEvents];
+    boolean[] isPdxEvent = new boolean[numberOfEvents];
+    locateEvents(clientMessage, partNumber, eventParts, eventIndexes, isPdxEvent);
+
+    BatchApplyState state = new BatchApplyState();
+    if (APPLY_THREADS > 0 && numberOfEvents > 1) {
+      applyEventsInParallel(clientMessage, serverConnection, batchId, numberOfEvents, dsid,
+          removeOnException, eventParts, eventIndexes, isPdxEvent, state);
+    } else {
+      int[] events = new int[numberOfEvents];
+      for (int i = 0; i < numberOfEvents; i++) {
+        events[i] = i;
+      }
+      applyEvents(clientMessage, serverConnection, batchId, numberOfEvents, dsid,
+          removeOnException, eventParts, eventIndexes, events, state);
+    }
+    state.setModificationInfo(serverConnection);
+    if (state.cancelled) {
+      return;
+    }
+    Throwable fatalException = state.fatalException;
+    List<BatchException70> exceptions = state.exceptions;
+
+    {
+      long oldStart = start;
+      start = DistributionStats.getStatTime();
+      stats.incProcessBatchTime(start - oldStart);
+    }
+    if (fatalException != null) {
+      serverConnection.incrementLatestBatchIdReplied(batchId);
+      writeFatalException(clientMessage, fatalException, serverConnection, batchId);
+      serverConnection.setAsTrue(RESPONDED);
+    } else if (!exceptions.isEmpty()) {
+      serverConnection.incrementLatestBatchIdReplied(batchId);
+      writeBatchException(clientMessage, exceptions, serverConnection, batchId);
+      serverConnection.setAsTrue(RESPONDED);
+    } else {
+      // Increment the batch id unless the received batch id is -1 (a failover
+      // batch)
+      serverConnection.incrementLatestBatchIdReplied(batchId);
+
+      writeReply(clientMessage, serverConnection, batchId, numberOfEvents);
+      serverConnection.setAsTrue(RESPONDED);
+      stats.incWriteProcessBatchResponseTime(DistributionStats.getStatTime() - start);
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            "{}: Sent process batch normal response for batch {} containing {} events ({} bytes) with {} acknowledgement on {}",
+            serverConnection.getName(), batchId, numberOfEvents, clientMessage.getPayloadLength(),
+            "normal", serverConnection.getSocketString());
+      }
+    }
+  }
+
+  /**
+   * Applies the given events of a batch in order. The threads applying the events of one batch
+   * share its state.
+   *
+   * @param events the indexes in the batch of the events to apply
+   */
+  private void applyEvents(Message clientMessage, ServerConnection serverConnection, int batchId,
+      int numberOfEvents, int dsid, boolean removeOnException, int[] eventParts,
+      int[] eventIndexes, int[] events, BatchApplyState state)
+      throws IOException, InterruptedException {
+    Part regionNamePart = null, keyPart = null, valuePart = null, callbackArgPart = null;
+    String regionName = null;
+    Object callbackArg = null, key = null;
+    CachedRegionHelper crHelper = serverConnection.getCachedRegionHelper();
+    GatewayReceiverStats stats = (GatewayReceiverStats) serverConnection.getCacheServerStats();
+    EventID eventId = null;
+    LocalRegion region = null;
+    Part callbackArgExistsPart;
+
+    for (int event : events) {
+      if (state.isStopped()) {
+        return;
+      }
+      int partNumber = eventParts[event];
+      // event received in batch also have PDX events at the start of the batch,to
+      // represent correct index on which the exception occurred, number of PDX
+      // events need to be subtracted.
+      int indexWithoutPDXEvent = eventIndexes[event];
       boolean retry = true;
       boolean isPdxEvent = false;
-      indexWithoutPDXEvent++;
-      // System.out.println("Processing event " + i + " in batch " + batchId + "
-      // starting with part number " + partNumber);
       Part actionTypePart = clientMessage.getPart(partNumber);
       int actionType = actionTypePart.getInt();
 
@@ -201,7 +291,10 @@ public class GatewayReceiverCommand extends BaseCommand {
             handleException(removeOnException, stats, e);
             break;
           }
-          boolean possibleDuplicate = possibleDuplicatePartBytes[0] == 0x01;
+          boolean possibleDuplicate = (possibleDuplicatePartBytes[0]
+              & GatewayBatchValueCompression.POSSIBLE_DUPLICATE) != 0;
+          boolean valueCompressed = (possibleDuplicatePartBytes[0]
+              & GatewayBatchValueCompression.VALUE_COMPRESSED) != 0;
 
           // Make sure instance variables are null before each iteration
           regionName = null;
@@ -330,6 +423,9 @@ public class GatewayReceiverCommand extends BaseCommand {
                   clientEvent.setPossibleDuplicate(possibleDuplicate);
                   handleMessageRetry(region, clientEvent);
                   byte[] value = valuePart.getSerializedForm();
+                  if (valueCompressed) {
+                    value = GatewayBatchValueCompression.decompress(value);
+                  }
                   boolean isObject = valuePart.isObject();
                   // [sumedh] This should be done on client while sending
                   // since that is the WAN gateway
@@ -356,7 +452,7 @@ public class GatewayReceiverCommand extends BaseCommand {
                   }
 
                   if (result || clientEvent.isConcurrencyConflict()) {
-                    serverConnection.setModificationInfo(true, regionName, key);
+                    state.noteModification(event, regionName, key);
                     stats.incCreateRequest();
                     retry = false;
                   } else {
@@ -456,6 +552,9 @@ public class GatewayReceiverCommand extends BaseCommand {
                   clientEvent.setPossibleDuplicate(possibleDuplicate);
                   handleMessageRetry(region, clientEvent);
                   byte[] value = valuePart.getSerializedForm();
+                  if (valueCompressed) {
+                    value = GatewayBatchValueCompression.decompress(value);
+                  }
                   boolean isObject = valuePart.isObject();
                   AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
                   if (authzRequest != null) {
@@ -472,7 +571,7 @@ public class GatewayReceiverCommand extends BaseCommand {
                         serverConnection.getProxyID(), false, clientEvent);
                   }
                   if (result || clientEvent.isConcurrencyConflict()) {
-                    serverConnection.setModificationInfo(true, regionName, key);
+                    state.noteModification(event, regionName, key);
                     stats.incUpdateRequest();
                     retry = false;
                   } else {
@@ -568,7 +667,7 @@ public class GatewayReceiverCommand extends BaseCommand {
                   try {
                     region.basicBridgeDestroy(key, callbackArg, serverConnection.getProxyID(),
                         false, clientEvent);
-                    serverConnection.setModificationInfo(true, regionName, key);
+                    state.noteModification(event, regionName, key);
                   } catch (EntryNotFoundException e) {
                     logger.info("{}: during batch destroy no entry was found for key {}",
                         new Object[] {serverConnection.getName(), key});
@@ -686,6 +785,7 @@ public class GatewayReceiverCommand extends BaseCommand {
         }
         serverConnection.setFlagProcessMessagesAsFalse();
         serverConnection.setClientDisconnectedException(e);
+        state.cancelled = true;
         return;
       } catch (Exception e) {
         // If an interrupted exception is thrown , rethrow it
@@ -693,11 +793,11 @@ public class GatewayReceiverCommand extends BaseCommand {
 
         // If we have an issue with the PDX registry, stop processing more data
         if (e.getCause() instanceof PdxRegistryMismatchException) {
-          fatalException = e.getCause();
+          state.fatalException = e.getCause();
           logger.fatal(String.format(
               "This gateway receiver has received a PDX type from %s that does match the existing PDX type. This gateway receiver will not process any more events, in order to prevent receiving objects which may not be deserializable.",
               new Object[] {serverConnection.getMembershipID()}), e.getCause());
-          break;
+          return;
         }
 
         // Increment the batch id unless the received batch id is -1 (a
@@ -710,59 +810,255 @@ public class GatewayReceiverCommand extends BaseCommand {
                 ds.getDistributedMember()});
         BatchException70 be =
             new BatchException70(exceptionMessage, e, indexWithoutPDXEvent, batchId);
-        exceptions.add(be);
-      } finally {
-        // Increment the partNumber
-        if (actionType == 0 /* create */ || actionType == 1 /* update */) {
-          if (callbackArgExists) {
-            partNumber += 9;
-          } else {
-            partNumber += 8;
-          }
-        } else if (actionType == 2 /* destroy */) {
-          if (callbackArgExists) {
-            partNumber += 8;
-          } else {
-            partNumber += 7;
+        state.addException(be);
+      }
+    }
+  }
+
+  /**
+   * Finds the first message part of each event of a batch, and the index of each event in the batch
+   * not counting the PDX events.
+   */
+  private static void locateEvents(Message clientMessage, int partNumber, int[] eventParts,
+      int[] eventIndexes, boolean[] isPdxEvent) {
+    int numberOfNonPdxEvents = 0;
+    for (int i = 0; i < eventParts.length; i++) {
+      eventParts[i] = partNumber;
+      eventIndexes[i] = numberOfNonPdxEvents;
+      int actionType = clientMessage.getPart(partNumber).getInt();
+      if (actionType < 0 || actionType > 3) {
+        // unknown actions are skipped without consuming any parts
+        continue;
+      }
+      isPdxEvent[i] = PeerTypeRegistration.REGION_FULL_PATH
+          .equals(clientMessage.getPart(partNumber + 2).getString());
+      if (!isPdxEvent[i]) {
+        numberOfNonPdxEvents++;
+      }
+      int callbackArgExistsPart = actionType < 2 ? partNumber + 6 : partNumber + 5;
+      boolean callbackArgExists =
+          clientMessage.getPart(callbackArgExistsPart).getSerializedForm()[0] == 0x01;
+      partNumber = callbackArgExistsPart + (callbackArgExists ? 3 : 2);
+    }
+  }
+
+  /**
+   * Applies the PDX events of a batch on this thread, then partitions the other events into lanes
+   * and applies the lanes concurrently. This thread waits for all the lanes, so the batch is
+   * acknowledged once, after all its events have been applied.
+   */
+  private void applyEventsInParallel(Message clientMessage, ServerConnection serverConnection,
+      int batchId, int numberOfEvents, int dsid, boolean removeOnException, int[] eventParts,
+      int[] eventIndexes, boolean[] isPdxEvent, BatchApplyState state)
+      throws IOException, InterruptedException {
+    int numPartitions = Math.min(APPLY_THREADS + 1, numberOfEvents);
+    List<Integer> pdxEvents = new ArrayList<>();
+    Object[] threadKeys = new Object[numberOfEvents];
+    Object[] entryKeys = new Object[numberOfEvents];
+    for (int i = 0; i < numberOfEvents; i++) {
+      if (isPdxEvent[i]) {
+        // the types must be known before the events using them are applied
+        pdxEvents.add(i);
+        continue;
+      }
+      int actionType = clientMessage.getPart(eventParts[i]).getInt();
+      if (actionType >= 0 && actionType <= 3) {
+        Part eventIdPart = clientMessage.getPart(eventParts[i] + 3);
+        eventIdPart.setVersion(serverConnection.getClientVersion());
+        try {
+          EventID eventId = (EventID) eventIdPart.getObject();
+          threadKeys[i] = new ThreadIdentifier(eventId.getMembershipID(), eventId.getThreadID());
+        } catch (Exception e) {
+          // applying the event reports the failure
+        }
+        // events for equal keys have equal serialized keys, as they come from the same sender
+        String regionName = clientMessage.getPart(eventParts[i] + 2).getString();
+        byte[] key = clientMessage.getPart(eventParts[i] + 4).getSerializedForm();
+        entryKeys[i] = Arrays.asList(regionName, ByteBuffer.wrap(key));
+      }
+    }
+    int[] lanes = assignLanes(threadKeys, entryKeys, numPartitions);
+    List<List<Integer>> partitions = new ArrayList<>(numPartitions);
+    for (int p = 0; p < numPartitions; p++) {
+      partitions.add(new ArrayList<>());
+    }
+    for (int i = 0; i < numberOfEvents; i++) {
+      if (!isPdxEvent[i]) {
+        partitions.get(lanes[i]).add(i);
+      }
+    }
+
+    applyEvents(clientMessage, serverConnection, batchId, numberOfEvents, dsid, removeOnException,
+        eventParts, eventIndexes, toArray(pdxEvents), state);
+
+    List<Future<?>> futures = new ArrayList<>(numPartitions - 1);
+    for (int p = 1; p < numPartitions; p++) {
+      int[] events = toArray(partitions.get(p));
+      if (events.length > 0) {
+        futures.add(getApplyPool().submit(() -> {
+          applyEvents(clientMessage, serverConnection, batchId, numberOfEvents, dsid,
+              removeOnException, eventParts, eventIndexes, events, state);
+          return null;
+        }));
+      }
+    }
+    Throwable failure = null;
+    try {
+      applyEvents(clientMessage, serverConnection, batchId, numberOfEvents, dsid,
+          removeOnException, eventParts, eventIndexes, toArray(partitions.get(0)), state);
+    } catch (IOException | InterruptedException | RuntimeException | Error e) {
+      failure = e;
+    }
+
+    // wait for all the partitions before replying or failing, so that no event of this batch is
+    // applied concurrently with the next batch
+    boolean interrupted = false;
+    for (Future<?> future : futures) {
+      while (true) {
+        try {
+          future.get();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause();
           }
-        } else if (actionType == 3 /* update-version */) {
-          if (callbackArgExists) {
-            partNumber += 8;
-          } else {
-            partNumber += 7;
+          break;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    if (failure instanceof IOException) {
+      throw (IOException) failure;
+    } else if (failure instanceof InterruptedException) {
+      throw (InterruptedException) failure;
+    } else if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    } else if (failure != null) {
+      throw new InternalGemFireException(failure);
+    }
+    state.sortExceptions();
+  }
+
+  /**
+   * Assigns the events of a batch to lanes, each of which is applied in order by one thread. The
+   * events from one originating thread go to the same lane, because the receiver drops an event
+   * whose sequence id is not above the last one it saw from that thread. The events for one entry
+   * go to the same lane too, so they are applied in the order they were sent.
+   *
+   * @param threadKeys the originating thread of each event, or null
+   * @param entryKeys the region and key of each event, or null
+   * @return the lane of each event
+   */
+  static int[] assignLanes(Object[] threadKeys, Object[] entryKeys, int numLanes) {
+    int[] groups = new int[threadKeys.length];
+    Map<Object, Integer> firstEvents = new HashMap<>();
+    for (int i = 0; i < groups.length; i++) {
+      groups[i] = i;
+      for (Object key : new Object[] {threadKeys[i], entryKeys[i]}) {
+        if (key != null) {
+          Integer first = firstEvents.putIfAbsent(key, i);
+          if (first != null) {
+            groups[findGroup(groups, i)] = findGroup(groups, first);
           }
         }
       }
     }
+    // give each group, in the order of its first event, the lane with the fewest events so far
+    int[] lanes = new int[groups.length];
+    int[] laneSizes = new int[numLanes];
+    Map<Integer, Integer> groupLanes = new HashMap<>();
+    for (int i = 0; i < groups.length; i++) {
+      lanes[i] = groupLanes.computeIfAbsent(findGroup(groups, i), group -> {
+        int lane = 0;
+        for (int l = 1; l < numLanes; l++) {
+          if (laneSizes[l] < laneSizes[lane]) {
+            lane = l;
+          }
+        }
+        return lane;
+      });
+      laneSizes[lanes[i]]++;
+    }
+    return lanes;
+  }
 
-    {
-      long oldStart = start;
-      start = DistributionStats.getStatTime();
-      stats.incProcessBatchTime(start - oldStart);
+  private static int findGroup(int[] groups, int event) {
+    while (groups[event] != event) {
+      groups[event] = groups[groups[event]];
+      event = groups[event];
     }
-    if (fatalException != null) {
-      serverConnection.incrementLatestBatchIdReplied(batchId);
-      writeFatalException(clientMessage, fatalException, serverConnection, batchId);
-      serverConnection.setAsTrue(RESPONDED);
-    } else if (!exceptions.isEmpty()) {
-      serverConnection.incrementLatestBatchIdReplied(batchId);
-      writeBatchException(clientMessage, exceptions, serverConnection, batchId);
-      serverConnection.setAsTrue(RESPONDED);
-    } else {
-      // Increment the batch id unless the received batch id is -1 (a failover
-      // batch)
-      serverConnection.incrementLatestBatchIdReplied(batchId);
+    return event;
+  }
 
-      writeReply(clientMessage, serverConnection, batchId, numberOfEvents);
-      serverConnection.setAsTrue(RESPONDED);
-      stats.incWriteProcessBatchResponseTime(DistributionStats.getStatTime() - start);
-      if (logger.isDebugEnabled()) {
-        logger.debug(
-            "{}: Sent process batch normal response for batch {} containing {} events ({} bytes) with {} acknowledgement on {}",
-            serverConnection.getName(), batchId, numberOfEvents, clientMessage.getPayloadLength(),
-            "normal", serverConnection.getSocketString());
+  private static int[] toArray(List<Integer> events) {
+    int[] array = new int[events.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = events.get(i);
+    }
+    return array;
+  }
+
+  private static synchronized ExecutorService getApplyPool() {
+    if (applyPool == null) {
+      applyPool = LoggingExecutors.newFixedThreadPoolWithTimeout("GatewayReceiverApplier",
+          APPLY_THREADS, 60);
+    }
+    return applyPool;
+  }
+
+  /**
+   * The outcome of applying the events of a batch, shared by the threads applying them.
+   */
+  private static class BatchApplyState {
+    /** GuardedBy this */
+    final List<BatchException70> exceptions = new ArrayList<>();
+
+    volatile Throwable fatalException;
+
+    volatile boolean cancelled;
+
+    /** GuardedBy this */
+    private int lastModifiedEvent = -1;
+    private String lastModifiedRegion;
+    private Object lastModifiedKey;
+
+    boolean isStopped() {
+      return this.fatalException != null || this.cancelled;
+    }
+
+    synchronized void addException(BatchException70 exception) {
+      this.exceptions.add(exception);
+    }
+
+    /**
+     * Notes that the given event may have modified an entry. The server connection is only told
+     * about the last one, as applying the events in order would.
+     */
+    synchronized void noteModification(int event, String regionName, Object key) {
+      if (event > this.lastModifiedEvent) {
+        this.lastModifiedEvent = event;
+        this.lastModifiedRegion = regionName;
+        this.lastModifiedKey = key;
+      }
+    }
+
+    /** Tells the server connection, on its own thread, about the last modification. */
+    synchronized void setModificationInfo(ServerConnection serverConnection) {
+      if (this.lastModifiedEvent >= 0) {
+        serverConnection.setModificationInfo(true, this.lastModifiedRegion, this.lastModifiedKey);
       }
     }
+
+    /** Orders the exceptions by the index of the failed event, as applying in order would. */
+    synchronized void sortExceptions() {
+      this.exceptions.sort(Comparator.comparingInt(BatchException70::getIndex));
+    }
   }
 
   private boolean addPdxType(CachedRegionHelper crHelper, Object key, Object value)
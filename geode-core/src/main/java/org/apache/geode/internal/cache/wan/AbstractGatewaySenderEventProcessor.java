@@ -133,6 +133,9 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
 
   private volatile boolean resetLastPeekedEvents;
 
+  /** Notified when a dispatched batch has been acknowledged or the batches are redispatched. */
+  private final Object outstandingBatchesLock = new Object();
+
   /**
    * Cumulative count of events dispatched by this event processor.
    */
@@ -366,6 +369,14 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
   protected static final int FAILURE_LOG_MAX_INTERVAL = Integer.getInteger(
       DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.FAILURE_LOG_MAX_INTERVAL", 300000);
 
+  /**
+   * The maximum number of dispatched batches waiting for their acknowledgement before the next
+   * batch is peeked. Batches are acknowledged asynchronously, so up to this many are in flight to
+   * the receiver at a time. Zero or less means no limit.
+   */
+  public static int MAX_OUTSTANDING_BATCHES = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.MAX_OUTSTANDING_BATCHES", 0);
+
   public boolean skipFailureLogging(Integer batchId) {
     boolean skipLogging = false;
     // if map has become large then give up on new events but we don't expect
@@ -464,6 +475,7 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
           // sleep a little bit, look for events
           boolean interrupted = Thread.interrupted();
           try {
+            waitForOutstandingBatches();
             if (resetLastPeekedEvents) {
               resetLastPeekedEvents();
               resetLastPeekedEvents = false;
@@ -982,6 +994,9 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
     final GatewaySenderStats statistics = this.sender.getStatistics();
     statistics.incBatchesRedistributed();
     this.resetLastPeekedEvents = true;
+    synchronized (this.outstandingBatchesLock) {
+      this.outstandingBatchesLock.notifyAll();
+    }
   }
 
   public void handleSuccessBatchAck(int batchId) {
@@ -1014,6 +1029,28 @@ public abstract class AbstractGatewaySenderEventProcessor extends LoggingThread
       }
       eventQueueRemove(events.size());
     }
+    if (MAX_OUTSTANDING_BATCHES > 0) {
+      synchronized (this.outstandingBatchesLock) {
+        this.outstandingBatchesLock.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Waits until fewer than {@link #MAX_OUTSTANDING_BATCHES} dispatched batches are waiting for
+   * their acknowledgement, or the processor stops or has to redispatch the peeked batches.
+   */
+  protected void waitForOutstandingBatches() throws InterruptedException {
+    if (MAX_OUTSTANDING_BATCHES <= 0
+        || this.dispatcher instanceof GatewaySenderEventCallbackDispatcher) {
+      return;
+    }
+    synchronized (this.outstandingBatchesLock) {
+      while (this.batchIdToEventsMap.size() >= MAX_OUTSTANDING_BATCHES && !stopped()
+          && !this.resetLastPeekedEvents) {
+        this.outstandingBatchesLock.wait(100);
+      }
+    }
   }
 
   public void handleUnSuccessBatchAck(int bId) {
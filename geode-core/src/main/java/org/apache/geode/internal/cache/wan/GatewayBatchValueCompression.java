@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import org.apache.geode.compression.Compressor;
+import org.apache.geode.compression.SnappyCompressor;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.Version;
+
+/**
+ * Compression of the serialized values of the events in a gateway batch.
+ *
+ * Each event of a batch carries a one byte flags part, which used to hold only the possible
+ * duplicate flag. A sender with compression enabled compresses the values which are large enough
+ * and shrink when compressed, and marks those events with {@link #VALUE_COMPRESSED}. The receiver
+ * decompresses the marked values before applying them.
+ *
+ * Compression is enabled on the sender with the gemfire.GatewaySender.COMPRESS_BATCH_VALUES system
+ * property. Receivers which do not know about the flag would misread compressed values, so values
+ * are only compressed in batches sent to sites running {@link #MIN_RECEIVER_VERSION} or later.
+ */
+public class GatewayBatchValueCompression {
+
+  public static final boolean COMPRESS_BATCH_VALUES =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.COMPRESS_BATCH_VALUES");
+
+  /** The size below which values are sent uncompressed. */
+  public static final int MIN_COMPRESSED_VALUE_SIZE = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.MIN_COMPRESSED_VALUE_SIZE", 256);
+
+  /** The first version whose receivers understand {@link #VALUE_COMPRESSED}. */
+  public static final Version MIN_RECEIVER_VERSION = Version.GEODE_190;
+
+  /** Flag of the event flags part set if the event may have been sent before. */
+  public static final byte POSSIBLE_DUPLICATE = 0x01;
+
+  /** Flag of the event flags part set if the value of the event is compressed. */
+  public static final byte VALUE_COMPRESSED = 0x02;
+
+  private static final Compressor compressor = new SnappyCompressor();
+
+  private GatewayBatchValueCompression() {
+    // no instances allowed
+  }
+
+  /**
+   * Returns true if values should be compressed in batches sent to a site running the given
+   * version.
+   */
+  public static boolean isEnabledFor(short wanSiteVersion) {
+    return COMPRESS_BATCH_VALUES && isUnderstoodBy(wanSiteVersion);
+  }
+
+  /**
+   * Returns true if receivers running the given version understand compressed values.
+   */
+  static boolean isUnderstoodBy(short wanSiteVersion) {
+    return MIN_RECEIVER_VERSION.compareTo(wanSiteVersion) <= 0;
+  }
+
+  /**
+   * Returns the compressed form of the given serialized value, or null if it should be sent as is
+   * because it is too small or does not shrink.
+   */
+  public static byte[] compress(byte[] value) {
+    if (value == null || value.length < MIN_COMPRESSED_VALUE_SIZE) {
+      return null;
+    }
+    byte[] compressed = compressor.compress(value);
+    return compressed.length < value.length ? compressed : null;
+  }
+
+  public static byte[] decompress(byte[] compressed) {
+    return compressor.decompress(compressed);
+  }
+}
@@ -42,6 +42,7 @@ import org.apache.geode.internal.cache.EventID;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.cache.WrappedCallbackArgument;
+import org.apache.geode.internal.offheap.MemoryAllocator;
 import org.apache.geode.internal.offheap.OffHeapHelper;
 import org.apache.geode.internal.offheap.ReferenceCountHelper;
 import org.apache.geode.internal.offheap.Releasable;
@@ -610,7 +611,8 @@ public class GatewaySenderEventImpl
   /**
    * If the value owned of this event is just bytes return that byte array; otherwise serialize the
    * value object and return the serialized bytes. Use {@link #getValueIsObject()} to determine if
-   * the result is raw or serialized bytes.
+   * the result is raw or serialized bytes. A value stored off-heap is copied to the heap on each
+   * call and the copy is not kept by this event, so that the value of a queued event stays off-heap.
    */
   public byte[] getSerializedValue() {
     byte[] result = this.value;
@@ -628,9 +630,13 @@ public class GatewaySenderEventImpl
         synchronized (this) {
           result = this.value;
           if (result == null) {
+            if (this.valueObjReleased) {
+              this.serializedValueNotAvailable = true;
+              throw new IllegalStateException(
+                  "Value is no longer available. getSerializedValue must be called before processEvents returns.");
+            }
             StoredObject so = (StoredObject) vo;
             result = so.getValueAsHeapByteArray();
-            this.value = result;
           }
         }
       } else {
@@ -681,7 +687,7 @@ public class GatewaySenderEventImpl
     DataSerializer.writeString(this.regionPath, out);
     out.writeByte(this.valueIsObject);
     serializeKey(out);
-    DataSerializer.writeByteArray(getSerializedValue(), out);
+    serializeValue(out);
     DataSerializer.writeObject(this.callbackArgument, out);
     out.writeBoolean(this.possibleDuplicate);
     out.writeLong(this.creationTime);
@@ -694,6 +700,30 @@ public class GatewaySenderEventImpl
     DataSerializer.writeObject(this.key, out);
   }
 
+  /**
+   * Writes the serialized value. A value stored off-heap is written directly from off-heap memory,
+   * without caching a heap copy of it in this event as {@link #getSerializedValue()} does, so that
+   * distributing the event to the secondary queues does not bring the value back onto the heap.
+   */
+  private void serializeValue(DataOutput out) throws IOException {
+    if (this.value == null && this.substituteValue == null) {
+      @Retained(OffHeapIdentifier.GATEWAY_SENDER_EVENT_IMPL_VALUE)
+      Object vo = getRawValue();
+      if (vo instanceof StoredObject) {
+        StoredObject so = (StoredObject) vo;
+        try {
+          so.sendAsByteArray(out);
+        } finally {
+          if (so.hasRefCount()) {
+            so.release();
+          }
+        }
+        return;
+      }
+    }
+    DataSerializer.writeByteArray(getSerializedValue(), out);
+  }
+
   public void fromData(DataInput in) throws IOException, ClassNotFoundException {
     short version = in.readShort();
     if (version != VERSION) {
@@ -1067,7 +1097,7 @@ public class GatewaySenderEventImpl
     // The hardcoded value below was estimated using a NullDataOutputStream
     size += Sizeable.PER_OBJECT_OVERHEAD + 56;
 
-    // The value (a byte[])
+    // The value (a byte[], or the off-heap memory holding it)
     size += getSerializedValueSize();
 
     // The callback argument (a GatewayEventCallbackArgument wrapping an Object
@@ -1213,6 +1243,46 @@ public class GatewaySenderEventImpl
     }
   }
 
+  /**
+   * Moves the serialized value of this event from the heap to off-heap memory, where it is retained
+   * by this event until the event is released. Nothing is done if the value is not held on the heap
+   * in serialized form, if there is no off-heap memory, if storing the value would leave less than
+   * the given percentage of the off-heap memory free, or if there is no free chunk large enough for
+   * it. Failing to store the value never treats the off-heap memory as exhausted.
+   *
+   * @return true if the value was moved
+   */
+  public boolean storeValueOffHeap(int minFreePercent) {
+    byte[] heapValue = this.value;
+    if (heapValue == null || this.valueObj != null || this.substituteValue != null) {
+      return false;
+    }
+    MemoryAllocator allocator = this.region.getCache().getOffHeapStore();
+    if (allocator == null || allocator.getFreeMemory()
+        - heapValue.length < allocator.getTotalMemory() / 100 * minFreePercent) {
+      return false;
+    }
+    @Retained(OffHeapIdentifier.GATEWAY_SENDER_EVENT_IMPL_VALUE)
+    StoredObject so;
+    ReferenceCountHelper.setReferenceCountOwner(this);
+    try {
+      // the value stays on the heap if fragmentation leaves no chunk large enough for it
+      so = allocator.tryAllocateAndInitialize(heapValue, this.valueIsObject == 0x01, false);
+    } finally {
+      ReferenceCountHelper.setReferenceCountOwner(null);
+    }
+    if (so == null) {
+      return false;
+    }
+    synchronized (this) {
+      this.valueObj = so;
+      this.value = null;
+      // the size of the heap form may have been computed already
+      this.serializedValueSize = DEFAULT_SERIALIZED_VALUE_SIZE;
+    }
+    return true;
+  }
+
   protected GatewaySenderEventImpl makeCopy() {
     return new GatewaySenderEventImpl(this);
   }
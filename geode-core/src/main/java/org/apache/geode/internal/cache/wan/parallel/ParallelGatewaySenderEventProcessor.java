@@ -25,6 +25,7 @@ import org.apache.geode.cache.CacheException;
 import org.apache.geode.cache.EntryEvent;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.wan.GatewayQueueEvent;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.cache.Conflatable;
 import org.apache.geode.internal.cache.DistributedRegion;
 import org.apache.geode.internal.cache.EntryEventImpl;
@@ -43,6 +44,21 @@ public class ParallelGatewaySenderEventProcessor extends AbstractGatewaySenderEv
 
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * Whether the values of the events queued by this processor are moved to off-heap memory, so
+   * that a large backlog does not fill the heap. Values of off-heap regions are already shared off
+   * heap with the region.
+   */
+  static final boolean STORE_VALUES_OFF_HEAP = Boolean
+      .getBoolean(DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.STORE_QUEUE_VALUES_OFF_HEAP");
+
+  /**
+   * The percentage of the off-heap memory which is kept free for the regions. Event values which
+   * would not leave that much free memory are kept on the heap.
+   */
+  static final int OFF_HEAP_MIN_FREE_PERCENT = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "GatewaySender.QUEUE_OFF_HEAP_MIN_FREE_PERCENT", 20);
+
   final int index;
   final int nDispatcher;
 
@@ -114,6 +130,9 @@ public class ParallelGatewaySenderEventProcessor extends AbstractGatewaySenderEv
     // change 42466). bucketID is merged with eventID.getBucketID
     gatewayQueueEvent =
         new GatewaySenderEventImpl(operation, event, substituteValue, true, eventID.getBucketID());
+    if (STORE_VALUES_OFF_HEAP) {
+      gatewayQueueEvent.storeValueOffHeap(OFF_HEAP_MIN_FREE_PERCENT);
+    }
 
     enqueueEvent(gatewayQueueEvent);
   }
@@ -192,9 +192,27 @@ public class FreeListManager {
    */
   @SuppressWarnings("synthetic-access")
   public OffHeapStoredObject allocate(int size) {
+    OffHeapStoredObject result = tryAllocate(size);
+    if (result == null) {
+      throw outOfOffHeapMemory(size);
+    }
+    return result;
+  }
+
+  /**
+   * Allocate a chunk of memory of at least the given size like {@link #allocate(int)}, but do not
+   * report the off-heap memory as exhausted if there is no free chunk large enough.
+   *
+   * @param size minimum bytes the returned chunk must have.
+   * @return the allocated chunk, or null if a chunk can not be allocated.
+   */
+  public OffHeapStoredObject tryAllocate(int size) {
     assert size > 0;
 
     OffHeapStoredObject result = basicAllocate(size, true);
+    if (result == null) {
+      return null;
+    }
 
     result.setDataSize(size);
     this.allocatedSize.addAndGet(result.getSize());
@@ -235,14 +253,21 @@ public class FreeListManager {
       }
     } while (defragment(chunkSize));
     // We tried all the fragments and didn't find any free memory.
-    logOffHeapState(chunkSize);
+    return null;
+  }
+
+  /**
+   * Logs the state of the off-heap memory and notifies the OutOfOffHeapMemoryListener that a chunk
+   * of the given size could not be allocated.
+   *
+   * @return the exception to throw
+   */
+  private OutOfOffHeapMemoryException outOfOffHeapMemory(int size) {
+    logOffHeapState(size);
     final OutOfOffHeapMemoryException failure = new OutOfOffHeapMemoryException(
-        "Out of off-heap memory. Could not allocate size of " + chunkSize);
-    try {
-      throw failure;
-    } finally {
-      this.ma.getOutOfOffHeapMemoryListener().outOfOffHeapMemory(failure);
-    }
+        "Out of off-heap memory. Could not allocate size of " + size);
+    this.ma.getOutOfOffHeapMemoryListener().outOfOffHeapMemory(failure);
+    return failure;
   }
 
   private void logOffHeapState(int chunkSize) {
@@ -54,6 +54,19 @@ public interface MemoryAllocator {
   StoredObject allocateAndInitialize(byte[] data, boolean isSerialized, boolean isCompressed,
       byte[] originalHeapData);
 
+  /**
+   * Allocates off heap memory for the given data like
+   * {@link #allocateAndInitialize(byte[], boolean, boolean)}, but returns null instead of treating
+   * the off heap memory as exhausted if the heap does not have enough memory to grant the request.
+   *
+   * @param data the bytes of the data to put in the allocated StoredObject
+   * @param isSerialized true if data contains a serialized object; false if it is an actual byte
+   *        array.
+   * @param isCompressed true if data is compressed; false if it is uncompressed.
+   * @return the allocated StoredObject, or null if there is not enough memory for it
+   */
+  StoredObject tryAllocateAndInitialize(byte[] data, boolean isSerialized, boolean isCompressed);
+
   long getFreeMemory();
 
   long getUsedMemory();
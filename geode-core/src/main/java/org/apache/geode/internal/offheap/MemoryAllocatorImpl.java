@@ -292,7 +292,18 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
   }
 
   private OffHeapStoredObject allocateOffHeapStoredObject(int size) {
-    OffHeapStoredObject result = this.freeList.allocate(size);
+    return allocated(this.freeList.allocate(size));
+  }
+
+  private OffHeapStoredObject tryAllocateOffHeapStoredObject(int size) {
+    OffHeapStoredObject result = this.freeList.tryAllocate(size);
+    if (result == null) {
+      return null;
+    }
+    return allocated(result);
+  }
+
+  private OffHeapStoredObject allocated(OffHeapStoredObject result) {
     int resultSize = result.getSize();
     stats.incObjects(1);
     stats.incUsedMemory(resultSize);
@@ -326,6 +337,23 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
     return allocateAndInitialize(v, isSerialized, isCompressed, null);
   }
 
+  @Override
+  public StoredObject tryAllocateAndInitialize(byte[] v, boolean isSerialized,
+      boolean isCompressed) {
+    long addr = OffHeapRegionEntryHelper.encodeDataAsAddress(v, isSerialized, isCompressed);
+    if (addr != 0L) {
+      return new TinyStoredObject(addr);
+    }
+    OffHeapStoredObject result = tryAllocateOffHeapStoredObject(v.length);
+    if (result == null) {
+      return null;
+    }
+    result.setSerializedValue(v);
+    result.setSerialized(isSerialized);
+    result.setCompressed(isCompressed);
+    return result;
+  }
+
   @Override
   public StoredObject allocateAndInitialize(byte[] v, boolean isSerialized, boolean isCompressed,
       byte[] originalHeapData) {
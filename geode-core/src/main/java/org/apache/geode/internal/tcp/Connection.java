@@ -214,6 +214,23 @@ public class Connection implements Runnable {
   /** output stream/channel lock */
   private final Object outLock = new Object();
 
+  /**
+   * If true then a small message sent while another thread is writing to the channel is copied into
+   * a buffer which the writing thread sends, together with any other messages queued meanwhile, in
+   * one write once it is done with its own message. The sender waits for that write. An
+   * uncontended message is written immediately.
+   */
+  private static final boolean COALESCE_WRITES = Boolean.getBoolean("p2p.coalesceWrites");
+
+  /** The size of the buffers messages are coalesced in. Larger messages are written alone. */
+  private static final int COALESCE_BUFFER_SIZE =
+      Integer.getInteger("p2p.coalesceBufferSize", 64 * 1024).intValue();
+
+  /** coalesces the small messages written while another thread writes to the channel */
+  private final WriteCoalescer writeCoalescer =
+      COALESCE_WRITES ? new WriteCoalescer(COALESCE_BUFFER_SIZE, TCPConduit.useDirectBuffers)
+          : null;
+
   /** the ID string of the conduit (for logging) */
   String conduitIdStr;
 
@@ -3263,6 +3280,10 @@ public class Connection implements Runnable {
         }
         // fall through
       }
+      if (COALESCE_WRITES && !this.asyncQueuingInProgress
+          && this.writeCoalescer.coalesce(buffer)) {
+        return;
+      }
       long startLock = stats.startSocketLock();
       synchronized (this.outLock) {
         stats.endSocketLock(startLock);
@@ -3272,23 +3293,30 @@ public class Connection implements Runnable {
           }
           // fall through
         }
-        do {
-          int amtWritten = 0;
-          long start = stats.startSocketWrite(true);
-          try {
-            // this.writerThread = Thread.currentThread();
-            amtWritten = channel.write(buffer);
-          } finally {
-            stats.endSocketWrite(true, start, amtWritten, 0);
-            // this.writerThread = null;
-          }
-        } while (buffer.remaining() > 0);
+        if (COALESCE_WRITES) {
+          this.writeCoalescer.write(buffer, toWrite -> writeBuffer(channel, toWrite, stats));
+        } else {
+          writeBuffer(channel, buffer, stats);
+        }
       } // synchronized
     } else {
       writeAsync(channel, buffer, forceAsync, msg, stats);
     }
   }
 
+  private void writeBuffer(SocketChannel channel, ByteBuffer buffer, DMStats stats)
+      throws IOException {
+    do {
+      int amtWritten = 0;
+      long start = stats.startSocketWrite(true);
+      try {
+        amtWritten = channel.write(buffer);
+      } finally {
+        stats.endSocketWrite(true, start, amtWritten, 0);
+      }
+    } while (buffer.remaining() > 0);
+  }
+
   /** gets the buffer for receiving message length bytes */
   protected ByteBuffer getNIOBuffer() {
     final DMStats stats = this.owner.getConduit().getStats();
@@ -68,6 +68,16 @@ public class ConnectionTable {
    */
   private static ThreadLocal threadWantsOwnResources = new ThreadLocal();
 
+  /**
+   * The number of thread owned connections to a member above which further threads send their
+   * ordered messages to it over the shared ordered connection instead of creating their own. Each
+   * thread owned connection costs a socket on both members and a reader thread on the receiver.
+   * The limit is approximate since threads connecting concurrently may exceed it. Zero means no
+   * limit.
+   */
+  static int MAX_THREAD_OWNED_CONNECTIONS =
+      Integer.getInteger("p2p.maxThreadOwnedConnections", 0);
+
   /**
    * Used for messages whose order must be preserved Only connections used for sending messages, and
    * receiving acks, will be put in this map.
@@ -81,6 +91,13 @@ public class ConnectionTable {
   // ThreadLocal<Map>
   protected final ThreadLocal<Map> threadOrderedConnMap;
 
+  /**
+   * The members the current thread sends its ordered messages to over the shared ordered
+   * connection because they had reached {@link #MAX_THREAD_OWNED_CONNECTIONS}.
+   */
+  private final ThreadLocal<Set<DistributedMember>> threadSharedOrderedMembers =
+      ThreadLocal.withInitial(HashSet::new);
+
   /**
    * List of thread-owned ordered connection maps, for cleanup
    *
@@ -472,6 +489,10 @@ public class ConnectionTable {
     if (result != null)
       return result;
 
+    if (MAX_THREAD_OWNED_CONNECTIONS > 0 && useSharedOrderedConnection(id)) {
+      return getSharedConnection(id, true, true, startTime, ackTimeout, ackSATimeout);
+    }
+
     // OK, we have to create a new connection.
     result = Connection.createSender(owner.getMembershipManager(), this, true /* preserveOrder */,
         id, false /* shared */, startTime, ackTimeout, ackSATimeout);
@@ -518,6 +539,35 @@ public class ConnectionTable {
     return result;
   }
 
+  /**
+   * Returns true if the current thread has to send its ordered messages to the given member over
+   * the shared ordered connection because the member has reached the maximum number of thread owned
+   * connections. Once a thread uses the shared connection it keeps using it, so that its messages
+   * are not reordered by moving to a connection of its own.
+   */
+  boolean useSharedOrderedConnection(DistributedMember id) {
+    Set<DistributedMember> sharedOrderedMembers = this.threadSharedOrderedMembers.get();
+    if (sharedOrderedMembers.contains(id)) {
+      return true;
+    }
+    ConcurrentMap cm = this.threadConnectionMap;
+    ArrayList al = cm == null ? null : (ArrayList) cm.get(id);
+    if (al == null) {
+      return false;
+    }
+    synchronized (al) {
+      if (al.size() < MAX_THREAD_OWNED_CONNECTIONS) {
+        return false;
+      }
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("ConnectionTable: {} has {} thread owned connections, using the shared one", id,
+          MAX_THREAD_OWNED_CONNECTIONS);
+    }
+    sharedOrderedMembers.add(id);
+    return true;
+  }
+
   /** schedule an idle-connection timeout task */
   private void scheduleIdleTimeout(Connection conn) {
     if (conn == null) {
@@ -988,6 +1038,7 @@ public class ConnectionTable {
         } // while
       } // synchronized m
     }
+    this.threadSharedOrderedMembers.remove();
   }
 
   public static void releaseThreadsSockets() {
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Coalesces the small messages written to a {@link Connection} while another thread is writing to
+ * its channel. A sender whose message is coalesced copies it into a buffer and waits for the
+ * writing thread to send it, together with the other messages queued meanwhile, in one write. The
+ * sender learns the outcome of that write: if it fails the queued messages are discarded and every
+ * sender waiting for them gets the failure.
+ */
+class WriteCoalescer {
+
+  /** Writes a buffer to the channel of the connection */
+  interface ChannelWriter {
+    void write(ByteBuffer buffer) throws IOException;
+  }
+
+  /** The outcome of one write of coalesced messages */
+  private static class CoalescedWrite {
+    /** guarded by {@link WriteCoalescer#lock} */
+    boolean done;
+
+    /** guarded by {@link WriteCoalescer#lock} */
+    Throwable failure;
+  }
+
+  private final int bufferSize;
+
+  private final boolean directBuffers;
+
+  /** guards the fields below */
+  private final Object lock = new Object();
+
+  /** true while a thread writes to the channel through {@link #write} */
+  private boolean writerActive;
+
+  /** the messages waiting for the active writer to send them */
+  private ByteBuffer queued;
+
+  /** the outcome of sending {@link #queued}, or null if nothing is queued */
+  private CoalescedWrite queuedWrite;
+
+  /** the buffer the active writer sends coalesced messages from */
+  private ByteBuffer sendBuffer;
+
+  WriteCoalescer(int bufferSize, boolean directBuffers) {
+    this.bufferSize = bufferSize;
+    this.directBuffers = directBuffers;
+  }
+
+  /**
+   * Copies the given message into the queued messages if another thread is writing to the channel,
+   * and waits for that thread to send it.
+   *
+   * @return true if the message was sent, false if the caller has to write it
+   * @throws IOException if the write of the queued messages failed
+   */
+  boolean coalesce(ByteBuffer buffer) throws IOException {
+    if (buffer.remaining() > this.bufferSize) {
+      return false;
+    }
+    CoalescedWrite write;
+    synchronized (this.lock) {
+      if (!this.writerActive) {
+        return false;
+      }
+      if (this.queued == null) {
+        this.queued = allocateBuffer();
+      }
+      if (this.queued.remaining() < buffer.remaining()) {
+        return false;
+      }
+      this.queued.put(buffer);
+      if (this.queuedWrite == null) {
+        this.queuedWrite = new CoalescedWrite();
+      }
+      write = this.queuedWrite;
+      boolean interrupted = false;
+      try {
+        // the message is in the buffer now, so we have to stay for the outcome
+        while (!write.done) {
+          try {
+            this.lock.wait();
+          } catch (InterruptedException e) {
+            interrupted = true;
+          }
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      if (write.failure != null) {
+        throw new IOException("Write of coalesced messages failed", write.failure);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes the given message, the messages queued before it, and the messages queued while it is
+   * written. The caller must hold the lock that serializes writes to the channel. If a write fails
+   * the messages still queued are discarded and their senders get the failure.
+   */
+  void write(ByteBuffer buffer, ChannelWriter writer) throws IOException {
+    synchronized (this.lock) {
+      this.writerActive = true;
+    }
+    try {
+      // messages queued before this one may have come from this thread
+      writeQueued(writer, false);
+      writer.write(buffer);
+      writeQueued(writer, true);
+    } catch (IOException | RuntimeException | Error e) {
+      synchronized (this.lock) {
+        this.writerActive = false;
+        if (this.queued != null) {
+          this.queued.clear();
+        }
+        complete(this.queuedWrite, e);
+        this.queuedWrite = null;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Sends the queued messages until there are none left.
+   *
+   * @param done true if the caller is done writing, in which case it stops being the active writer
+   *        when there is nothing left to send
+   */
+  private void writeQueued(ChannelWriter writer, boolean done) throws IOException {
+    while (true) {
+      ByteBuffer toSend;
+      CoalescedWrite write;
+      synchronized (this.lock) {
+        if (this.queuedWrite == null) {
+          if (done) {
+            // nothing can be queued for us from now on
+            this.writerActive = false;
+          }
+          return;
+        }
+        if (this.sendBuffer == null) {
+          this.sendBuffer = allocateBuffer();
+        }
+        toSend = this.queued;
+        this.queued = this.sendBuffer;
+        this.sendBuffer = toSend;
+        write = this.queuedWrite;
+        this.queuedWrite = null;
+      }
+      toSend.flip();
+      Throwable failure = null;
+      try {
+        writer.write(toSend);
+      } catch (IOException | RuntimeException | Error e) {
+        failure = e;
+        throw e;
+      } finally {
+        toSend.clear();
+        synchronized (this.lock) {
+          complete(write, failure);
+        }
+      }
+    }
+  }
+
+  /** Must be called while holding {@link #lock} */
+  private void complete(CoalescedWrite write, Throwable failure) {
+    if (write != null) {
+      write.failure = failure;
+      write.done = true;
+      this.lock.notifyAll();
+    }
+  }
+
+  /** Returns the number of bytes waiting to be sent. Used by tests. */
+  int getQueuedBytes() {
+    synchronized (this.lock) {
+      return this.queued == null ? 0 : this.queued.position();
+    }
+  }
+
+  private ByteBuffer allocateBuffer() {
+    if (this.directBuffers) {
+      return ByteBuffer.allocateDirect(this.bufferSize);
+    } else {
+      return ByteBuffer.allocate(this.bufferSize);
+    }
+  }
+}
@@ -163,8 +163,12 @@ public class CopyOnWriteHashMap<K, V> extends AbstractMap<K, V>
     return clone;
   }
 
+  /**
+   * Returns an unmodifiable snapshot of the current contents of this map. The same snapshot is
+   * returned until this map is next modified.
+   */
   public Map<K, V> getSnapshot() {
-    return Collections.unmodifiableMap(map);
+    return map;
   }
 
   @Override
@@ -111,6 +111,9 @@ public class JSONFormatter {
     NONE, OBJECT_START, FIELD_NAME, SCALAR_FOUND, LIST_FOUND, LIST_ENDS, OBJECT_ENDS
   }
 
+  // factories are thread safe and expensive to create
+  private static final JsonFactory jsonFactory = new JsonFactory();
+
   private RegionService regionService;
 
   public JSONFormatter() {}
@@ -158,10 +161,10 @@ public class JSONFormatter {
     JsonParser jp = null;
     try {
       if (json instanceof String) {
-        jp = new JsonFactory().createParser((String) json);
+        jp = jsonFactory.createParser((String) json);
 
       } else if (json instanceof byte[]) {
-        jp = new JsonFactory().createParser((byte[]) json);
+        jp = jsonFactory.createParser((byte[]) json);
       } else {
         throw new JSONFormatterException("Could not parse the " + json.getClass() + " type");
       }
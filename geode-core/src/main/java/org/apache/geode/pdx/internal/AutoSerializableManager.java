@@ -17,6 +17,9 @@ package org.apache.geode.pdx.internal;
 import java.io.Externalizable;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -452,7 +455,7 @@ public class AutoSerializableManager {
     return FieldType.get(f.getType());
   }
 
-  private static class FieldWrapper {
+  static class FieldWrapper {
     private final Field field;
 
     public FieldWrapper(Field f) {
@@ -650,6 +653,219 @@ public class AutoSerializableManager {
     }
   }
 
+  /**
+   * Accesses a field through method handles, which the JIT compiles like a direct field access,
+   * instead of through reflection. Used when Unsafe is not.
+   */
+  static class MethodHandleFieldWrapper extends FieldWrapper {
+    /** reads the field as its own type, or as Object for reference fields */
+    private final MethodHandle getter;
+    /** writes the field as its own type, or as Object for reference fields */
+    private final MethodHandle setter;
+    /** reads the field boxed */
+    private final MethodHandle objectGetter;
+    /** writes the field from a boxed value */
+    private final MethodHandle objectSetter;
+
+    /**
+     * Returns a wrapper using method handles for the given accessible field, or a reflective
+     * wrapper if the field can not be written through a method handle, as is the case for final
+     * fields.
+     */
+    static FieldWrapper create(Field f) {
+      try {
+        return new MethodHandleFieldWrapper(f);
+      } catch (IllegalAccessException e) {
+        return new FieldWrapper(f);
+      }
+    }
+
+    private MethodHandleFieldWrapper(Field f) throws IllegalAccessException {
+      super(f);
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      MethodHandle get = lookup.unreflectGetter(f);
+      MethodHandle set = lookup.unreflectSetter(f);
+      Class<?> type = f.getType().isPrimitive() ? f.getType() : Object.class;
+      this.getter = get.asType(MethodType.methodType(type, Object.class));
+      this.setter = set.asType(MethodType.methodType(void.class, Object.class, type));
+      this.objectGetter = get.asType(MethodType.methodType(Object.class, Object.class));
+      this.objectSetter =
+          set.asType(MethodType.methodType(void.class, Object.class, Object.class));
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+      if (t instanceof RuntimeException) {
+        return (RuntimeException) t;
+      }
+      if (t instanceof Error) {
+        throw (Error) t;
+      }
+      return new IllegalArgumentException(t);
+    }
+
+    @Override
+    public int getInt(Object o) {
+      try {
+        return (int) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setInt(Object o, int v) {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public boolean getBoolean(Object o) {
+      try {
+        return (boolean) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setBoolean(Object o, boolean v) {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public byte getByte(Object o) {
+      try {
+        return (byte) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setByte(Object o, byte v) {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public short getShort(Object o) {
+      try {
+        return (short) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setShort(Object o, short v) {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public char getChar(Object o) {
+      try {
+        return (char) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setChar(Object o, char v) {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public long getLong(Object o) {
+      try {
+        return (long) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setLong(Object o, long v) {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public float getFloat(Object o) {
+      try {
+        return (float) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setFloat(Object o, float v) {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public double getDouble(Object o) {
+      try {
+        return (double) this.getter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setDouble(Object o, double v) {
+      try {
+        this.setter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public Object getObject(Object o) {
+      try {
+        return this.objectGetter.invokeExact(o);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+
+    @Override
+    public void setObject(Object o, Object v) {
+      try {
+        this.objectSetter.invokeExact(o, v);
+      } catch (Throwable t) {
+        throw rethrow(t);
+      }
+    }
+  }
+
   // unsafe will be null if the Unsafe class is not available or SAFE was requested.
   // We attempt to use Unsafe by default for best performance.
   private static final UnsafeWrapper unsafe;
@@ -686,7 +902,7 @@ public class AutoSerializableManager {
       if (unsafe != null) {
         tmp = new UnsafeFieldWrapper(f);
       } else {
-        tmp = new FieldWrapper(f);
+        tmp = MethodHandleFieldWrapper.create(f);
       }
       this.field = tmp;
       this.fieldName = name;
@@ -896,18 +896,12 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
   private PdxString getPdxStringFromObjectField(PdxField ft) {
     if (ft.getFieldType() == FieldType.OBJECT) {
       ByteSource buffer = dis.getBuffer();
-      byte[] bytes = null;
-      if (buffer.hasArray()) {
-        bytes = buffer.array();
-      } else {
-        throw new IllegalStateException();
-      }
-      int offset = getPositionForField(ft) + buffer.arrayOffset();
+      int position = getPositionForField(ft);
+      byte header = buffer.get(position);
       // Do not create PdxString if the field is NULL
-      if (bytes[offset] == DSCODE.STRING.toByte() || bytes[offset] == DSCODE.STRING_BYTES.toByte()
-          || bytes[offset] == DSCODE.HUGE_STRING.toByte()
-          || bytes[offset] == DSCODE.HUGE_STRING_BYTES.toByte()) {
-        return new PdxString(bytes, offset);
+      if (header == DSCODE.STRING.toByte() || header == DSCODE.STRING_BYTES.toByte()
+          || header == DSCODE.HUGE_STRING.toByte() || header == DSCODE.HUGE_STRING_BYTES.toByte()) {
+        return createPdxString(buffer, position);
       }
     }
     return null;
@@ -918,17 +912,24 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
    */
   public PdxString readPdxString(PdxField ft) {
     ByteSource buffer = dis.getBuffer();
-    byte[] bytes = null;
-    if (buffer.hasArray()) {
-      bytes = buffer.array();
-    } else {
-      throw new IllegalStateException();
-    }
-    int offset = getPositionForField(ft) + buffer.arrayOffset();
+    int position = getPositionForField(ft);
+    byte header = buffer.get(position);
     // Do not create PdxString if the field is NULL
-    if (bytes[offset] == DSCODE.NULL.toByte() || bytes[offset] == DSCODE.NULL_STRING.toByte()) {
+    if (header == DSCODE.NULL.toByte() || header == DSCODE.NULL_STRING.toByte()) {
       return null;
     }
-    return new PdxString(bytes, offset);
+    return createPdxString(buffer, position);
+  }
+
+  /**
+   * Creates a PdxString for the serialized string at the given position. If the PDX is read from
+   * off-heap memory or a direct buffer only the string is copied onto the heap, not the whole
+   * value.
+   */
+  private PdxString createPdxString(ByteSource buffer, int position) {
+    if (buffer.hasArray()) {
+      return new PdxString(buffer.array(), position + buffer.arrayOffset());
+    }
+    return new PdxString(dis.readString(position));
   }
 }
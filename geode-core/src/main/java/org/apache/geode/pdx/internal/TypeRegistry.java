@@ -238,8 +238,13 @@ public class TypeRegistry {
       defineType(newType);
       this.localTypeIds.put(o.getClass(), newType);
     } else {
-      // Defining a type for PdxInstanceFactory.
-      defineType(newType);
+      // Defining a type for PdxInstanceFactory. Instances of the same shape, such as JSON
+      // documents with the same fields, share the registered type instead of each keeping its own.
+      int id = defineType(newType);
+      PdxType existingType = this.idToType.get(id);
+      if (existingType != null) {
+        return existingType;
+      }
     }
 
     return newType;
@@ -34,6 +34,8 @@ import org.apache.geode.pdx.JSONFormatter;
 import org.apache.geode.pdx.PdxInstance;
 import org.apache.geode.pdx.internal.EnumInfo;
 import org.apache.geode.pdx.internal.EnumInfo.PdxInstanceEnumInfo;
+import org.apache.geode.pdx.internal.PdxField;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
 
 /*
  * This class converts a PdxInstance into a JSON document.
@@ -41,6 +43,10 @@ import org.apache.geode.pdx.internal.EnumInfo.PdxInstanceEnumInfo;
 public class PdxToJSON {
   public static boolean PDXTOJJSON_UNQUOTEFIELDNAMES =
       Boolean.getBoolean("pdxToJson.unQuoteFieldNames");
+
+  // factories are thread safe and expensive to create
+  private static final JsonFactory jsonFactory = new JsonFactory();
+
   private PdxInstance m_pdxInstance;
 
   public PdxToJSON(PdxInstance pdx) {
@@ -48,11 +54,9 @@ public class PdxToJSON {
   }
 
   public String getJSON() {
-    JsonFactory jf = new JsonFactory();
-    // OutputStream os = new ByteArrayOutputStream();
     HeapDataOutputStream hdos = new HeapDataOutputStream(org.apache.geode.internal.Version.CURRENT);
     try {
-      JsonGenerator jg = jf.createJsonGenerator(hdos, JsonEncoding.UTF8);
+      JsonGenerator jg = jsonFactory.createJsonGenerator(hdos, JsonEncoding.UTF8);
       enableDisableJSONGeneratorFeature(jg);
       getJSONString(jg, m_pdxInstance);
       jg.close();
@@ -65,10 +69,9 @@ public class PdxToJSON {
   }
 
   public byte[] getJSONByteArray() {
-    JsonFactory jf = new JsonFactory();
     HeapDataOutputStream hdos = new HeapDataOutputStream(org.apache.geode.internal.Version.CURRENT);
     try {
-      JsonGenerator jg = jf.createJsonGenerator(hdos, JsonEncoding.UTF8);
+      JsonGenerator jg = jsonFactory.createJsonGenerator(hdos, JsonEncoding.UTF8);
       enableDisableJSONGeneratorFeature(jg);
       getJSONString(jg, m_pdxInstance);
       jg.close();
@@ -167,6 +170,12 @@ public class PdxToJSON {
       throws JsonGenerationException, IOException {
     jg.writeStartObject();
 
+    if (pdxInstance.getClass() == PdxInstanceImpl.class) {
+      writeFields(jg, (PdxInstanceImpl) pdxInstance);
+      jg.writeEndObject();
+      return null;
+    }
+
     List<String> pdxFields = pdxInstance.getFieldNames();
 
     for (String pf : pdxFields) {
@@ -178,6 +187,46 @@ public class PdxToJSON {
     return null;
   }
 
+  /**
+   * Writes the fields of the instance in the order of its type. Fixed width fields are read
+   * straight from the serialized form into the generator, without boxing their values.
+   */
+  private void writeFields(JsonGenerator jg, PdxInstanceImpl pdxInstance) throws IOException {
+    for (PdxField field : pdxInstance.getPdxType().getFields()) {
+      if (field.isDeleted()) {
+        continue;
+      }
+      String pf = field.getFieldName();
+      jg.writeFieldName(pf);
+      switch (field.getFieldType()) {
+        case BOOLEAN:
+          jg.writeBoolean(pdxInstance.readBoolean(field));
+          break;
+        case BYTE:
+          jg.writeNumber(pdxInstance.readByte(field));
+          break;
+        case SHORT:
+          jg.writeNumber(pdxInstance.readShort(field));
+          break;
+        case INT:
+          jg.writeNumber(pdxInstance.readInt(field));
+          break;
+        case LONG:
+          jg.writeNumber(pdxInstance.readLong(field));
+          break;
+        case FLOAT:
+          jg.writeNumber(pdxInstance.readFloat(field));
+          break;
+        case DOUBLE:
+          jg.writeNumber(pdxInstance.readDouble(field));
+          break;
+        default:
+          writeValue(jg, pdxInstance.getField(pf), pf);
+          break;
+      }
+    }
+  }
+
   private void getJSONStringFromArray(JsonGenerator jg, Object value, String pf)
       throws JsonGenerationException, IOException {
 
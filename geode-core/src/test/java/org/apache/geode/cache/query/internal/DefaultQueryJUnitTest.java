@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.apache.geode.cache.query.internal.DefaultQuery.normalizeQueryString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.InternalCache;
+
+public class DefaultQueryJUnitTest {
+
+  @After
+  public void tearDown() {
+    DefaultQuery.queryCanceled.remove();
+  }
+
+  @Test
+  public void normalizeCollapsesWhitespace() {
+    assertThat(normalizeQueryString("  select *\n\tfrom /portfolios   p where p.ID = $1 "))
+        .isEqualTo("select * from /portfolios p where p.ID = $1");
+  }
+
+  @Test
+  public void normalizeKeepsWhitespaceInStringLiterals() {
+    assertThat(normalizeQueryString("select * from /r where status =  'a  b'"))
+        .isEqualTo("select * from /r where status = 'a  b'");
+  }
+
+  @Test
+  public void normalizeHandlesEscapedQuotesInStringLiterals() {
+    assertThat(normalizeQueryString("select * from /r where name = 'it''s  here'   limit 1"))
+        .isEqualTo("select * from /r where name = 'it''s  here' limit 1");
+  }
+
+  @Test
+  public void normalizeKeepsWhitespaceInQuotedIdentifiers() {
+    assertThat(normalizeQueryString("select \"a  b\"   from /r"))
+        .isEqualTo("select \"a  b\" from /r");
+  }
+
+  @Test
+  public void normalizeKeepsNewlineEndingLineComment() {
+    assertThat(normalizeQueryString("select * from /r --c\nwhere x=1"))
+        .isEqualTo("select * from /r --c\nwhere x=1");
+    assertThat(normalizeQueryString("select * from /r --c where x=1"))
+        .isEqualTo("select * from /r --c where x=1");
+    assertThat(normalizeQueryString("select * from /r --c\nwhere x=1"))
+        .isNotEqualTo(normalizeQueryString("select * from /r --c where x=1"));
+  }
+
+  @Test
+  public void normalizeCollapsesWhitespaceAroundLineComment() {
+    assertThat(normalizeQueryString("select *   --  the  columns \r\n\t from /r"))
+        .isEqualTo("select * --  the  columns \nfrom /r");
+  }
+
+  @Test
+  public void normalizeKeepsQuotesInCommentsAsIs() {
+    assertThat(normalizeQueryString("select * /* it's  */  from /r -- it's\n  where x = 'a  b'"))
+        .isEqualTo("select * /* it's  */ from /r -- it's\nwhere x = 'a  b'");
+  }
+
+  @Test
+  public void withQueryThreadStateRunsTaskWithStateOfCallingThread() throws Exception {
+    ThreadLocal<Boolean> pdxReadSerializedOverride = ThreadLocal.withInitial(() -> false);
+    InternalCache cache = mock(InternalCache.class);
+    when(cache.getPdxReadSerializedOverride()).thenAnswer(i -> pdxReadSerializedOverride.get());
+    doAnswer(i -> {
+      pdxReadSerializedOverride.set(i.getArgument(0));
+      return null;
+    }).when(cache).setPdxReadSerializedOverride(anyBoolean());
+    DefaultQuery query = new DefaultQuery("select * from /r", cache, true);
+    pdxReadSerializedOverride.set(true);
+    DefaultQuery.queryCanceled.get().set(true);
+
+    AtomicBoolean overrideInTask = new AtomicBoolean();
+    AtomicBoolean canceledInTask = new AtomicBoolean();
+    AtomicBoolean overrideAfterTask = new AtomicBoolean(true);
+    AtomicBoolean canceledAfterTask = new AtomicBoolean(true);
+    Runnable task = query.withQueryThreadState(() -> {
+      overrideInTask.set(cache.getPdxReadSerializedOverride());
+      canceledInTask.set(DefaultQuery.queryCanceled.get().get());
+    });
+    Thread thread = new Thread(() -> {
+      task.run();
+      overrideAfterTask.set(cache.getPdxReadSerializedOverride());
+      canceledAfterTask.set(DefaultQuery.queryCanceled.get().get());
+    });
+    thread.start();
+    thread.join();
+
+    assertThat(overrideInTask).isTrue();
+    assertThat(canceledInTask).isTrue();
+    assertThat(overrideAfterTask).isFalse();
+    assertThat(canceledAfterTask).isFalse();
+  }
+}
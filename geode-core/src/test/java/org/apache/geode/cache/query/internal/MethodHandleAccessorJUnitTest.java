@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Test;
+
+public class MethodHandleAccessorJUnitTest {
+
+  @Test
+  public void readsPublicField() throws Exception {
+    MethodHandle handle = MethodHandleAccessor.forMember(Position.class.getField("qty"));
+
+    assertThat(MethodHandleAccessor.invoke(handle, new Position(5, "IBM"))).isEqualTo(5);
+  }
+
+  @Test
+  public void invokesGetterAndBoxesPrimitiveResult() throws Exception {
+    MethodHandle handle = MethodHandleAccessor.forMember(Position.class.getMethod("isActive"));
+
+    assertThat(MethodHandleAccessor.invoke(handle, new Position(5, "IBM"))).isEqualTo(true);
+  }
+
+  @Test
+  public void invokesStaticMethodIgnoringTarget() throws Exception {
+    MethodHandle handle = MethodHandleAccessor.forMember(Position.class.getMethod("getKind"));
+
+    assertThat(MethodHandleAccessor.invoke(handle, new Position(5, "IBM"))).isEqualTo("position");
+  }
+
+  @Test
+  public void wrapsExceptionThrownByMethod() throws Exception {
+    MethodHandle handle = MethodHandleAccessor.forMember(Position.class.getMethod("getFailure"));
+
+    assertThatThrownBy(() -> MethodHandleAccessor.invoke(handle, new Position(5, "IBM")))
+        .isInstanceOf(InvocationTargetException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void methodsWithArgumentsAreNotSupported() throws Exception {
+    assertThat(MethodHandleAccessor.forMember(Position.class.getMethod("isQty", int.class)))
+        .isNull();
+  }
+
+  public static class Position {
+    public final int qty;
+    private final String secId;
+
+    Position(int qty, String secId) {
+      this.qty = qty;
+      this.secId = secId;
+    }
+
+    public boolean isActive() {
+      return qty > 0;
+    }
+
+    public boolean isQty(int value) {
+      return qty == value;
+    }
+
+    public String getFailure() {
+      throw new IllegalStateException(secId);
+    }
+
+    public static String getKind() {
+      return "position";
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+public class SortedResultsBagTopKJUnitTest {
+
+  @Test
+  public void boundedBagRetainsOnlyTheFirstElementsInSortOrder() {
+    SortedResultsBag<Integer> bag = new SortedResultsBag<>(Comparator.naturalOrder(), true);
+    bag.boundToTopK(3);
+    for (int i : new int[] {9, 4, 7, 1, 8, 3, 6}) {
+      bag.add(i);
+    }
+
+    assertThat(bag.size()).isEqualTo(3);
+    assertThat(bag.asList()).containsExactly(1, 3, 4);
+  }
+
+  @Test
+  public void boundedBagCountsDuplicatesAgainstTheBound() {
+    SortedResultsBag<Integer> bag = new SortedResultsBag<>(Comparator.naturalOrder(), true);
+    bag.boundToTopK(4);
+    for (int i : new int[] {5, 2, 2, 5, 2, 1, 5}) {
+      bag.addAndGetOccurence(i);
+    }
+
+    assertThat(bag.asList()).containsExactly(1, 2, 2, 2);
+  }
+
+  @Test
+  public void nullsAtStartAreRetainedBeforeOtherElements() {
+    SortedResultsBag<Integer> bag = new SortedResultsBag<>(Comparator.naturalOrder(), true);
+    bag.boundToTopK(2);
+    bag.add(3);
+    bag.add(null);
+    bag.add(1);
+
+    assertThat(bag.asList()).containsExactly(null, 1);
+  }
+
+  @Test
+  public void nullsAtEndAreEvictedFirst() {
+    SortedResultsBag<Integer> bag = new SortedResultsBag<>(Comparator.naturalOrder(), false);
+    bag.boundToTopK(2);
+    bag.add(null);
+    bag.add(3);
+    bag.add(1);
+
+    assertThat(bag.asList()).containsExactly(1, 3);
+  }
+
+  @Test
+  public void boundingAnExistingBagTrimsIt() {
+    SortedResultsBag<Integer> bag = new SortedResultsBag<>(Comparator.naturalOrder(), true);
+    for (int i = 10; i > 0; i--) {
+      bag.add(i);
+    }
+    bag.boundToTopK(2);
+
+    assertThat(bag.asList()).containsExactly(1, 2);
+  }
+
+  @Test
+  public void bagForPreorderedDataCanNotBeBounded() {
+    SortedResultsBag<Integer> bag = new SortedResultsBag<>(true);
+
+    assertThatThrownBy(() -> bag.boundToTopK(1)).isInstanceOf(IllegalStateException.class);
+  }
+}
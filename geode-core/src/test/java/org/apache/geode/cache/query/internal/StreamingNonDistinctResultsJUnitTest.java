@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.apache.geode.InternalGemFireException;
+import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
+
+public class StreamingNonDistinctResultsJUnitTest {
+
+  private static final CumulativeNonDistinctResults.Metadata LOCAL =
+      CumulativeNonDistinctResults.getCollectionMetadata(false, false, true);
+
+  @Test
+  public void streamingIteratorReturnsChunksInArrivalOrder() throws Exception {
+    StreamingNonDistinctResults<Integer> results = createResults(4, -1);
+    assertThat(results.offerChunk(Arrays.asList(1, 2), LOCAL, 0)).isTrue();
+    assertThat(results.offerChunk(Arrays.asList(3), LOCAL, 0)).isTrue();
+    results.endOfStream(null);
+
+    assertThat(drain(results.streamingIterator())).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  public void fullQueueRejectsFurtherChunks() throws Exception {
+    StreamingNonDistinctResults<Integer> results = createResults(1, -1);
+    assertThat(results.offerChunk(Arrays.asList(1), LOCAL, 0)).isTrue();
+
+    assertThat(results.offerChunk(Arrays.asList(2), LOCAL, 0)).isFalse();
+  }
+
+  @Test
+  public void consumerReceivesChunksProducedConcurrently() throws Exception {
+    StreamingNonDistinctResults<Integer> results = createResults(1, -1);
+    Thread producer = new Thread(() -> {
+      try {
+        for (int i = 0; i < 10; i++) {
+          while (!results.offerChunk(Arrays.asList(i), LOCAL, 10)) {
+          }
+        }
+      } catch (InterruptedException ignore) {
+      }
+      results.endOfStream(null);
+    });
+    producer.start();
+
+    assertThat(drain(results.streamingIterator())).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    producer.join();
+  }
+
+  @Test
+  public void limitAbortsTheStream() throws Exception {
+    StreamingNonDistinctResults<Integer> results = createResults(4, 2);
+    results.offerChunk(Arrays.asList(1, 2, 3), LOCAL, 0);
+
+    assertThat(drain(results.streamingIterator())).containsExactly(1, 2);
+    assertThat(results.isAborted()).isTrue();
+    assertThat(results.offerChunk(Arrays.asList(4), LOCAL, 0)).isFalse();
+  }
+
+  @Test
+  public void failureIsThrownAfterQueuedChunks() throws Exception {
+    StreamingNonDistinctResults<Integer> results = createResults(4, -1);
+    results.offerChunk(Arrays.asList(1), LOCAL, 0);
+    results.endOfStream(new RuntimeException("failed"));
+    Iterator<Integer> iterator = results.streamingIterator();
+
+    assertThat(iterator.next()).isEqualTo(1);
+    assertThatThrownBy(iterator::hasNext).isInstanceOf(InternalGemFireException.class)
+        .hasRootCauseMessage("failed");
+  }
+
+  @Test
+  public void sizeDrainsTheStreamIntoMemory() throws Exception {
+    StreamingNonDistinctResults<Integer> results = createResults(4, -1);
+    results.offerChunk(Arrays.asList(1, 2), LOCAL, 0);
+    results.endOfStream(null);
+
+    assertThat(results.size()).isEqualTo(2);
+    assertThat(results.asList()).containsExactly(1, 2);
+    assertThat(drain(results.streamingIterator())).containsExactly(1, 2);
+  }
+
+  @Test
+  public void streamCanOnlyBeReadOnce() throws Exception {
+    StreamingNonDistinctResults<Integer> results = createResults(4, -1);
+    results.endOfStream(null);
+    results.streamingIterator();
+
+    assertThatThrownBy(results::streamingIterator).isInstanceOf(IllegalStateException.class);
+  }
+
+  private StreamingNonDistinctResults<Integer> createResults(int maxQueuedChunks, int limit) {
+    return new StreamingNonDistinctResults<>(new ObjectTypeImpl(Integer.class), maxQueuedChunks,
+        limit);
+  }
+
+  private List<Integer> drain(Iterator<Integer> iterator) {
+    List<Integer> list = new ArrayList<>();
+    while (iterator.hasNext()) {
+      list.add(iterator.next());
+    }
+    return list;
+  }
+}
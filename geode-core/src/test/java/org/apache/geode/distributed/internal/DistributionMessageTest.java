@@ -14,13 +14,20 @@
  */
 package org.apache.geode.distributed.internal;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.test.junit.categories.MembershipTest;
 
 @Category({MembershipTest.class})
@@ -35,4 +42,60 @@ public class DistributionMessageTest {
 
     verify(mockDistributionMessage, times(1)).setReplySender(mockReplySender);
   }
+
+  @Test
+  public void keyedMessageFromSharedConnectionIsProcessedInSerialLane() {
+    ClusterDistributionManager dm = mock(ClusterDistributionManager.class, RETURNS_DEEP_STUBS);
+    when(dm.hasSerialLanes()).thenReturn(true);
+    KeyedMessage message = new KeyedMessage();
+    message.setSharedReceiver(true);
+
+    message.schedule(dm);
+
+    verify(dm).executeInSerialLane(any(), eq("key"), any());
+    assertThat(message.processed).isFalse();
+  }
+
+  @Test
+  public void keyedMessageFromThreadOwnedConnectionIsProcessedInline() {
+    ClusterDistributionManager dm = mock(ClusterDistributionManager.class, RETURNS_DEEP_STUBS);
+    when(dm.hasSerialLanes()).thenReturn(true);
+    when(dm.getCancelCriterion().cancelInProgress()).thenReturn(null);
+    KeyedMessage message = new KeyedMessage();
+    message.setSharedReceiver(false);
+
+    message.schedule(dm);
+
+    verify(dm, never()).executeInSerialLane(any(), any(), any());
+    verify(dm, never()).awaitSerialLanes();
+    assertThat(message.processed).isTrue();
+  }
+
+  private static class KeyedMessage extends DistributionMessage {
+    boolean processed;
+
+    KeyedMessage() {
+      setSender(mock(InternalDistributedMember.class));
+    }
+
+    @Override
+    public int getProcessorType() {
+      return ClusterDistributionManager.SERIAL_EXECUTOR;
+    }
+
+    @Override
+    protected Object getSerialOrderingKey() {
+      return "key";
+    }
+
+    @Override
+    protected void process(ClusterDistributionManager dm) {
+      this.processed = true;
+    }
+
+    @Override
+    public int getDSFID() {
+      return NO_FIXED_ID;
+    }
+  }
 }
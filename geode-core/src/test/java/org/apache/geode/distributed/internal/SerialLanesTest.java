@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category({MembershipTest.class})
+public class SerialLanesTest {
+
+  private static final int KEYS = 8;
+
+  private final SerialLanes lanes =
+      new SerialLanes(4, mock(DistributionStats.class, RETURNS_DEEP_STUBS), true, null);
+
+  private final InternalDistributedMember sender = mock(InternalDistributedMember.class);
+
+  @After
+  public void tearDown() {
+    lanes.shutdownNow();
+  }
+
+  @Test
+  public void messagesWithSameKeyAreProcessedInOrder() {
+    List<List<Integer>> processed = new ArrayList<>();
+    for (int key = 0; key < KEYS; key++) {
+      processed.add(new ArrayList<>());
+    }
+    for (int i = 0; i < 400; i++) {
+      int key = i % KEYS;
+      int sequence = i;
+      lanes.execute(sender, key, task(() -> {
+        if (sequence % 7 == 0) {
+          pause(1);
+        }
+        synchronized (processed) {
+          processed.get(key).add(sequence);
+        }
+      }));
+    }
+
+    lanes.awaitDispatched();
+
+    synchronized (processed) {
+      for (List<Integer> sequences : processed) {
+        assertThat(sequences).hasSize(400 / KEYS).isSorted();
+      }
+    }
+  }
+
+  @Test
+  public void awaitDispatchedWaitsForEarlierKeyedMessages() {
+    AtomicBoolean done = new AtomicBoolean();
+    lanes.execute(sender, "key", task(() -> {
+      pause(200);
+      done.set(true);
+    }));
+
+    // what a message without a key does before it is processed
+    lanes.awaitDispatched();
+
+    assertThat(done).isTrue();
+  }
+
+  @Test
+  public void awaitDispatchedDoesNotWaitForMessagesOfOtherReceivingThreads() throws Exception {
+    AtomicBoolean release = new AtomicBoolean();
+    Thread otherReceiver = new Thread(() -> lanes.execute(sender, "key", task(() -> {
+      while (!release.get()) {
+        pause(10);
+      }
+    })));
+    otherReceiver.start();
+    otherReceiver.join();
+
+    try {
+      lanes.awaitDispatched();
+    } finally {
+      release.set(true);
+    }
+  }
+
+  private static SizeableRunnable task(Runnable runnable) {
+    return new SizeableRunnable(0) {
+      @Override
+      public void run() {
+        runnable.run();
+      }
+    };
+  }
+
+  private static void pause(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
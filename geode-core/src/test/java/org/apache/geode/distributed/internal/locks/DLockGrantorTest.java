@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.apache.geode.distributed.internal.locks.DLockGrantor.DLockGrantToken;
+
+public class DLockGrantorTest {
+
+  private static final int THREADS = 8;
+
+  private static final int ITERATIONS = 10000;
+
+  private final DLockGrantor grantor =
+      DLockGrantor.createGrantor(mock(DLockService.class, RETURNS_DEEP_STUBS), 1);
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void grantTokenIsReusedWhileItIsAccessed() {
+    DLockGrantToken grant = grantor.getOrCreateGrant("name");
+
+    grantor.removeGrantIfUnused(grant);
+
+    assertThat(grant.isDestroyed()).isFalse();
+    assertThat(grantor.getOrCreateGrant("name")).isSameAs(grant);
+    assertThat(grantor.getGrantToken("name")).isSameAs(grant);
+  }
+
+  @Test
+  public void unusedGrantTokenIsRemoved() {
+    DLockGrantToken grant = grantor.getOrCreateGrant("name");
+    grant.decAccess();
+
+    grantor.removeGrantIfUnused(grant);
+
+    assertThat(grant.isDestroyed()).isTrue();
+    assertThat(grantor.getGrantToken("name")).isNull();
+    assertThat(grantor.getOrCreateGrant("name")).isNotSameAs(grant);
+  }
+
+  @Test
+  public void concurrentlyCreatedAndRemovedGrantTokensAreNeverDestroyedWhileAccessed()
+      throws Exception {
+    CyclicBarrier start = new CyclicBarrier(THREADS);
+    List<Future<Void>> workers = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      workers.add(executor.submit(() -> {
+        start.await();
+        for (int j = 0; j < ITERATIONS; j++) {
+          // few names so that threads contend on the same tokens and stripes
+          Object name = "name" + (j % 4);
+          DLockGrantToken grant = grantor.getOrCreateGrant(name);
+          try {
+            assertThat(grant.isDestroyed()).isFalse();
+            assertThat(grantor.getGrantToken(name)).isSameAs(grant);
+          } finally {
+            grant.decAccess();
+          }
+          grantor.removeGrantIfUnused(grant);
+        }
+        return null;
+      }));
+    }
+
+    for (Future<Void> worker : workers) {
+      worker.get();
+    }
+
+    // the last thread to use each token removed it
+    assertThat(grantor.getGrantTokens()).isEmpty();
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+
+public class DLockTokenTest {
+
+  private static final int LEASE_ID = 7;
+
+  private InternalDistributedMember member;
+  private RemoteThread remoteThread;
+  private DLockToken token;
+
+  @Before
+  public void setUp() {
+    member = mock(InternalDistributedMember.class);
+    remoteThread = new RemoteThread(member, 1);
+    token = new DLockToken(mock(DistributionManager.class), "name");
+    synchronized (token) {
+      token.incUsage();
+    }
+    token.grantLock(Long.MAX_VALUE, LEASE_ID, 0, remoteThread);
+  }
+
+  @Test
+  public void cachedLeaseIsReusedBySameRemoteThread() {
+    synchronized (token) {
+      assertThat(token.cacheLease()).isTrue();
+      assertThat(token.isLeaseHeldByCurrentThread()).isFalse();
+      assertThat(token.isBeingUsed()).isTrue();
+
+      token.incUsage();
+      assertThat(token.reuseCachedLease(remoteThread, Long.MAX_VALUE)).isTrue();
+
+      assertThat(token.isLeaseHeldByCurrentThread()).isTrue();
+      assertThat(token.getLeaseId()).isEqualTo(LEASE_ID);
+      assertThat(token.getUsageCount()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void cachedLeaseIsNotReusedByOtherRemoteThread() {
+    synchronized (token) {
+      token.cacheLease();
+      token.incUsage();
+
+      assertThat(token.reuseCachedLease(new RemoteThread(member, 2), Long.MAX_VALUE)).isFalse();
+      assertThat(token.isLeaseCached()).isTrue();
+    }
+  }
+
+  @Test
+  public void revokedCachedLeaseMustBeReleased() {
+    synchronized (token) {
+      token.cacheLease();
+
+      assertThat(token.revokeLease(LEASE_ID)).isTrue();
+      assertThat(token.isLeaseCached()).isFalse();
+      assertThat(token.reuseCachedLease(remoteThread, Long.MAX_VALUE)).isFalse();
+    }
+    assertThat(token.releaseLock(LEASE_ID, remoteThread)).isTrue();
+    assertThat(token.isLeaseHeld()).isFalse();
+    assertThat(token.isBeingUsed()).isFalse();
+  }
+
+  @Test
+  public void revokedLockedLeaseIsNotCached() {
+    synchronized (token) {
+      assertThat(token.revokeLease(LEASE_ID)).isFalse();
+
+      assertThat(token.cacheLease()).isFalse();
+    }
+  }
+
+  @Test
+  public void revokeOfOtherLeaseIsIgnored() {
+    synchronized (token) {
+      token.cacheLease();
+
+      assertThat(token.revokeLease(LEASE_ID + 1)).isFalse();
+      assertThat(token.isLeaseCached()).isTrue();
+    }
+  }
+
+  @Test
+  public void leaseRevokedBeforeItIsGrantedIsNotCached() {
+    token.releaseLock(LEASE_ID, remoteThread);
+    synchronized (token) {
+      token.incUsage();
+      // the revoke is processed before the reply granting the lease
+      assertThat(token.revokeLease(LEASE_ID + 1)).isFalse();
+    }
+
+    token.grantLock(Long.MAX_VALUE, LEASE_ID + 1, 0, remoteThread);
+
+    synchronized (token) {
+      assertThat(token.cacheLease()).isFalse();
+    }
+  }
+
+  @Test
+  public void leaseGrantedAfterARevokeOfAnotherLeaseIsCached() {
+    token.releaseLock(LEASE_ID, remoteThread);
+    synchronized (token) {
+      token.incUsage();
+      assertThat(token.revokeLease(LEASE_ID + 1)).isFalse();
+    }
+
+    token.grantLock(Long.MAX_VALUE, LEASE_ID + 2, 0, remoteThread);
+
+    synchronized (token) {
+      assertThat(token.cacheLease()).isTrue();
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.fd;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.Test;
+
+public class HeartbeatIntervalsTest {
+
+  @Test
+  public void phiIsZeroWithoutEnoughSamples() {
+    HeartbeatIntervals intervals = new HeartbeatIntervals(10, 100);
+    intervals.heartbeatReceived(1000);
+    intervals.heartbeatReceived(2000);
+
+    assertThat(intervals.hasEnoughSamples()).isFalse();
+    assertThat(intervals.phi(10000)).isZero();
+  }
+
+  @Test
+  public void phiGrowsWithTimeSinceLastHeartbeat() {
+    HeartbeatIntervals intervals = regularIntervals();
+
+    double onTime = intervals.phi(11000);
+    double late = intervals.phi(11500);
+    double veryLate = intervals.phi(13000);
+
+    assertThat(intervals.hasEnoughSamples()).isTrue();
+    assertThat(onTime).isLessThan(1);
+    assertThat(late).isGreaterThan(onTime);
+    assertThat(veryLate).isGreaterThan(8);
+  }
+
+  @Test
+  public void irregularHeartbeatsAreSuspectedLater() {
+    HeartbeatIntervals regular = regularIntervals();
+    HeartbeatIntervals irregular = new HeartbeatIntervals(10, 100);
+    long time = 0;
+    for (int i = 0; i <= 10; i++) {
+      irregular.heartbeatReceived(time);
+      time += i % 2 == 0 ? 500 : 1500;
+    }
+
+    assertThat(irregular.phi(10000 + 1500)).isLessThan(regular.phi(10000 + 1500));
+  }
+
+  @Test
+  public void phiAtTheMeanIsLog10OfTwo() {
+    assertThat(HeartbeatIntervals.phi(1000, 1000, 100)).isCloseTo(Math.log10(2), within(0.01));
+  }
+
+  @Test
+  public void successfulCheckLowersPhi() {
+    HeartbeatIntervals intervals = regularIntervals();
+    assertThat(intervals.phi(13000)).isGreaterThan(8);
+
+    assertThat(intervals.checkStarted()).isTrue();
+    intervals.checkEnded(true, 12900);
+
+    assertThat(intervals.phi(13000)).isLessThan(1);
+    assertThat(intervals.phi(16000)).isGreaterThan(8);
+  }
+
+  @Test
+  public void failedCheckDoesNotLowerPhi() {
+    HeartbeatIntervals intervals = regularIntervals();
+    double phi = intervals.phi(13000);
+
+    assertThat(intervals.checkStarted()).isTrue();
+    intervals.checkEnded(false, 12900);
+
+    assertThat(intervals.phi(13000)).isEqualTo(phi);
+  }
+
+  @Test
+  public void onlyOneCheckIsStartedAtATime() {
+    HeartbeatIntervals intervals = regularIntervals();
+
+    assertThat(intervals.checkStarted()).isTrue();
+    assertThat(intervals.checkStarted()).isFalse();
+
+    intervals.checkEnded(true, 12000);
+
+    assertThat(intervals.checkStarted()).isTrue();
+  }
+
+  private HeartbeatIntervals regularIntervals() {
+    HeartbeatIntervals intervals = new HeartbeatIntervals(10, 100);
+    for (int i = 0; i <= 10; i++) {
+      intervals.heartbeatReceived(i * 1000);
+    }
+    return intervals;
+  }
+}
@@ -14,10 +14,16 @@
  */
 package org.apache.geode.internal;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
@@ -44,6 +50,7 @@ public class HeapDataOutputStreamJUnitTest {
   public void setup() {
     // ensure no bleedthrough from other tests
     TypeRegistry.init();
+    HeapChunkPool.clear();
   }
 
   @Test
@@ -145,6 +152,67 @@ public class HeapDataOutputStreamJUnitTest {
     assertEquals(expected, tmp);
   }
 
+  @Test
+  public void testRecycledChunksReturnToPoolOnClose() {
+    HeapDataOutputStream out = new HeapDataOutputStream(1024, Version.CURRENT, false, true);
+    out.writeInt(37);
+    ByteBuffer chunk = out.buffer;
+    out.close();
+
+    assertSame(chunk, HeapChunkPool.acquire(1024));
+  }
+
+  @Test
+  public void testExposedChunksAreNotRecycled() {
+    HeapDataOutputStream out = new HeapDataOutputStream(1024, Version.CURRENT, false, true);
+    out.writeInt(37);
+    ByteBuffer chunk = out.toByteBuffer();
+    out.close();
+
+    assertNotSame(chunk, HeapChunkPool.acquire(1024));
+  }
+
+  @Test
+  public void testByteArrayOfRecyclingStreamIsNotRecycled() {
+    HeapDataOutputStream out = new HeapDataOutputStream(1024, Version.CURRENT, false, true);
+    out.write(new byte[1024], 0, 1024);
+    byte[] bytes = out.toByteArray();
+    out.close();
+
+    assertNotSame(bytes, HeapChunkPool.acquire(1024).array());
+  }
+
+  @Test
+  public void testPooledChunksOfAThreadAreBounded() {
+    for (int size = 1024; size <= HeapChunkPool.MAX_POOLED_CHUNK_SIZE; size *= 2) {
+      for (int i = 0; i < HeapChunkPool.MAX_POOLED_CHUNKS; i++) {
+        HeapChunkPool.release(ByteBuffer.allocate(size));
+      }
+    }
+
+    assertTrue(HeapChunkPool.getPooledBytes() <= HeapChunkPool.MAX_POOLED_BYTES);
+
+    ByteBuffer chunk = HeapChunkPool.acquire(1024);
+    int pooledBytes = HeapChunkPool.getPooledBytes();
+    HeapChunkPool.release(chunk);
+    assertEquals(pooledBytes + 1024, HeapChunkPool.getPooledBytes());
+  }
+
+  @Test
+  public void testRecyclingStreamKeepsContentsAcrossChunks() throws IOException {
+    byte[] bytes = new byte[5000];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) i;
+    }
+    HeapDataOutputStream out = new HeapDataOutputStream(64, Version.CURRENT, false, true);
+    out.write(bytes, 0, bytes.length);
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    out.sendTo(new DataOutputStream(result));
+    out.close();
+
+    assertArrayEquals(bytes, result.toByteArray());
+  }
+
   @Test
   public void testWriteJavaSerializeNoCopy() throws IOException, ClassNotFoundException {
     byte[] bytes = new byte[2000];
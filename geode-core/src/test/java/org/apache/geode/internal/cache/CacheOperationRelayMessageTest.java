@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.geode.cache.CacheEvent;
+import org.apache.geode.cache.Operation;
+import org.apache.geode.distributed.internal.ClusterDistributionManager;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.DistributionMessage;
+import org.apache.geode.distributed.internal.ReplyMessage;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.CacheOperationRelayMessage.Relay;
+import org.apache.geode.internal.cache.DistributedCacheOperation.CacheOperationMessage;
+import org.apache.geode.internal.util.BlobHelper;
+
+public class CacheOperationRelayMessageTest {
+
+  private static final int PROCESSOR_ID = 42;
+
+  private final DistributionManager dm = mock(DistributionManager.class);
+
+  private final InternalDistributedMember origin = mock(InternalDistributedMember.class);
+
+  private final byte[] operationBytes = new byte[] {1, 2, 3};
+
+  private final List<InternalDistributedMember> members = createMembers(10);
+
+  @Before
+  public void setUp() {
+    ExecutorService waitingThreadPool = mock(ExecutorService.class);
+    doAnswer(invocation -> {
+      Runnable task = invocation.getArgument(0);
+      task.run();
+      return null;
+    }).when(waitingThreadPool).execute(any());
+    when(dm.getId()).thenReturn(origin);
+    when(dm.getWaitingThreadPool()).thenReturn(waitingThreadPool);
+  }
+
+  @Test
+  public void splitCoversEveryMemberOnce() {
+    List<InternalDistributedMember> members = createMembers(10);
+
+    List<List<InternalDistributedMember>> subtrees = CacheOperationRelayMessage.split(members, 3);
+
+    assertThat(subtrees).hasSize(3);
+    List<InternalDistributedMember> all = new ArrayList<>();
+    for (List<InternalDistributedMember> subtree : subtrees) {
+      assertThat(subtree.size()).isBetween(3, 4);
+      all.addAll(subtree);
+    }
+    assertThat(all).containsExactlyElementsOf(members);
+  }
+
+  @Test
+  public void splitOfFewerMembersThanFanoutHasOneMemberSubtrees() {
+    List<InternalDistributedMember> members = createMembers(2);
+
+    List<List<InternalDistributedMember>> subtrees = CacheOperationRelayMessage.split(members, 4);
+
+    assertThat(subtrees).hasSize(2);
+    assertThat(subtrees.get(0)).containsExactly(members.get(0));
+    assertThat(subtrees.get(1)).containsExactly(members.get(1));
+  }
+
+  @Test
+  public void relaySendsToTheFirstMemberOfEachSubtree() {
+    Relay relay = CacheOperationRelayMessage.relay(dm, PROCESSOR_ID, operationBytes, members, 3);
+
+    verify(dm).addMembershipListener(relay);
+    List<CacheOperationRelayMessage> sent = sentMessages(3);
+    assertThat(sent.get(0).getRecipients()).containsExactly(members.get(0));
+    assertThat(sent.get(0).getSubtree()).containsExactlyElementsOf(members.subList(1, 3));
+    assertThat(sent.get(1).getRecipients()).containsExactly(members.get(3));
+    assertThat(sent.get(1).getSubtree()).containsExactlyElementsOf(members.subList(4, 6));
+    assertThat(sent.get(2).getRecipients()).containsExactly(members.get(6));
+    assertThat(sent.get(2).getSubtree()).containsExactlyElementsOf(members.subList(7, 10));
+  }
+
+  @Test
+  public void departedRelayingMemberIsReplacedBySendingToItsDescendantsDirectly() {
+    Relay relay = CacheOperationRelayMessage.relay(dm, PROCESSOR_ID, operationBytes, members, 3);
+
+    relay.memberDeparted(dm, members.get(3), true);
+
+    CacheOperationRelayMessage direct = sentMessages(4).get(3);
+    assertThat(direct.getRecipients()).containsExactlyElementsOf(members.subList(4, 6));
+    assertThat(direct.getSubtree()).isEmpty();
+  }
+
+  @Test
+  public void departedMemberWhichDoesNotRelayIsIgnored() {
+    Relay relay = CacheOperationRelayMessage.relay(dm, PROCESSOR_ID, operationBytes, members, 3);
+
+    relay.memberDeparted(dm, members.get(1), true);
+    relay.memberDeparted(dm, mock(InternalDistributedMember.class), false);
+
+    sentMessages(3);
+  }
+
+  @Test
+  public void closedRelayStopsWatchingMembers() {
+    Relay relay = CacheOperationRelayMessage.relay(dm, PROCESSOR_ID, operationBytes, members, 3);
+
+    relay.close();
+
+    verify(dm).removeMembershipListener(relay);
+  }
+
+  @Test
+  public void failedSendToRelayingMemberSendsToItsDescendantsDirectly() {
+    InternalDistributedMember unreachable = members.get(0);
+    when(dm.putOutgoing(any())).thenAnswer(invocation -> {
+      DistributionMessage message = invocation.getArgument(0);
+      return Arrays.asList(message.getRecipients()).contains(unreachable)
+          ? Collections.singleton(unreachable) : null;
+    });
+
+    CacheOperationRelayMessage.relay(dm, PROCESSOR_ID, operationBytes, members, 3);
+
+    List<CacheOperationRelayMessage> sent = sentMessages(4);
+    assertThat(sent.get(0).getRecipients()).containsExactly(unreachable);
+    assertThat(sent.get(1).getRecipients()).containsExactlyElementsOf(members.subList(1, 3));
+    assertThat(sent.get(1).getSubtree()).isEmpty();
+    assertThat(sent.get(2).getRecipients()).containsExactly(members.get(3));
+    assertThat(sent.get(3).getRecipients()).containsExactly(members.get(6));
+  }
+
+  @Test
+  public void processRepliesToOriginWithOriginalProcessorId() throws Exception {
+    ClusterDistributionManager clusterDm = mock(ClusterDistributionManager.class);
+    when(clusterDm.getExistingCache()).thenReturn(mock(InternalCache.class));
+    TestOperationMessage operation = new TestOperationMessage();
+    operation.regionPath = "/region";
+    operation.op = Operation.DESTROY;
+    operation.processorId = PROCESSOR_ID;
+    CacheOperationRelayMessage message = new CacheOperationRelayMessage(origin, PROCESSOR_ID, 3,
+        BlobHelper.serializeToBlob(operation), Collections.singleton(members.get(0)),
+        Collections.emptyList());
+    message.setSender(members.get(1));
+
+    message.process(clusterDm);
+
+    ArgumentCaptor<DistributionMessage> captor = ArgumentCaptor.forClass(DistributionMessage.class);
+    verify(clusterDm).putOutgoing(captor.capture());
+    ReplyMessage reply = (ReplyMessage) captor.getValue();
+    assertThat(reply.getRecipients()).containsExactly(origin);
+    assertThat(reply.getProcessorId()).isEqualTo(PROCESSOR_ID);
+  }
+
+  @Test
+  public void processRelaysToSubtreeAndRepliesToOriginIfOperationCanNotBeRead() {
+    ClusterDistributionManager clusterDm = mock(ClusterDistributionManager.class);
+    byte[] unreadable = new byte[0];
+    CacheOperationRelayMessage message = new CacheOperationRelayMessage(origin, PROCESSOR_ID, 3,
+        unreadable, Collections.singleton(members.get(0)), members.subList(1, 3));
+    message.setSender(origin);
+
+    message.process(clusterDm);
+
+    ArgumentCaptor<DistributionMessage> captor = ArgumentCaptor.forClass(DistributionMessage.class);
+    verify(clusterDm, times(3)).putOutgoing(captor.capture());
+    List<DistributionMessage> sent = captor.getAllValues();
+    assertThat(sent.get(0).getRecipients()).containsExactly(members.get(1));
+    assertThat(sent.get(1).getRecipients()).containsExactly(members.get(2));
+    ReplyMessage reply = (ReplyMessage) sent.get(2);
+    assertThat(reply.getRecipients()).containsExactly(origin);
+    assertThat(reply.getProcessorId()).isEqualTo(PROCESSOR_ID);
+    assertThat(reply.getException()).isNotNull();
+  }
+
+  private List<CacheOperationRelayMessage> sentMessages(int count) {
+    ArgumentCaptor<DistributionMessage> captor = ArgumentCaptor.forClass(DistributionMessage.class);
+    verify(dm, times(count)).putOutgoing(captor.capture());
+    List<CacheOperationRelayMessage> sent = new ArrayList<>();
+    for (DistributionMessage message : captor.getAllValues()) {
+      sent.add((CacheOperationRelayMessage) message);
+    }
+    return sent;
+  }
+
+  private List<InternalDistributedMember> createMembers(int count) {
+    List<InternalDistributedMember> members = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      members.add(mock(InternalDistributedMember.class));
+    }
+    return members;
+  }
+
+  /**
+   * An operation which is serialized by class name, since it has no fixed id.
+   */
+  public static class TestOperationMessage extends CacheOperationMessage {
+
+    public TestOperationMessage() {}
+
+    @Override
+    protected InternalCacheEvent createEvent(DistributedRegion rgn) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected boolean operateOnRegion(CacheEvent event, ClusterDistributionManager dm) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getDSFID() {
+      return NO_FIXED_ID;
+    }
+  }
+}
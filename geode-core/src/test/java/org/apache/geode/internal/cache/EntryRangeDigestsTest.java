@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.persistence.DiskStoreID;
+
+public class EntryRangeDigestsTest {
+
+  private static final int RANGES = 16;
+
+  private final DiskStoreID member = new DiskStoreID(1, 2);
+
+  @Test
+  public void digestsDoNotDependOnEntryOrder() {
+    EntryRangeDigests forward = new EntryRangeDigests(RANGES);
+    EntryRangeDigests backward = new EntryRangeDigests(RANGES);
+    for (int i = 0; i < 100; i++) {
+      forward.add("key" + i, member, i, 1);
+      backward.add("key" + (99 - i), member, 99 - i, 1);
+    }
+
+    assertThat(forward.getMatchingRanges(backward)).doesNotContain(false);
+  }
+
+  @Test
+  public void onlyRangeOfChangedEntryDoesNotMatch() {
+    EntryRangeDigests provider = new EntryRangeDigests(RANGES);
+    EntryRangeDigests requester = new EntryRangeDigests(RANGES);
+    for (int i = 0; i < 100; i++) {
+      provider.add("key" + i, member, i, 1);
+      requester.add("key" + i, member, i, 1);
+    }
+    provider.add("key100", member, 100, 1);
+
+    boolean[] matching = provider.getMatchingRanges(requester);
+
+    for (int i = 0; i < RANGES; i++) {
+      assertThat(matching[i]).isEqualTo(i != provider.getRange("key100"));
+    }
+  }
+
+  @Test
+  public void newerVersionOfEntryDoesNotMatch() {
+    EntryRangeDigests provider = new EntryRangeDigests(RANGES);
+    EntryRangeDigests requester = new EntryRangeDigests(RANGES);
+    provider.add("key", member, 2, 2);
+    requester.add("key", member, 1, 1);
+
+    assertThat(provider.getMatchingRanges(requester)[provider.getRange("key")]).isFalse();
+  }
+
+  @Test
+  public void digestsWithOtherNumberOfRangesDoNotMatch() {
+    EntryRangeDigests provider = new EntryRangeDigests(RANGES);
+    EntryRangeDigests requester = new EntryRangeDigests(RANGES * 2);
+
+    assertThat(provider.getMatchingRanges(requester)).doesNotContain(true);
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.InitialImageFlowControl.Window;
+
+public class InitialImageFlowControlTest {
+
+  @Test
+  public void windowOfFixedSizeDoesNotChange() {
+    Window window = new Window(4, 4);
+    window.chunkProcessed(0);
+    window.limited();
+
+    processRound(window, 0, 4, 10);
+
+    assertThat(window.getSize()).isEqualTo(4);
+  }
+
+  @Test
+  public void limitedWindowGrowsWhileRateDoesNotDrop() {
+    Window window = new Window(4, 6);
+    window.chunkProcessed(0);
+    long time = 0;
+    for (int round = 0; round < 5; round++) {
+      window.limited();
+      time = processRound(window, time, window.getSize(), 10);
+    }
+
+    assertThat(window.getSize()).isEqualTo(6);
+  }
+
+  @Test
+  public void windowDoesNotGrowIfNotLimited() {
+    Window window = new Window(4, 8);
+    window.chunkProcessed(0);
+
+    processRound(window, 0, 4, 10);
+
+    assertThat(window.getSize()).isEqualTo(4);
+  }
+
+  @Test
+  public void windowShrinksWhenRateDrops() {
+    Window window = new Window(4, 8);
+    window.chunkProcessed(0);
+    window.limited();
+    long time = processRound(window, 0, 4, 10);
+    assertThat(window.getSize()).isEqualTo(5);
+
+    processRound(window, time, 5, 20);
+
+    assertThat(window.getSize()).isEqualTo(4);
+  }
+
+  /**
+   * Processes the given number of chunks, each taking the given time, and returns the time after
+   * the last one.
+   */
+  private long processRound(Window window, long start, int chunks, long nanosPerChunk) {
+    long time = start;
+    for (int i = 0; i < chunks; i++) {
+      time += nanosPerChunk;
+      synchronized (window) {
+        window.chunkProcessed(time);
+      }
+    }
+    return time;
+  }
+}
@@ -16,8 +16,10 @@ package org.apache.geode.internal.cache;
 
 import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -31,17 +33,25 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import org.apache.geode.InternalGemFireException;
 import org.apache.geode.cache.CacheException;
 import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.cache.query.QueryExecutionTimeoutException;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.internal.CompiledSelect;
 import org.apache.geode.cache.query.internal.CompiledValue;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.LinkedResultSet;
+import org.apache.geode.cache.query.internal.QueryMonitor;
+import org.apache.geode.cache.query.internal.StreamingNonDistinctResults;
 import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
 import org.apache.geode.distributed.internal.DistributionMessage;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
@@ -203,6 +213,70 @@ public class PartitionedRegionQueryEvaluatorTest {
     assertTrue(results.isEmpty());
   }
 
+  @Test
+  public void streamedQueryIsCanceledByTheQueryTimeout() throws Exception {
+    ScheduledThreadPoolExecutor monitorExecutor = new ScheduledThreadPoolExecutor(1);
+    ExecutorService waitingPool = Executors.newCachedThreadPool();
+    CountDownLatch dataStoresReplied = new CountDownLatch(1);
+    try {
+      when(cache.getQueryMonitor()).thenReturn(new QueryMonitor(monitorExecutor, cache, 100));
+      when(system.getDistributionManager().getWaitingThreadPool()).thenReturn(waitingPool);
+      DefaultQuery streamedQuery = new DefaultQuery("select * from /pr p where p > 0", cache, true);
+      PartitionedRegionQueryEvaluator prqe = new PartitionedRegionQueryEvaluator(system, pr,
+          streamedQuery, null, new LinkedResultSet(), new HashSet<>()) {
+        @Override
+        public SelectResults queryBuckets(TestHook th) throws InterruptedException {
+          // the data stores do not reply in time
+          dataStoresReplied.await();
+          return null;
+        }
+      };
+
+      StreamingNonDistinctResults results = (StreamingNonDistinctResults) prqe.streamBuckets();
+
+      try {
+        results.streamingIterator().hasNext();
+        fail("expected the streamed query to be canceled");
+      } catch (InternalGemFireException expected) {
+        assertTrue(expected.getCause() instanceof QueryExecutionTimeoutException);
+      }
+      assertTrue(streamedQuery.isCanceled());
+    } finally {
+      dataStoresReplied.countDown();
+      waitingPool.shutdownNow();
+      monitorExecutor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void streamedQueryIsNoLongerMonitoredOnceItsResultsAreProduced() throws Exception {
+    ScheduledThreadPoolExecutor monitorExecutor = new ScheduledThreadPoolExecutor(1);
+    ExecutorService waitingPool = Executors.newCachedThreadPool();
+    try {
+      when(cache.getQueryMonitor())
+          .thenReturn(new QueryMonitor(monitorExecutor, cache, 60 * 60 * 1000));
+      when(system.getDistributionManager().getWaitingThreadPool()).thenReturn(waitingPool);
+      DefaultQuery streamedQuery = new DefaultQuery("select * from /pr p where p > 0", cache, true);
+      PartitionedRegionQueryEvaluator prqe = new PartitionedRegionQueryEvaluator(system, pr,
+          streamedQuery, null, new LinkedResultSet(), new HashSet<>()) {
+        @Override
+        public SelectResults queryBuckets(TestHook th) {
+          assertEquals(1, monitorExecutor.getQueue().size());
+          return null;
+        }
+      };
+
+      StreamingNonDistinctResults results = (StreamingNonDistinctResults) prqe.streamBuckets();
+
+      assertFalse(results.streamingIterator().hasNext());
+      assertEquals(0, monitorExecutor.getQueue().size());
+      assertFalse(streamedQuery.isCanceled());
+    } finally {
+      waitingPool.shutdownNow();
+      monitorExecutor.shutdownNow();
+    }
+  }
+
   @Test
   public void testGetAllNodesShouldBeRandomized() {
     List bucketList = createBucketList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
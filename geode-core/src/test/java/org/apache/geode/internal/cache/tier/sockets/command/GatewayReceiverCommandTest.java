@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.EventIDHolder;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.ha.ThreadIdentifier;
+import org.apache.geode.internal.cache.tier.CachedRegionHelper;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.Part;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.cache.wan.GatewayReceiverStats;
+import org.apache.geode.internal.security.SecurityService;
+import org.apache.geode.test.junit.categories.WanTest;
+
+@Category({WanTest.class})
+public class GatewayReceiverCommandTest {
+
+  private static final String REGION_NAME = "region1";
+  private static final byte[] MEMBER_ID = new byte[] {1, 2, 3};
+  private static final byte[] NO_FLAGS = new byte[] {0};
+
+  private int savedApplyThreads;
+  private Message message;
+  private ServerConnection serverConnection;
+  private Message replyMessage;
+  private LocalRegion region;
+  private final List<Part> parts = new ArrayList<>();
+
+  /** The keys applied to the region, in the order a per-thread event tracker lets them through */
+  private final List<Object> appliedKeys = new ArrayList<>();
+  private final Map<ThreadIdentifier, Long> highestSequenceIds = new HashMap<>();
+
+  @Before
+  public void setUp() throws Exception {
+    savedApplyThreads = GatewayReceiverCommand.APPLY_THREADS;
+    GatewayReceiverCommand.APPLY_THREADS = 2;
+
+    message = mock(Message.class);
+    replyMessage = mock(Message.class);
+    region = mock(LocalRegion.class);
+    InternalCache cache = mock(InternalCache.class);
+    when(cache.getRegion(REGION_NAME)).thenReturn(region);
+    CachedRegionHelper crHelper = mock(CachedRegionHelper.class);
+    when(crHelper.getCacheForGatewayCommand()).thenReturn(cache);
+
+    serverConnection = mock(ServerConnection.class);
+    when(serverConnection.getCachedRegionHelper()).thenReturn(crHelper);
+    when(serverConnection.getCacheServerStats()).thenReturn(mock(GatewayReceiverStats.class));
+    when(serverConnection.getResponseMessage()).thenReturn(replyMessage);
+    when(serverConnection.getClientVersion()).thenReturn(Version.CURRENT);
+
+    // drop events at or below the highest sequence id seen from their thread, like the
+    // event tracker of a region does
+    when(region.basicBridgeCreate(any(), any(), anyBoolean(), any(), any(), anyBoolean(), any(),
+        anyBoolean())).thenAnswer(invocation -> {
+          Object key = invocation.getArgument(0);
+          if ("slow".equals(key)) {
+            Thread.sleep(50);
+          }
+          EventID eventId = ((EventIDHolder) invocation.getArgument(6)).getEventId();
+          ThreadIdentifier thread =
+              new ThreadIdentifier(eventId.getMembershipID(), eventId.getThreadID());
+          synchronized (appliedKeys) {
+            Long highest = highestSequenceIds.get(thread);
+            if (highest == null || eventId.getSequenceID() > highest) {
+              highestSequenceIds.put(thread, eventId.getSequenceID());
+              appliedKeys.add(key);
+            }
+          }
+          return true;
+        });
+  }
+
+  @After
+  public void tearDown() {
+    GatewayReceiverCommand.APPLY_THREADS = savedApplyThreads;
+  }
+
+  @Test
+  public void appliesEveryEventOfInterleavedBatchFromOneThread() throws Exception {
+    List<String> keys = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      keys.add(i % 2 == 0 ? "slow" : "fast" + i);
+    }
+    createBatch(keys);
+
+    GatewayReceiverCommand.getCommand().cmdExecute(message, serverConnection,
+        mock(SecurityService.class), 0);
+
+    assertThat(appliedKeys).containsExactlyElementsOf(keys);
+    verify(replyMessage).send(serverConnection);
+    verify(serverConnection).setModificationInfo(true, REGION_NAME, keys.get(keys.size() - 1));
+  }
+
+  @Test
+  public void eventsOfOneThreadShareALane() {
+    Object thread = new ThreadIdentifier(MEMBER_ID, 1);
+    int[] lanes = GatewayReceiverCommand.assignLanes(new Object[] {thread, thread, thread},
+        new Object[] {"a", "b", "c"}, 3);
+
+    assertThat(lanes).containsOnly(lanes[0]);
+  }
+
+  @Test
+  public void eventsForOneKeyShareALane() {
+    int[] lanes = GatewayReceiverCommand.assignLanes(
+        new Object[] {new ThreadIdentifier(MEMBER_ID, 1), new ThreadIdentifier(MEMBER_ID, 2)},
+        new Object[] {"a", "a"}, 2);
+
+    assertThat(lanes[1]).isEqualTo(lanes[0]);
+  }
+
+  @Test
+  public void unrelatedEventsAreSpreadOverLanes() {
+    int[] lanes = GatewayReceiverCommand.assignLanes(
+        new Object[] {new ThreadIdentifier(MEMBER_ID, 1), new ThreadIdentifier(MEMBER_ID, 2)},
+        new Object[] {"a", "b"}, 2);
+
+    assertThat(lanes).containsExactly(0, 1);
+  }
+
+  /**
+   * Creates a batch of create events for the given keys, all from the same originating thread.
+   */
+  private void createBatch(List<String> keys) throws Exception {
+    when(addPart().getInt()).thenReturn(keys.size());
+    when(addPart().getInt()).thenReturn(1); // batch id
+    when(addPart().getInt()).thenReturn(1); // distributed system id
+    when(addPart().getSerializedForm()).thenReturn(NO_FLAGS); // remove on exception
+    long sequenceId = 0;
+    for (String key : keys) {
+      when(addPart().getInt()).thenReturn(0); // create
+      when(addPart().getObject()).thenReturn(NO_FLAGS); // possible duplicate
+      when(addPart().getString()).thenReturn(REGION_NAME);
+      when(addPart().getObject()).thenReturn(new EventID(MEMBER_ID, 1, sequenceId++));
+      Part keyPart = addPart();
+      when(keyPart.getStringOrObject()).thenReturn(key);
+      when(keyPart.getSerializedForm()).thenReturn(key.getBytes());
+      when(addPart().getSerializedForm()).thenReturn(new byte[1]); // value
+      Part callbackArgExistsPart = addPart();
+      when(callbackArgExistsPart.getObject()).thenReturn(NO_FLAGS);
+      when(callbackArgExistsPart.getSerializedForm()).thenReturn(NO_FLAGS);
+      addPart(); // version timestamp
+    }
+    for (int i = 0; i < parts.size(); i++) {
+      when(message.getPart(i)).thenReturn(parts.get(i));
+    }
+  }
+
+  private Part addPart() {
+    Part part = mock(Part.class);
+    parts.add(part);
+    return part;
+  }
+}
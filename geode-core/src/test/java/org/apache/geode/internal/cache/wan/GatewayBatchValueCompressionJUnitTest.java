@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.apache.geode.internal.Version;
+
+public class GatewayBatchValueCompressionJUnitTest {
+
+  @Test
+  public void compressibleValueRoundTrips() {
+    byte[] value = new byte[4096];
+    Arrays.fill(value, (byte) 'a');
+
+    byte[] compressed = GatewayBatchValueCompression.compress(value);
+
+    assertThat(compressed).isNotNull();
+    assertThat(compressed.length).isLessThan(value.length);
+    assertThat(GatewayBatchValueCompression.decompress(compressed)).isEqualTo(value);
+  }
+
+  @Test
+  public void smallValueIsNotCompressed() {
+    byte[] value = new byte[GatewayBatchValueCompression.MIN_COMPRESSED_VALUE_SIZE - 1];
+
+    assertThat(GatewayBatchValueCompression.compress(value)).isNull();
+  }
+
+  @Test
+  public void incompressibleValueIsNotCompressed() {
+    byte[] value = new byte[4096];
+    new Random(1).nextBytes(value);
+
+    assertThat(GatewayBatchValueCompression.compress(value)).isNull();
+  }
+
+  @Test
+  public void nullValueIsNotCompressed() {
+    assertThat(GatewayBatchValueCompression.compress(null)).isNull();
+  }
+
+  @Test
+  public void currentReceiversUnderstandCompressedValues() {
+    assertThat(GatewayBatchValueCompression.isUnderstoodBy(Version.CURRENT_ORDINAL)).isTrue();
+  }
+
+  @Test
+  public void olderReceiversDoNotUnderstandCompressedValues() {
+    assertThat(GatewayBatchValueCompression.isUnderstoodBy(Version.GEODE_180.ordinal())).isFalse();
+  }
+
+  @Test
+  public void unknownReceiverVersionDoesNotUnderstandCompressedValues() {
+    assertThat(GatewayBatchValueCompression.isUnderstoodBy((short) -1)).isFalse();
+  }
+}
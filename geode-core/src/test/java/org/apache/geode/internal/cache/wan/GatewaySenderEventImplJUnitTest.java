@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.wan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Operation;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.wan.parallel.ParallelGatewaySenderHelper;
+import org.apache.geode.internal.offheap.MemoryAllocator;
+import org.apache.geode.internal.offheap.MemoryAllocatorImpl;
+import org.apache.geode.internal.offheap.NullOffHeapMemoryStats;
+import org.apache.geode.internal.offheap.NullOutOfOffHeapMemoryListener;
+import org.apache.geode.internal.offheap.SlabImpl;
+import org.apache.geode.test.fake.Fakes;
+import org.apache.geode.test.junit.categories.WanTest;
+
+@Category({WanTest.class})
+public class GatewaySenderEventImplJUnitTest {
+
+  private MemoryAllocatorImpl allocator;
+
+  private GemFireCacheImpl cache;
+
+  private LocalRegion region;
+
+  @Before
+  public void setUp() {
+    allocator = MemoryAllocatorImpl.createForUnitTest(new NullOutOfOffHeapMemoryListener(),
+        new NullOffHeapMemoryStats(), new SlabImpl[] {new SlabImpl(1024 * 1024)});
+    cache = Fakes.cache();
+    when(cache.getOffHeapStore()).thenReturn(allocator);
+    region = mock(LocalRegion.class);
+    when(region.getFullPath()).thenReturn("/dataStoreRegion");
+    when(region.getCache()).thenReturn(cache);
+  }
+
+  @After
+  public void tearDown() {
+    MemoryAllocatorImpl.freeOffHeapMemory();
+  }
+
+  @Test
+  public void queuedEventKeepsItsValueOffHeapUntilReleased() throws Exception {
+    GatewaySenderEventImpl event = ParallelGatewaySenderHelper.createGatewaySenderEvent(region,
+        Operation.UPDATE, "key", "value", 1, 1);
+    byte[] serializedValue = event.getSerializedValue();
+
+    assertThat(event.storeValueOffHeap(0)).isTrue();
+    long usedMemory = allocator.getUsedMemory();
+    assertThat(usedMemory).isPositive();
+
+    // what the queue does with the event while it is queued
+    assertThat(event.getSerializedValue()).isEqualTo(serializedValue);
+    assertThat(event.getDeserializedValue()).isEqualTo("value");
+    assertThat(event.getValueToConflate()).isEqualTo("value");
+    assertThat(event.getSerializedValueSize()).isEqualTo((int) usedMemory);
+    event.getSizeInBytes();
+    event.toData(new HeapDataOutputStream(Version.CURRENT));
+    GatewaySenderEventImpl copy = event.makeHeapCopyIfOffHeap();
+    assertThat(copy.getSerializedValue()).isEqualTo(serializedValue);
+
+    // the value is still only held off-heap, so the event still has to be copied
+    assertThat(event.makeHeapCopyIfOffHeap()).isNotSameAs(event);
+    assertThat(allocator.getUsedMemory()).isEqualTo(usedMemory);
+
+    event.release();
+
+    assertThat(allocator.getUsedMemory()).isZero();
+    assertThat(event.makeHeapCopyIfOffHeap()).isNull();
+    assertThatThrownBy(event::getSerializedValue).isInstanceOf(IllegalStateException.class);
+    assertThat(copy.getSerializedValue()).isEqualTo(serializedValue);
+  }
+
+  @Test
+  public void sizeOfValueStoredOffHeapIsTheOffHeapSize() throws Exception {
+    GatewaySenderEventImpl event = ParallelGatewaySenderHelper.createGatewaySenderEvent(region,
+        Operation.UPDATE, "key", "value", 1, 1);
+    // computes and keeps the size of the heap form
+    event.getSizeInBytes();
+
+    event.storeValueOffHeap(0);
+
+    assertThat(event.getSerializedValueSize()).isEqualTo((int) allocator.getUsedMemory());
+    event.release();
+  }
+
+  @Test
+  public void valueStaysOnHeapIfNoChunkIsLargeEnough() throws Exception {
+    MemoryAllocator fragmented = mock(MemoryAllocator.class);
+    when(fragmented.getTotalMemory()).thenReturn(1024L * 1024);
+    when(fragmented.getFreeMemory()).thenReturn(1024L * 1024);
+    when(cache.getOffHeapStore()).thenReturn(fragmented);
+    GatewaySenderEventImpl event = ParallelGatewaySenderHelper.createGatewaySenderEvent(region,
+        Operation.UPDATE, "key", "value", 1, 1);
+    byte[] serializedValue = event.getSerializedValue();
+
+    assertThat(event.storeValueOffHeap(0)).isFalse();
+
+    // the allocation which reports the off-heap memory as exhausted is not used
+    verify(fragmented, never()).allocateAndInitialize(any(), anyBoolean(), anyBoolean());
+    assertThat(event.makeHeapCopyIfOffHeap()).isSameAs(event);
+    assertThat(event.getSerializedValue()).isEqualTo(serializedValue);
+  }
+}
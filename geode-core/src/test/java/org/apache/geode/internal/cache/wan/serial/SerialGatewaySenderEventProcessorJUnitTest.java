@@ -15,25 +15,33 @@
 package org.apache.geode.internal.cache.wan.serial;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.logging.log4j.Logger;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import org.apache.geode.CancelCriterion;
 import org.apache.geode.cache.Operation;
 import org.apache.geode.internal.cache.EntryEventImpl;
 import org.apache.geode.internal.cache.EventID;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.ha.ThreadIdentifier;
 import org.apache.geode.internal.cache.wan.AbstractGatewaySender;
+import org.apache.geode.internal.cache.wan.AbstractGatewaySenderEventProcessor;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
 import org.apache.geode.internal.cache.wan.GatewaySenderStats;
 import org.apache.geode.internal.logging.LogService;
@@ -135,6 +143,43 @@ public class SerialGatewaySenderEventProcessorJUnitTest {
     assertThat(unProcessedTokens).contains("threadID=4;sequenceID=4");
   }
 
+  @Test
+  public void peekWaitsWhileMaxOutstandingBatchesAreUnacknowledged() throws Exception {
+    int originalMaxOutstandingBatches = AbstractGatewaySenderEventProcessor.MAX_OUTSTANDING_BATCHES;
+    AbstractGatewaySenderEventProcessor.MAX_OUTSTANDING_BATCHES = 2;
+    try {
+      when(sender.getStopper()).thenReturn(mock(CancelCriterion.class));
+      addOutstandingBatch(1);
+
+      // below the bound the processor peeks at once
+      this.processor.awaitOutstandingBatches();
+
+      addOutstandingBatch(2);
+      CompletableFuture<Void> peek = CompletableFuture.runAsync(() -> {
+        try {
+          this.processor.awaitOutstandingBatches();
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+      });
+      assertThatThrownBy(() -> peek.get(500, TimeUnit.MILLISECONDS))
+          .isInstanceOf(TimeoutException.class);
+
+      this.processor.handleSuccessBatchAck(1);
+
+      peek.get(30, TimeUnit.SECONDS);
+    } finally {
+      AbstractGatewaySenderEventProcessor.MAX_OUTSTANDING_BATCHES = originalMaxOutstandingBatches;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void addOutstandingBatch(int batchId) {
+    this.processor.getBatchIdToEventsMap().put(batchId,
+        new List[] {new ArrayList<GatewaySenderEventImpl>(),
+            new ArrayList<GatewaySenderEventImpl>()});
+  }
+
   private EventID handlePrimaryEvent() {
     GatewaySenderEventImpl gsei = mock(GatewaySenderEventImpl.class);
     EventID id = mock(EventID.class);
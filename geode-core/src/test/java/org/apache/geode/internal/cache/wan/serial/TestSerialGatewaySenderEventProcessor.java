@@ -31,4 +31,13 @@ public class TestSerialGatewaySenderEventProcessor extends SerialGatewaySenderEv
   protected int getUnprocessedTokensSize() {
     return this.unprocessedTokens.size();
   }
+
+  @Override
+  protected void eventQueueRemove(int size) {
+    // Overridden as there is no RegionQueue.
+  }
+
+  protected void awaitOutstandingBatches() throws InterruptedException {
+    waitForOutstandingBatches();
+  }
 }
@@ -20,6 +20,7 @@ import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -489,6 +490,19 @@ public class FreeListManagerTest {
     verify(ooohml).outOfOffHeapMemory((OutOfOffHeapMemoryException) thrown);
   }
 
+  @Test
+  public void overMaxTryAllocateReturnsNull() {
+    setUpSingleSlabManager();
+    OutOfOffHeapMemoryListener ooohml = mock(OutOfOffHeapMemoryListener.class);
+    when(this.ma.getOutOfOffHeapMemoryListener()).thenReturn(ooohml);
+
+    assertThat(this.freeListManager.tryAllocate(DEFAULT_SLAB_SIZE - 7)).isNull();
+
+    verifyZeroInteractions(ooohml);
+    assertThat(this.freeListManager.getFreeMemory()).isEqualTo(DEFAULT_SLAB_SIZE);
+    assertThat(this.freeListManager.allocate(DEFAULT_SLAB_SIZE - 8)).isNotNull();
+  }
+
   @Test(expected = AssertionError.class)
   public void allocateNegativeThrowsAssertion() {
     setUpSingleSlabManager();
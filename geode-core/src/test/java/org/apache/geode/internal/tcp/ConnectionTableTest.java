@@ -16,16 +16,23 @@
 package org.apache.geode.internal.tcp;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.net.Socket;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import org.apache.geode.CancelCriterion;
 import org.apache.geode.distributed.DistributedMember;
@@ -41,9 +48,12 @@ public class ConnectionTableTest {
   private Socket socket;
   private PeerConnectionFactory factory;
   private Connection connection;
+  private int savedMaxThreadOwnedConnections;
 
   @Before
   public void initConnectionTable() throws Exception {
+    savedMaxThreadOwnedConnections = ConnectionTable.MAX_THREAD_OWNED_CONNECTIONS;
+
     InternalDistributedSystem system = mock(InternalDistributedSystem.class);
     when(system.isShareSockets()).thenReturn(false);
 
@@ -68,6 +78,11 @@ public class ConnectionTableTest {
     when(factory.createReceiver(connectionTable, socket)).thenReturn(connection);
   }
 
+  @After
+  public void restoreMaxThreadOwnedConnections() {
+    ConnectionTable.MAX_THREAD_OWNED_CONNECTIONS = savedMaxThreadOwnedConnections;
+  }
+
   @Test
   public void testConnectionsClosedDuringCreateAreNotAddedAsReceivers() throws Exception {
     when(connection.isReceiverStopped()).thenReturn(false);
@@ -111,4 +126,60 @@ public class ConnectionTableTest {
       }
     }
   }
+
+  @Test
+  public void threadOwnedConnectionIsUsedBelowTheCap() {
+    ConnectionTable.MAX_THREAD_OWNED_CONNECTIONS = 2;
+    DistributedMember member = mock(DistributedMember.class);
+    addThreadOwnedConnections(member, 1);
+
+    assertFalse(connectionTable.useSharedOrderedConnection(member));
+  }
+
+  @Test
+  public void sharedConnectionIsUsedOnceTheCapIsReached() {
+    ConnectionTable.MAX_THREAD_OWNED_CONNECTIONS = 2;
+    DistributedMember member = mock(DistributedMember.class);
+    List<Connection> connections = addThreadOwnedConnections(member, 2);
+
+    assertTrue(connectionTable.useSharedOrderedConnection(member));
+
+    // the thread keeps using the shared connection so that its messages stay in order
+    synchronized (connections) {
+      connections.clear();
+    }
+    assertTrue(connectionTable.useSharedOrderedConnection(member));
+  }
+
+  @Test
+  public void capOfOneMemberDoesNotAffectOtherMembers() {
+    ConnectionTable.MAX_THREAD_OWNED_CONNECTIONS = 1;
+    DistributedMember fullMember = mock(DistributedMember.class);
+    DistributedMember otherMember = mock(DistributedMember.class);
+    addThreadOwnedConnections(fullMember, 1);
+    addThreadOwnedConnections(otherMember, 0);
+
+    assertTrue(connectionTable.useSharedOrderedConnection(fullMember));
+    assertFalse(connectionTable.useSharedOrderedConnection(otherMember));
+  }
+
+  @Test
+  public void threadWithoutConnectionsToTheMemberUsesItsOwn() {
+    ConnectionTable.MAX_THREAD_OWNED_CONNECTIONS = 1;
+
+    assertFalse(connectionTable.useSharedOrderedConnection(mock(DistributedMember.class)));
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Connection> addThreadOwnedConnections(DistributedMember member, int count) {
+    ArrayList<Connection> connections = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      connections.add(mock(Connection.class));
+    }
+    ConcurrentMap<DistributedMember, ArrayList<Connection>> threadConnectionMap =
+        (ConcurrentMap<DistributedMember, ArrayList<Connection>>) ReflectionTestUtils
+            .getField(connectionTable, "threadConnectionMap");
+    threadConnectionMap.put(member, connections);
+    return connections;
+  }
 }
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class WriteCoalescerTest {
+
+  private final WriteCoalescer coalescer = new WriteCoalescer(16, false);
+
+  private final ByteArrayOutputStream channel = new ByteArrayOutputStream();
+
+  private final CountDownLatch writeReleased = new CountDownLatch(1);
+
+  private final CountDownLatch writeStarted = new CountDownLatch(1);
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @After
+  public void tearDown() {
+    writeReleased.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void uncontendedMessageIsNotCoalesced() throws Exception {
+    assertThat(coalescer.coalesce(message("a"))).isFalse();
+  }
+
+  @Test
+  public void messageLargerThanBufferIsNotCoalesced() throws Exception {
+    CompletableFuture<Void> writer = startBlockedWrite("a");
+
+    assertThat(coalescer.coalesce(message("0123456789abcdefg"))).isFalse();
+
+    writeReleased.countDown();
+    writer.get();
+  }
+
+  @Test
+  public void coalescedMessagesAreSentInOrderAfterTheActiveWrite() throws Exception {
+    CompletableFuture<Void> writer = startBlockedWrite("a");
+    CompletableFuture<Boolean> first = coalesceAsync("b");
+    await().until(() -> coalescer.getQueuedBytes() == 1);
+    CompletableFuture<Boolean> second = coalesceAsync("c");
+    await().until(() -> coalescer.getQueuedBytes() == 2);
+
+    // the senders wait for their messages to be written
+    assertThat(first).isNotDone();
+    assertThat(second).isNotDone();
+
+    writeReleased.countDown();
+    writer.get();
+    assertThat(first.get()).isTrue();
+    assertThat(second.get()).isTrue();
+    assertThat(channel.toString()).isEqualTo("abc");
+    assertThat(coalescer.coalesce(message("d"))).isFalse();
+  }
+
+  @Test
+  public void failedWriteIsReportedToQueuedSenders() throws Exception {
+    CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+      try {
+        coalescer.write(message("a"), buffer -> {
+          writeStarted.countDown();
+          awaitRelease();
+          throw new IOException("broken pipe");
+        });
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }, executor);
+    writeStarted.await();
+    CompletableFuture<Boolean> queued = coalesceAsync("b");
+    await().until(() -> coalescer.getQueuedBytes() == 1);
+
+    writeReleased.countDown();
+
+    assertThatThrownBy(writer::get).hasRootCauseMessage("broken pipe");
+    assertThatThrownBy(queued::get).hasRootCauseMessage("broken pipe");
+    // the discarded message is not written by the next writer
+    assertThat(coalescer.getQueuedBytes()).isZero();
+    coalescer.write(message("c"), this::writeToChannel);
+    assertThat(channel.toString()).isEqualTo("c");
+  }
+
+  @Test
+  public void failedWriteOfCoalescedMessagesIsReportedToTheirSenders() throws Exception {
+    CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+      try {
+        coalescer.write(message("a"), buffer -> {
+          if (writeStarted.getCount() > 0) {
+            writeStarted.countDown();
+            awaitRelease();
+            writeToChannel(buffer);
+          } else {
+            throw new IOException("broken pipe");
+          }
+        });
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }, executor);
+    writeStarted.await();
+    CompletableFuture<Boolean> queued = coalesceAsync("b");
+    await().until(() -> coalescer.getQueuedBytes() == 1);
+
+    writeReleased.countDown();
+
+    assertThatThrownBy(writer::get).hasRootCauseMessage("broken pipe");
+    assertThatThrownBy(queued::get).hasRootCauseMessage("broken pipe");
+    assertThat(channel.toString()).isEqualTo("a");
+    assertThat(coalescer.coalesce(message("c"))).isFalse();
+  }
+
+  /**
+   * Starts writing the given message on another thread, which blocks in the write until
+   * {@link #writeReleased} is counted down and then writes everything it is given.
+   */
+  private CompletableFuture<Void> startBlockedWrite(String text) throws InterruptedException {
+    CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+      try {
+        coalescer.write(message(text), buffer -> {
+          writeStarted.countDown();
+          awaitRelease();
+          writeToChannel(buffer);
+        });
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }, executor);
+    writeStarted.await();
+    return writer;
+  }
+
+  private CompletableFuture<Boolean> coalesceAsync(String text) {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return coalescer.coalesce(message(text));
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }, executor);
+  }
+
+  private void awaitRelease() throws IOException {
+    try {
+      writeReleased.await();
+    } catch (InterruptedException e) {
+      throw new IOException(e);
+    }
+  }
+
+  private void writeToChannel(ByteBuffer buffer) {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer.get());
+    }
+  }
+
+  private static ByteBuffer message(String text) {
+    return ByteBuffer.wrap(text.getBytes());
+  }
+}
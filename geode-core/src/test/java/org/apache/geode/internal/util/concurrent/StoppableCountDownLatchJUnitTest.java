@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.apache.geode.CancelCriterion;
+
+/**
+ * Unit tests for {@link StoppableCountDownLatch#spinAwait(long)}.
+ */
+public class StoppableCountDownLatchJUnitTest {
+
+  private final StoppableCountDownLatch latch =
+      new StoppableCountDownLatch(mock(CancelCriterion.class), 1);
+
+  @Test
+  public void spinAwaitReturnsTrueForOpenLatch() {
+    latch.countDown();
+
+    assertThat(latch.spinAwait(0)).isTrue();
+  }
+
+  @Test
+  public void spinAwaitReturnsFalseAfterTimeout() {
+    long timeout = TimeUnit.MILLISECONDS.toNanos(50);
+    long start = System.nanoTime();
+
+    assertThat(latch.spinAwait(timeout)).isFalse();
+    assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(timeout);
+    assertThat(latch.getCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void spinAwaitReturnsTrueWhenLatchOpensWhileSpinning() throws Exception {
+    Thread opener = new Thread(() -> {
+      try {
+        Thread.sleep(10);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      latch.countDown();
+    });
+    opener.start();
+    try {
+      assertThat(latch.spinAwait(TimeUnit.SECONDS.toNanos(30))).isTrue();
+    } finally {
+      opener.join();
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Field;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.pdx.internal.AutoSerializableManager.FieldWrapper;
+import org.apache.geode.pdx.internal.AutoSerializableManager.MethodHandleFieldWrapper;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category(SerializationTest.class)
+public class MethodHandleFieldWrapperTest {
+
+  @SuppressWarnings("unused")
+  private static class Fields {
+    private boolean booleanField;
+    private byte byteField;
+    private short shortField;
+    private char charField;
+    private int intField;
+    private long longField;
+    private float floatField;
+    private double doubleField;
+    private String stringField;
+    private Object objectField;
+    private final String finalField = "initial";
+  }
+
+  private final Fields fields = new Fields();
+
+  @Test
+  public void primitiveFieldsAreReadAndWritten() throws Exception {
+    wrapper("booleanField").setBoolean(fields, true);
+    wrapper("byteField").setByte(fields, (byte) 1);
+    wrapper("shortField").setShort(fields, (short) 2);
+    wrapper("charField").setChar(fields, 'c');
+    wrapper("intField").setInt(fields, 3);
+    wrapper("longField").setLong(fields, 4L);
+    wrapper("floatField").setFloat(fields, 5.0f);
+    wrapper("doubleField").setDouble(fields, 6.0);
+
+    assertThat(fields.booleanField).isTrue();
+    assertThat(wrapper("booleanField").getBoolean(fields)).isTrue();
+    assertThat(wrapper("byteField").getByte(fields)).isEqualTo((byte) 1);
+    assertThat(wrapper("shortField").getShort(fields)).isEqualTo((short) 2);
+    assertThat(wrapper("charField").getChar(fields)).isEqualTo('c');
+    assertThat(wrapper("intField").getInt(fields)).isEqualTo(3);
+    assertThat(fields.intField).isEqualTo(3);
+    assertThat(wrapper("longField").getLong(fields)).isEqualTo(4L);
+    assertThat(wrapper("floatField").getFloat(fields)).isEqualTo(5.0f);
+    assertThat(wrapper("doubleField").getDouble(fields)).isEqualTo(6.0);
+  }
+
+  @Test
+  public void primitiveFieldsAreReadAndWrittenBoxed() throws Exception {
+    wrapper("intField").setObject(fields, 7);
+    wrapper("doubleField").setObject(fields, 8.0);
+
+    assertThat(fields.intField).isEqualTo(7);
+    assertThat(wrapper("intField").getObject(fields)).isEqualTo(7);
+    assertThat(wrapper("doubleField").getObject(fields)).isEqualTo(8.0);
+  }
+
+  @Test
+  public void referenceFieldsAreReadAndWritten() throws Exception {
+    wrapper("stringField").setObject(fields, "value");
+    wrapper("objectField").setObject(fields, 9L);
+
+    assertThat(fields.stringField).isEqualTo("value");
+    assertThat(wrapper("stringField").getObject(fields)).isEqualTo("value");
+    assertThat(wrapper("objectField").getObject(fields)).isEqualTo(9L);
+  }
+
+  @Test
+  public void fieldsAreAccessedThroughMethodHandles() throws Exception {
+    assertThat(wrapper("intField")).isInstanceOf(MethodHandleFieldWrapper.class);
+    assertThat(wrapper("stringField")).isInstanceOf(MethodHandleFieldWrapper.class);
+  }
+
+  @Test
+  public void finalFieldIsStillRead() throws Exception {
+    assertThat(wrapper("finalField").getObject(fields)).isEqualTo("initial");
+  }
+
+  @Test
+  public void valueOfWrongTypeIsRejected() throws Exception {
+    assertThatThrownBy(() -> wrapper("stringField").setObject(fields, 10))
+        .isInstanceOf(ClassCastException.class);
+  }
+
+  private static FieldWrapper wrapper(String name) throws NoSuchFieldException {
+    Field field = Fields.class.getDeclaredField(name);
+    // as the auto serializer does before wrapping a field
+    field.setAccessible(true);
+    return MethodHandleFieldWrapper.create(field);
+  }
+}
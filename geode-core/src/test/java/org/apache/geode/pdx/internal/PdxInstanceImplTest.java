@@ -26,6 +26,7 @@ import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import org.apache.commons.lang3.StringUtils;
@@ -333,6 +334,19 @@ public class PdxInstanceImplTest {
     assertEquals(true, instance.isIdentityField(booleanArrayField.getFieldName()));
   }
 
+  @Test
+  public void testGetRawFieldFromDirectBuffer() {
+    byte[] bytes = ((PdxInstanceImpl) instance).toBytes();
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+    direct.put(bytes);
+    direct.position(PdxWriterImpl.HEADER_SIZE);
+    PdxInstanceImpl directInstance = new PdxInstanceImpl(pdxType, new PdxInputStream(direct),
+        bytes.length - PdxWriterImpl.HEADER_SIZE);
+
+    assertEquals(new PdxString("MOOF!"), directInstance.getRawField(stringField.getFieldName()));
+    assertEquals(37, directInstance.getRawField(intField.getFieldName()));
+  }
+
   private static class SerializableObject implements Serializable {
     String name;
 
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({SerializationTest.class})
+public class TypeRegistryTest {
+
+  private static final int TYPE_ID = 5;
+
+  private final TypeRegistration distributedTypeRegistry = mock(TypeRegistration.class);
+
+  private TypeRegistry typeRegistry;
+
+  @Before
+  public void setUp() {
+    when(distributedTypeRegistry.defineType(any())).thenReturn(TYPE_ID);
+    typeRegistry = new TypeRegistry(mock(InternalCache.class), distributedTypeRegistry);
+  }
+
+  @Test
+  public void firstFactoryTypeOfAShapeIsRegisteredAndReturned() {
+    PdxType type = createFactoryType("name");
+
+    assertThat(typeRegistry.defineLocalType(null, type)).isSameAs(type);
+    assertThat(type.getTypeId()).isEqualTo(TYPE_ID);
+  }
+
+  @Test
+  public void factoryTypesOfTheSameShapeShareTheRegisteredType() {
+    PdxType registered = typeRegistry.defineLocalType(null, createFactoryType("name"));
+
+    PdxType sameShape = createFactoryType("name");
+    assertThat(typeRegistry.defineLocalType(null, sameShape)).isSameAs(registered);
+    assertThat(sameShape.getTypeId()).isEqualTo(TYPE_ID);
+    verify(distributedTypeRegistry, times(1)).defineType(any());
+  }
+
+  @Test
+  public void factoryTypeOfAnotherShapeIsNotShared() {
+    PdxType registered = typeRegistry.defineLocalType(null, createFactoryType("name"));
+    when(distributedTypeRegistry.defineType(any())).thenReturn(TYPE_ID + 1);
+
+    PdxType otherShape = createFactoryType("other");
+    assertThat(typeRegistry.defineLocalType(null, otherShape)).isSameAs(otherShape)
+        .isNotSameAs(registered);
+  }
+
+  @Test
+  public void typeOfADomainObjectIsReturnedForItsClass() {
+    PdxType type = new PdxType(String.class.getName(), true);
+    type.addField(new PdxField("name", 0, 0, FieldType.STRING, false));
+
+    assertThat(typeRegistry.defineLocalType("object", type)).isSameAs(type);
+    assertThat(typeRegistry.defineLocalType("another object", new PdxType(String.class.getName(),
+        true))).isSameAs(type);
+  }
+
+  private static PdxType createFactoryType(String fieldName) {
+    PdxType type = new PdxType("Document", false);
+    type.addField(new PdxField(fieldName, 0, 0, FieldType.STRING, false));
+    return type;
+  }
+}
@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.cq.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.internal.AttributeDescriptor;
+import org.apache.geode.cache.query.internal.CompiledComparison;
+import org.apache.geode.cache.query.internal.CompiledID;
+import org.apache.geode.cache.query.internal.CompiledIteratorDef;
+import org.apache.geode.cache.query.internal.CompiledJunction;
+import org.apache.geode.cache.query.internal.CompiledLiteral;
+import org.apache.geode.cache.query.internal.CompiledPath;
+import org.apache.geode.cache.query.internal.CompiledSelect;
+import org.apache.geode.cache.query.internal.CompiledValue;
+import org.apache.geode.cache.query.internal.MethodInvocationAuthorizer;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.pdx.internal.PdxString;
+
+/**
+ * Narrows the CQs which have to be evaluated against an event.
+ *
+ * For every CQ whose WHERE clause is, or is a conjunction containing, an equality between an
+ * attribute path of the iterator and a literal (for example <code>t.symbol = 'IBM'</code>), the
+ * CQ is indexed by the path and the literal. The CQ can only match a value whose attribute equals
+ * the literal, so the index returns it as a candidate only for such values. CQs without such a
+ * term are always candidates.
+ *
+ * An index is immutable and is built for a snapshot of the CQs of a filter profile.
+ */
+class CqPredicateIndex<T> {
+
+  private final Object snapshot;
+
+  private final List<T> unindexed = new ArrayList<>();
+
+  private final Map<List<String>, PathIndex<T>> pathIndexes = new HashMap<>();
+
+  private final MethodInvocationAuthorizer authorizer;
+
+  /**
+   * @param snapshot the snapshot of the CQs this index is built for
+   * @param cqs the CQs to index
+   * @param selectOf returns the compiled query of a CQ, or null if it is not known
+   * @param authorizer the authorizer used when reading the indexed attributes of values
+   */
+  CqPredicateIndex(Object snapshot, Collection<T> cqs, Function<T, CompiledSelect> selectOf,
+      MethodInvocationAuthorizer authorizer) {
+    this.snapshot = snapshot;
+    this.authorizer = authorizer;
+    for (T cq : cqs) {
+      if (cq == null) {
+        continue;
+      }
+      EqualityTerm term = null;
+      CompiledSelect select = selectOf.apply(cq);
+      if (select != null) {
+        term = findEqualityTerm(select);
+      }
+      if (term == null) {
+        unindexed.add(cq);
+      } else {
+        pathIndexes.computeIfAbsent(term.path, p -> new PathIndex<>(p, authorizer)).add(term.key,
+            cq);
+      }
+    }
+  }
+
+  boolean isFor(Object snapshot) {
+    return this.snapshot == snapshot;
+  }
+
+  /**
+   * Returns the CQs which may match the new or the old value of an event.
+   *
+   * @param newValue the new value, or null if there is none
+   * @param oldValue the old value if the CQs have to be evaluated against it, otherwise null
+   */
+  Collection<T> getCandidates(Object newValue, Object oldValue) {
+    if (pathIndexes.isEmpty()) {
+      return unindexed;
+    }
+    Set<T> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+    candidates.addAll(unindexed);
+    for (PathIndex<T> pathIndex : pathIndexes.values()) {
+      if (newValue != null) {
+        pathIndex.addCandidates(newValue, candidates);
+      }
+      if (oldValue != null) {
+        pathIndex.addCandidates(oldValue, candidates);
+      }
+    }
+    return candidates;
+  }
+
+  /**
+   * Returns the equality term of the WHERE clause of the given CQ query which every matching value
+   * has to satisfy, or null if there is none.
+   */
+  static EqualityTerm findEqualityTerm(CompiledSelect select) {
+    List iterators = select.getIterators();
+    if (iterators == null || iterators.size() != 1 || select.getWhereClause() == null) {
+      return null;
+    }
+    String iteratorName = ((CompiledIteratorDef) iterators.get(0)).getName();
+    return findEqualityTerm(select.getWhereClause(), iteratorName);
+  }
+
+  private static EqualityTerm findEqualityTerm(CompiledValue condition, String iteratorName) {
+    if (condition instanceof CompiledJunction) {
+      CompiledJunction junction = (CompiledJunction) condition;
+      if (junction.getOperator() != OQLLexerTokenTypes.LITERAL_and) {
+        return null;
+      }
+      for (Object operand : junction.getChildren()) {
+        EqualityTerm term = findEqualityTerm((CompiledValue) operand, iteratorName);
+        if (term != null) {
+          return term;
+        }
+      }
+      return null;
+    }
+    // subclasses such as LIKE have different semantics
+    if (condition == null || condition.getClass() != CompiledComparison.class) {
+      return null;
+    }
+    CompiledComparison comparison = (CompiledComparison) condition;
+    if (comparison.getOperator() != OQLLexerTokenTypes.TOK_EQ) {
+      return null;
+    }
+    EqualityTerm term = createTerm(comparison._left, comparison._right, iteratorName);
+    return term != null ? term : createTerm(comparison._right, comparison._left, iteratorName);
+  }
+
+  private static EqualityTerm createTerm(CompiledValue path, CompiledValue literal,
+      String iteratorName) {
+    if (!(literal instanceof CompiledLiteral)) {
+      return null;
+    }
+    Object key;
+    try {
+      key = normalize(literal.evaluate(null));
+    } catch (Exception e) {
+      return null;
+    }
+    List<String> attributes = getAttributePath(path, iteratorName);
+    if (key == null || attributes == null) {
+      return null;
+    }
+    return new EqualityTerm(attributes, key);
+  }
+
+  /**
+   * Returns the attributes read from the iterator by the given path expression, or null if it is
+   * not such an expression.
+   */
+  private static List<String> getAttributePath(CompiledValue path, String iteratorName) {
+    LinkedList<String> attributes = new LinkedList<>();
+    CompiledValue receiver = path;
+    while (receiver instanceof CompiledPath) {
+      attributes.addFirst(((CompiledPath) receiver).getTailID());
+      receiver = ((CompiledPath) receiver).getReceiver();
+    }
+    if (!(receiver instanceof CompiledID)) {
+      return null;
+    }
+    String id = ((CompiledID) receiver).getId();
+    if (!id.equals(iteratorName)) {
+      // an implicit attribute of the iterator
+      attributes.addFirst(id);
+    }
+    return attributes.isEmpty() ? null : new ArrayList<>(attributes);
+  }
+
+  /**
+   * Returns the key under which values equal in the query language are indexed, or null if values
+   * of this type are not indexed.
+   */
+  static Object normalize(Object value) {
+    if (value instanceof String) {
+      return value;
+    }
+    if (value instanceof PdxString) {
+      return value.toString();
+    }
+    if (value instanceof Long || value instanceof Integer || value instanceof Short
+        || value instanceof Byte) {
+      return ((Number) value).longValue();
+    }
+    if (value instanceof Boolean) {
+      return value;
+    }
+    return null;
+  }
+
+  static class EqualityTerm {
+    final List<String> path;
+    final Object key;
+
+    EqualityTerm(List<String> path, Object key) {
+      this.path = path;
+      this.key = key;
+    }
+  }
+
+  /**
+   * The CQs indexed on one attribute path, by the normalized literal they compare it with.
+   */
+  private static class PathIndex<T> {
+    private final AttributeDescriptor[] attributes;
+
+    private final Map<Object, List<T>> cqsByKey = new HashMap<>();
+
+    /** the CQs on this path by the type of their normalized literal */
+    private final Map<Class<?>, List<T>> cqsByKeyType = new HashMap<>();
+
+    PathIndex(List<String> path, MethodInvocationAuthorizer authorizer) {
+      this.attributes = new AttributeDescriptor[path.size()];
+      for (int i = 0; i < attributes.length; i++) {
+        attributes[i] = new AttributeDescriptor(authorizer, path.get(i));
+      }
+    }
+
+    void add(Object key, T cq) {
+      cqsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(cq);
+      cqsByKeyType.computeIfAbsent(key.getClass(), k -> new ArrayList<>()).add(cq);
+    }
+
+    void addCandidates(Object value, Set<T> candidates) {
+      Object attribute;
+      try {
+        attribute = value;
+        for (AttributeDescriptor descriptor : attributes) {
+          attribute = descriptor.read(attribute);
+        }
+      } catch (Exception e) {
+        // let the evaluation of the CQs handle the failure
+        addAll(candidates);
+        return;
+      }
+      if (attribute == null || attribute == QueryService.UNDEFINED) {
+        // null or undefined is never equal to a literal
+        return;
+      }
+      Object key = normalize(attribute);
+      if (key == null) {
+        // the comparison semantics for this type are left to the evaluation of the CQs
+        addAll(candidates);
+        return;
+      }
+      List<T> matching = cqsByKey.get(key);
+      if (matching != null) {
+        candidates.addAll(matching);
+      }
+      // comparing with a literal of another type may fail, which is reported by the evaluation
+      for (Map.Entry<Class<?>, List<T>> entry : cqsByKeyType.entrySet()) {
+        if (entry.getKey() != key.getClass()) {
+          candidates.addAll(entry.getValue());
+        }
+      }
+    }
+
+    private void addAll(Set<T> candidates) {
+      for (List<T> cqs : cqsByKeyType.values()) {
+        candidates.addAll(cqs);
+      }
+    }
+  }
+}
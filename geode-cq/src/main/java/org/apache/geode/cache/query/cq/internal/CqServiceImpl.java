@@ -20,11 +20,16 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.logging.log4j.Logger;
 
@@ -51,6 +56,7 @@ import org.apache.geode.cache.query.CqListener;
 import org.apache.geode.cache.query.CqQuery;
 import org.apache.geode.cache.query.CqServiceStatistics;
 import org.apache.geode.cache.query.CqStatusListener;
+import org.apache.geode.cache.query.Query;
 import org.apache.geode.cache.query.QueryException;
 import org.apache.geode.cache.query.QueryInvalidException;
 import org.apache.geode.cache.query.RegionNotFoundException;
@@ -61,6 +67,7 @@ import org.apache.geode.cache.query.internal.CqQueryVsdStats;
 import org.apache.geode.cache.query.internal.CqStateImpl;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.cache.query.internal.InternalQueryService;
 import org.apache.geode.cache.query.internal.cq.ClientCQ;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.query.internal.cq.InternalCqQuery;
@@ -80,6 +87,8 @@ import org.apache.geode.internal.cache.tier.sockets.CacheClientProxy;
 import org.apache.geode.internal.cache.tier.sockets.ClientProxyMembershipID;
 import org.apache.geode.internal.cache.tier.sockets.Part;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingExecutors;
+import org.apache.geode.internal.util.concurrent.CopyOnWriteHashMap;
 
 /**
  * Implements the CqService functionality.
@@ -101,6 +110,27 @@ public class CqServiceImpl implements CqService {
   public static boolean EXECUTE_QUERY_DURING_INIT = Boolean.valueOf(System
       .getProperty(DistributionConfig.GEMFIRE_PREFIX + "cq.EXECUTE_QUERY_DURING_INIT", "true"));
 
+  /**
+   * System property to narrow the CQs evaluated against an event using an index of the equality
+   * terms of their WHERE clauses.
+   */
+  static final boolean USE_PREDICATE_INDEX =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "cq.USE_PREDICATE_INDEX");
+
+  /**
+   * System property to evaluate the CQs of an event in parallel, using up to this many threads in
+   * addition to the thread applying the event. By default CQs are evaluated on that thread only.
+   */
+  static int EVALUATION_THREADS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "cq.EVALUATION_THREADS", 0);
+
+  /**
+   * System property for the number of distinct CQ queries an event has to be evaluated against
+   * before the evaluation is spread over the evaluation threads.
+   */
+  static int PARALLEL_EVALUATION_THRESHOLD = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "cq.PARALLEL_EVALUATION_THRESHOLD", 64);
+
   private static final String CQ_NAME_PREFIX = "GfCq";
 
   private final InternalCache cache;
@@ -130,6 +160,17 @@ public class CqServiceImpl implements CqService {
   // With query as key and Set of CQs as values.
   private final ConcurrentHashMap matchingCqMap;
 
+  /**
+   * The predicate index of the CQs of each filter profile, used when USE_PREDICATE_INDEX is set.
+   *
+   * GuardedBy predicateIndexes
+   */
+  private final WeakHashMap<FilterProfile, CqPredicateIndex<ServerCQImpl>> predicateIndexes =
+      new WeakHashMap<>();
+
+  /** GuardedBy this */
+  private ExecutorService evaluationPool;
+
   // CQ Service statistics
   private final CqServiceStatisticsImpl cqServiceStats;
   private final CqServiceVsdStats stats;
@@ -849,6 +890,12 @@ public class CqServiceImpl implements CqService {
     // Need to take care when Clients are still connected...
     closeAllCqs(false);
     isRunning = false;
+    synchronized (this) {
+      if (this.evaluationPool != null) {
+        this.evaluationPool.shutdown();
+        this.evaluationPool = null;
+      }
+    }
   }
 
   @Override
@@ -1256,9 +1303,6 @@ public class CqServiceImpl implements CqService {
     final boolean isDebugEnabled = logger.isDebugEnabled();
     HashSet<Object> cqUnfilteredEventsSet_newValue = new HashSet<>();
     HashSet<Object> cqUnfilteredEventsSet_oldValue = new HashSet<>();
-    boolean b_cqResults_newValue;
-    boolean b_cqResults_oldValue;
-    boolean queryOldValue;
     EntryEvent entryEvent = (EntryEvent) event;
     Object eventKey = entryEvent.getKey();
 
@@ -1273,7 +1317,6 @@ public class CqServiceImpl implements CqService {
         || (event.getOperation().isCreate() && isDupEvent));
 
     HashMap<String, Integer> matchedCqs = new HashMap<>();
-    long executionStartTime;
     for (int i = -1; i < profiles.length; i++) {
       CacheProfile cf;
       if (i < 0) {
@@ -1308,15 +1351,34 @@ public class CqServiceImpl implements CqService {
         }
       }
 
+      Collection<?> cqsToProcess = cqs.values();
+      if (USE_PREDICATE_INDEX) {
+        Object newValue = cqUnfilteredEventsSet_newValue.isEmpty() ? null
+            : cqUnfilteredEventsSet_newValue.iterator().next();
+        Object oldValue = null;
+        if (opRequiringQueryOnOldValue) {
+          oldValue = entryEvent.getOldValue();
+        }
+        // without the old value any CQ may hold the key in its results
+        if (!opRequiringQueryOnOldValue || oldValue != null) {
+          cqsToProcess = getPredicateIndex(pf).getCandidates(newValue, oldValue);
+          if (isDebugEnabled) {
+            logger.debug("Evaluating {} of {} CQs for key {}", cqsToProcess.size(), cqs.size(),
+                eventKey);
+          }
+        }
+      }
+
+      if (EVALUATION_THREADS > 0 && cqsToProcess.size() >= PARALLEL_EVALUATION_THRESHOLD) {
+        evaluateCqsInParallel(cqsToProcess, entryEvent, eventKey, cqUnfilteredEventsSet_newValue,
+            cqUnfilteredEventsSet_oldValue, opRequiringQueryOnOldValue, matchedCqs);
+      }
+
       HashMap<Long, Integer> cqInfo = new HashMap<>();
-      Iterator cqIter = cqs.entrySet().iterator();
+      Iterator cqIter = cqsToProcess.iterator();
 
       while (cqIter.hasNext()) {
-        Map.Entry cqEntry = (Map.Entry) cqIter.next();
-        ServerCQImpl cQuery = (ServerCQImpl) cqEntry.getValue();
-        b_cqResults_newValue = false;
-        b_cqResults_oldValue = false;
-        queryOldValue = false;
+        ServerCQImpl cQuery = (ServerCQImpl) cqIter.next();
         if (cQuery == null) {
           continue;
         }
@@ -1344,104 +1406,8 @@ public class CqServiceImpl implements CqService {
             cQuery.markAsDestroyedInCqResultKeys(eventKey);
           }
         } else {
-          boolean error = false;
-          {
-            try {
-              synchronized (cQuery) {
-                // Apply query on new value.
-                if (!cqUnfilteredEventsSet_newValue.isEmpty()) {
-                  executionStartTime = this.stats.startCqQueryExecution();
-
-                  b_cqResults_newValue =
-                      evaluateQuery(cQuery, new Object[] {cqUnfilteredEventsSet_newValue});
-                  this.stats.endCqQueryExecution(executionStartTime);
-                }
-              }
-
-              // In case of Update, destroy and invalidate.
-              // Apply query on oldValue.
-              if (opRequiringQueryOnOldValue) {
-                // Check if CQ Result is cached, if not apply query on old
-                // value. Currently the CQ Results are not cached for the
-                // Partitioned Regions. Once this is added remove the check
-                // with PR region.
-                if (cQuery.cqResultKeysInitialized) {
-                  b_cqResults_oldValue = cQuery.isPartOfCqResult(eventKey);
-                  // For PR if not found in cache, apply the query on old value.
-                  // Also apply if the query was not executed during cq execute
-                  if ((cQuery.isPR || !CqServiceImpl.EXECUTE_QUERY_DURING_INIT)
-                      && b_cqResults_oldValue == false) {
-                    queryOldValue = true;
-                  }
-                  if (isDebugEnabled && !cQuery.isPR && !b_cqResults_oldValue) {
-                    logger.debug(
-                        "Event Key not found in the CQ Result Queue. EventKey : {} CQ Name : {}",
-                        eventKey, cqName);
-                  }
-                } else {
-                  queryOldValue = true;
-                }
-
-                if (queryOldValue) {
-                  if (cqUnfilteredEventsSet_oldValue.isEmpty()) {
-                    Object oldValue = entryEvent.getOldValue();
-                    if (oldValue != null) {
-                      cqUnfilteredEventsSet_oldValue.add(oldValue);
-                    }
-                  }
-
-                  synchronized (cQuery) {
-                    // Apply query on old value.
-                    if (!cqUnfilteredEventsSet_oldValue.isEmpty()) {
-                      executionStartTime = this.stats.startCqQueryExecution();
-                      b_cqResults_oldValue =
-                          evaluateQuery(cQuery, new Object[] {cqUnfilteredEventsSet_oldValue});
-                      this.stats.endCqQueryExecution(executionStartTime);
-                    } else {
-                      if (isDebugEnabled) {
-                        logger.debug(
-                            "old value for event with key {} is null - query execution not performed",
-                            eventKey);
-                      }
-                    }
-                  }
-                } // Query oldValue
-
-              }
-            } catch (Exception ex) {
-              // Any exception in running the query should be caught here and
-              // buried because this code is running in-line with the message
-              // processing code and we don't want to kill that thread
-              error = true;
-              // CHANGE LOG MESSAGE:
-              logger.info("Error while processing CQ on the event, key : {} CqName: {}, Error: {}",
-                  new Object[] {((EntryEvent) event).getKey(), cQuery.getName(),
-                      ex.getLocalizedMessage()});
-            }
-
-            if (error) {
-              cqEvent = MESSAGE_TYPE_EXCEPTION;
-            } else {
-              if (b_cqResults_newValue) {
-                if (b_cqResults_oldValue) {
-                  cqEvent = MESSAGE_TYPE_LOCAL_UPDATE;
-                } else {
-                  cqEvent = MESSAGE_TYPE_LOCAL_CREATE;
-                }
-                // If its create and caching is enabled, cache the key
-                // for this CQ.
-                cQuery.addToCqResultKeys(eventKey);
-              } else if (b_cqResults_oldValue) {
-                // Base invalidate operation is treated as destroy.
-                // When the invalidate comes through, the entry will no longer
-                // satisfy the query and will need to be deleted.
-                cqEvent = MESSAGE_TYPE_LOCAL_DESTROY;
-                // If caching is enabled, mark this event's key as removed
-                // from the CQ cache.
-                cQuery.markAsDestroyedInCqResultKeys(eventKey);
-              }
-            }
-          }
+          cqEvent = evaluateCqForEvent(cQuery, entryEvent, eventKey, cqUnfilteredEventsSet_newValue,
+              cqUnfilteredEventsSet_oldValue, opRequiringQueryOnOldValue);
 
           // Get the matching CQs if any.
           // synchronized (this.matchingCqMap){
@@ -1490,6 +1456,245 @@ public class CqServiceImpl implements CqService {
     } // iteration over Profiles.
   }
 
+  /**
+   * Evaluates the CQs not yet in matchedCqs against an event, spread over the evaluation threads
+   * and this thread, and adds their CQ events to matchedCqs. As in the sequential evaluation, only
+   * one CQ per distinct query is evaluated and the other CQs with the same query share its result.
+   * CQs whose evaluation failed unexpectedly are left out, so that they are evaluated inline. The
+   * old value is retrieved from the event on this thread before the evaluations start, and each
+   * evaluation thread gets its own copies of the value sets.
+   */
+  void evaluateCqsInParallel(Collection<?> cqs, EntryEvent entryEvent, Object eventKey,
+      Set<Object> newValueSet, Set<Object> oldValueSet, boolean opRequiringQueryOnOldValue,
+      Map<String, Integer> matchedCqs) {
+    Map<String, ServerCQImpl> cqPerQuery = new LinkedHashMap<>();
+    for (Object cq : cqs) {
+      ServerCQImpl cQuery = (ServerCQImpl) cq;
+      if (cQuery != null && !matchedCqs.containsKey(cQuery.getServerCqName())) {
+        cqPerQuery.putIfAbsent(cQuery.getQueryString(), cQuery);
+      }
+    }
+    if (cqPerQuery.size() < PARALLEL_EVALUATION_THRESHOLD) {
+      return;
+    }
+    if (opRequiringQueryOnOldValue && oldValueSet.isEmpty()) {
+      // the event is not thread safe, so it is not touched once the evaluations have started
+      Object oldValue = entryEvent.getOldValue();
+      if (oldValue != null) {
+        oldValueSet.add(oldValue);
+      }
+    }
+
+    List<ServerCQImpl> toEvaluate = new ArrayList<>(cqPerQuery.values());
+    Integer[] cqEvents = new Integer[toEvaluate.size()];
+    boolean[] evaluated = new boolean[toEvaluate.size()];
+    int numPartitions = Math.min(EVALUATION_THREADS + 1, toEvaluate.size());
+    List<Future<?>> futures = new ArrayList<>(numPartitions - 1);
+    for (int p = 1; p < numPartitions; p++) {
+      final int partition = p;
+      final Set<Object> partitionNewValueSet = new HashSet<>(newValueSet);
+      final Set<Object> partitionOldValueSet = new HashSet<>(oldValueSet);
+      futures.add(getEvaluationPool().submit(() -> {
+        for (int i = partition; i < cqEvents.length; i += numPartitions) {
+          cqEvents[i] = evaluateCqForEvent(toEvaluate.get(i), null, eventKey,
+              partitionNewValueSet, partitionOldValueSet, opRequiringQueryOnOldValue);
+          evaluated[i] = true;
+        }
+      }));
+    }
+    for (int i = 0; i < cqEvents.length; i += numPartitions) {
+      cqEvents[i] = evaluateCqForEvent(toEvaluate.get(i), null, eventKey, newValueSet,
+          oldValueSet, opRequiringQueryOnOldValue);
+      evaluated[i] = true;
+    }
+
+    // wait for all the partitions, so that no CQ is evaluated twice concurrently
+    boolean interrupted = false;
+    for (Future<?> future : futures) {
+      while (true) {
+        try {
+          future.get();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          logger.info("Error while evaluating CQs in parallel on the event, key : {} Error: {}",
+              eventKey, e.getCause());
+          break;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+
+    for (int i = 0; i < cqEvents.length; i++) {
+      if (!evaluated[i]) {
+        continue;
+      }
+      ServerCQImpl cQuery = toEvaluate.get(i);
+      matchedCqs.put(cQuery.getServerCqName(), cqEvents[i]);
+      Set matchingCqs = (Set) matchingCqMap.get(cQuery.getQueryString());
+      if (matchingCqs != null) {
+        for (Object matchingCqName : matchingCqs) {
+          matchedCqs.put((String) matchingCqName, cqEvents[i]);
+        }
+      }
+    }
+  }
+
+  private synchronized ExecutorService getEvaluationPool() {
+    if (this.evaluationPool == null) {
+      this.evaluationPool =
+          LoggingExecutors.newFixedThreadPoolWithTimeout("CqEvaluator", EVALUATION_THREADS, 60);
+    }
+    return this.evaluationPool;
+  }
+
+  /**
+   * Evaluates a CQ against the new and old values of an event and updates the keys cached in its
+   * results.
+   *
+   * @param entryEvent the event to retrieve the old value from, or null if it has already been
+   *        retrieved into oldValueSet
+   * @param oldValueSet holds the old value once it has been retrieved from the event
+   * @return the CQ event for the CQ, or null if the event is not of interest to it
+   */
+  private Integer evaluateCqForEvent(ServerCQImpl cQuery, EntryEvent entryEvent, Object eventKey,
+      Set<Object> newValueSet, Set<Object> oldValueSet, boolean opRequiringQueryOnOldValue) {
+    final boolean isDebugEnabled = logger.isDebugEnabled();
+    String cqName = cQuery.getServerCqName();
+    boolean b_cqResults_newValue = false;
+    boolean b_cqResults_oldValue = false;
+    boolean queryOldValue = false;
+    long executionStartTime;
+    Integer cqEvent = null;
+    boolean error = false;
+    try {
+      synchronized (cQuery) {
+        // Apply query on new value.
+        if (!newValueSet.isEmpty()) {
+          executionStartTime = this.stats.startCqQueryExecution();
+
+          b_cqResults_newValue =
+              evaluateQuery(cQuery, new Object[] {newValueSet});
+          this.stats.endCqQueryExecution(executionStartTime);
+        }
+      }
+
+      // In case of Update, destroy and invalidate.
+      // Apply query on oldValue.
+      if (opRequiringQueryOnOldValue) {
+        // Check if CQ Result is cached, if not apply query on old
+        // value. Currently the CQ Results are not cached for the
+        // Partitioned Regions. Once this is added remove the check
+        // with PR region.
+        if (cQuery.cqResultKeysInitialized) {
+          b_cqResults_oldValue = cQuery.isPartOfCqResult(eventKey);
+          // For PR if not found in cache, apply the query on old value.
+          // Also apply if the query was not executed during cq execute
+          if ((cQuery.isPR || !CqServiceImpl.EXECUTE_QUERY_DURING_INIT)
+              && b_cqResults_oldValue == false) {
+            queryOldValue = true;
+          }
+          if (isDebugEnabled && !cQuery.isPR && !b_cqResults_oldValue) {
+            logger.debug(
+                "Event Key not found in the CQ Result Queue. EventKey : {} CQ Name : {}",
+                eventKey, cqName);
+          }
+        } else {
+          queryOldValue = true;
+        }
+
+        if (queryOldValue) {
+          if (oldValueSet.isEmpty() && entryEvent != null) {
+            Object oldValue = entryEvent.getOldValue();
+            if (oldValue != null) {
+              oldValueSet.add(oldValue);
+            }
+          }
+
+          synchronized (cQuery) {
+            // Apply query on old value.
+            if (!oldValueSet.isEmpty()) {
+              executionStartTime = this.stats.startCqQueryExecution();
+              b_cqResults_oldValue =
+                  evaluateQuery(cQuery, new Object[] {oldValueSet});
+              this.stats.endCqQueryExecution(executionStartTime);
+            } else {
+              if (isDebugEnabled) {
+                logger.debug(
+                    "old value for event with key {} is null - query execution not performed",
+                    eventKey);
+              }
+            }
+          }
+        } // Query oldValue
+
+      }
+    } catch (Exception ex) {
+      // Any exception in running the query should be caught here and
+      // buried because this code is running in-line with the message
+      // processing code and we don't want to kill that thread
+      error = true;
+      // CHANGE LOG MESSAGE:
+      logger.info("Error while processing CQ on the event, key : {} CqName: {}, Error: {}",
+          new Object[] {eventKey, cQuery.getName(),
+              ex.getLocalizedMessage()});
+    }
+
+    if (error) {
+      cqEvent = MESSAGE_TYPE_EXCEPTION;
+    } else {
+      if (b_cqResults_newValue) {
+        if (b_cqResults_oldValue) {
+          cqEvent = MESSAGE_TYPE_LOCAL_UPDATE;
+        } else {
+          cqEvent = MESSAGE_TYPE_LOCAL_CREATE;
+        }
+        // If its create and caching is enabled, cache the key
+        // for this CQ.
+        cQuery.addToCqResultKeys(eventKey);
+      } else if (b_cqResults_oldValue) {
+        // Base invalidate operation is treated as destroy.
+        // When the invalidate comes through, the entry will no longer
+        // satisfy the query and will need to be deleted.
+        cqEvent = MESSAGE_TYPE_LOCAL_DESTROY;
+        // If caching is enabled, mark this event's key as removed
+        // from the CQ cache.
+        cQuery.markAsDestroyedInCqResultKeys(eventKey);
+      }
+    }
+    return cqEvent;
+  }
+
+  /**
+   * Returns the predicate index of the CQs currently registered in the given filter profile,
+   * rebuilding it if they have changed since it was built.
+   */
+  CqPredicateIndex<ServerCQImpl> getPredicateIndex(FilterProfile pf) {
+    Map<String, ServerCQ> snapshot =
+        ((CopyOnWriteHashMap<String, ServerCQ>) pf.getCqMap()).getSnapshot();
+    CqPredicateIndex<ServerCQImpl> index;
+    synchronized (this.predicateIndexes) {
+      index = this.predicateIndexes.get(pf);
+    }
+    if (index == null || !index.isFor(snapshot)) {
+      List<ServerCQImpl> cqs = new ArrayList<>(snapshot.size());
+      for (ServerCQ cq : snapshot.values()) {
+        cqs.add((ServerCQImpl) cq);
+      }
+      index = new CqPredicateIndex<>(snapshot, cqs, cq -> {
+        Query query = cq.getQuery();
+        return query instanceof DefaultQuery ? ((DefaultQuery) query).getSimpleSelect() : null;
+      }, ((InternalQueryService) this.cache.getQueryService()).getMethodInvocationAuthorizer());
+      synchronized (this.predicateIndexes) {
+        this.predicateIndexes.put(pf, index);
+      }
+    }
+    return index;
+  }
+
   private Integer generateCqRegionEvent(CacheEvent event) {
     Integer cqEvent = null;
     if (event.getOperation().isRegionDestroy()) {
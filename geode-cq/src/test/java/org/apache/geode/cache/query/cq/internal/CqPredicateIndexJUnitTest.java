@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.cq.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import org.apache.geode.cache.query.internal.CompiledSelect;
+import org.apache.geode.cache.query.internal.QCompiler;
+
+public class CqPredicateIndexJUnitTest {
+
+  private static final String IBM = "select * from /trades t where t.symbol = 'IBM'";
+  private static final String MSFT_LARGE =
+      "select * from /trades t where t.qty > 100 and t.symbol = 'MSFT'";
+  private static final String IMPLICIT_QTY = "select * from /trades where qty = 10";
+  private static final String ANY_LARGE = "select * from /trades t where t.qty > 100";
+  private static final String IBM_OR_MSFT =
+      "select * from /trades t where t.symbol = 'IBM' or t.symbol = 'MSFT'";
+
+  @Test
+  public void equalityTermsAreFoundInConjunctions() {
+    CqPredicateIndex.EqualityTerm term = CqPredicateIndex.findEqualityTerm(compile(MSFT_LARGE));
+
+    assertThat(term.path).containsExactly("symbol");
+    assertThat(term.key).isEqualTo("MSFT");
+  }
+
+  @Test
+  public void implicitAttributesAreIndexed() {
+    CqPredicateIndex.EqualityTerm term = CqPredicateIndex.findEqualityTerm(compile(IMPLICIT_QTY));
+
+    assertThat(term.path).containsExactly("qty");
+    assertThat(term.key).isEqualTo(10L);
+  }
+
+  @Test
+  public void disjunctionsAndRangesAreNotIndexed() {
+    assertThat(CqPredicateIndex.findEqualityTerm(compile(ANY_LARGE))).isNull();
+    assertThat(CqPredicateIndex.findEqualityTerm(compile(IBM_OR_MSFT))).isNull();
+  }
+
+  @Test
+  public void candidatesAreNarrowedByTheIndexedAttribute() {
+    CqPredicateIndex<String> index = createIndex(IBM, MSFT_LARGE, ANY_LARGE, IBM_OR_MSFT);
+
+    assertThat(index.getCandidates(new Trade("IBM", 5), null)).containsExactlyInAnyOrder(IBM,
+        ANY_LARGE, IBM_OR_MSFT);
+    assertThat(index.getCandidates(new Trade("ORCL", 5), new Trade("MSFT", 5)))
+        .containsExactlyInAnyOrder(MSFT_LARGE, ANY_LARGE, IBM_OR_MSFT);
+  }
+
+  @Test
+  public void integralValuesOfAnyTypeMatchTheLiteral() {
+    CqPredicateIndex<String> index = createIndex(IMPLICIT_QTY);
+
+    assertThat(index.getCandidates(new Trade("IBM", 10L), null)).containsExactly(IMPLICIT_QTY);
+    assertThat(index.getCandidates(new Trade("IBM", 11L), null)).isEmpty();
+  }
+
+  @Test
+  public void valuesOfUnindexedTypesAreCandidatesForAllQueriesOnThePath() {
+    CqPredicateIndex<String> index = createIndex(IMPLICIT_QTY);
+
+    assertThat(index.getCandidates(new Trade("IBM", 10.0d), null)).containsExactly(IMPLICIT_QTY);
+  }
+
+  @Test
+  public void nullAttributesMatchNoIndexedQuery() {
+    CqPredicateIndex<String> index = createIndex(IBM);
+
+    assertThat(index.getCandidates(new Trade(null, 5), null)).isEmpty();
+  }
+
+  private CqPredicateIndex<String> createIndex(String... queries) {
+    return new CqPredicateIndex<>(new Object(), Arrays.asList(queries), this::compile,
+        (method, target) -> {
+        });
+  }
+
+  private CompiledSelect compile(String query) {
+    return (CompiledSelect) new QCompiler().compileQuery(query);
+  }
+
+  public static class Trade {
+    public final String symbol;
+    public final Object qty;
+
+    Trade(String symbol, Object qty) {
+      this.symbol = symbol;
+      this.qty = qty;
+    }
+  }
+}
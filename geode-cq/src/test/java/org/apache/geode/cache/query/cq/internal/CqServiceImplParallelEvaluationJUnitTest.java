@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.cq.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.cache.EntryEvent;
+import org.apache.geode.cache.query.internal.CompiledSelect;
+import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.test.fake.Fakes;
+
+public class CqServiceImplParallelEvaluationJUnitTest {
+
+  private static final int QUERIES = 32;
+
+  private int savedEvaluationThreads;
+  private int savedThreshold;
+
+  private CqServiceImpl cqService;
+
+  private final EntryEvent entryEvent = mock(EntryEvent.class);
+
+  /** The threads which evaluated a query against each value set */
+  private final Map<Set<?>, Set<Thread>> valueSetUsers =
+      Collections.synchronizedMap(new IdentityHashMap<>());
+
+  @Before
+  public void setUp() {
+    savedEvaluationThreads = CqServiceImpl.EVALUATION_THREADS;
+    savedThreshold = CqServiceImpl.PARALLEL_EVALUATION_THRESHOLD;
+    CqServiceImpl.EVALUATION_THREADS = 3;
+    CqServiceImpl.PARALLEL_EVALUATION_THRESHOLD = 8;
+    cqService = new CqServiceImpl(Fakes.cache());
+  }
+
+  @After
+  public void tearDown() {
+    cqService.close();
+    CqServiceImpl.EVALUATION_THREADS = savedEvaluationThreads;
+    CqServiceImpl.PARALLEL_EVALUATION_THRESHOLD = savedThreshold;
+  }
+
+  @Test
+  public void oldValueIsRetrievedOnceBeforeTheEvaluations() throws Exception {
+    when(entryEvent.getOldValue()).thenReturn("old");
+    Map<String, Integer> matchedCqs = evaluate(createCqs());
+
+    verify(entryEvent, times(1)).getOldValue();
+    assertThat(matchedCqs).hasSize(QUERIES);
+    assertThat(matchedCqs.values()).containsOnly(MessageType.LOCAL_UPDATE);
+  }
+
+  @Test
+  public void missingOldValueIsRetrievedOnlyOnce() throws Exception {
+    when(entryEvent.getOldValue()).thenReturn(null);
+    Map<String, Integer> matchedCqs = evaluate(createCqs());
+
+    verify(entryEvent, times(1)).getOldValue();
+    assertThat(matchedCqs).hasSize(QUERIES);
+    assertThat(matchedCqs.values()).containsOnly(MessageType.LOCAL_CREATE);
+  }
+
+  @Test
+  public void valueSetsAreNotSharedBetweenThreads() throws Exception {
+    when(entryEvent.getOldValue()).thenReturn("old");
+    evaluate(createCqs());
+
+    assertThat(valueSetUsers).isNotEmpty();
+    for (Set<Thread> threads : valueSetUsers.values()) {
+      assertThat(threads).hasSize(1);
+    }
+  }
+
+  private Map<String, Integer> evaluate(List<ServerCQImpl> cqs) {
+    Set<Object> newValueSet = new HashSet<>();
+    newValueSet.add("new");
+    Map<String, Integer> matchedCqs = new HashMap<>();
+    cqService.evaluateCqsInParallel(cqs, entryEvent, "key", newValueSet, new HashSet<>(), true,
+        matchedCqs);
+    return matchedCqs;
+  }
+
+  /** Creates CQs with distinct queries which match every value */
+  private List<ServerCQImpl> createCqs() throws Exception {
+    List<ServerCQImpl> cqs = new ArrayList<>();
+    for (int i = 0; i < QUERIES; i++) {
+      ServerCQImpl cq = mock(ServerCQImpl.class);
+      when(cq.getServerCqName()).thenReturn("cq" + i);
+      when(cq.getQueryString()).thenReturn("select * from /region r where r.id = " + i);
+      ExecutionContext context = mock(ExecutionContext.class);
+      when(context.getScopeNum()).thenReturn(1);
+      doAnswer(invocation -> {
+        Set<?> valueSet = (Set<?>) ((Object[]) invocation.getArgument(0))[0];
+        valueSetUsers.computeIfAbsent(valueSet, key -> Collections.synchronizedSet(new HashSet<>()))
+            .add(Thread.currentThread());
+        return null;
+      }).when(context).setBindArguments(any());
+      when(cq.getQueryExecutionContext()).thenReturn(context);
+      DefaultQuery query = mock(DefaultQuery.class);
+      CompiledSelect select = mock(CompiledSelect.class);
+      when(query.getSelect()).thenReturn(select);
+      when(select.evaluateCq(context)).thenReturn(true);
+      when(cq.getQuery()).thenReturn(query);
+      cqs.add(cq);
+    }
+    return cqs;
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.cq.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.cache.query.internal.InternalQueryService;
+import org.apache.geode.cache.query.internal.cq.ServerCQ;
+import org.apache.geode.internal.cache.FilterProfile;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.internal.util.concurrent.CopyOnWriteHashMap;
+import org.apache.geode.test.fake.Fakes;
+
+public class CqServiceImplPredicateIndexJUnitTest {
+
+  private final CopyOnWriteHashMap<String, ServerCQ> cqMap = new CopyOnWriteHashMap<>();
+
+  private final FilterProfile filterProfile = mock(FilterProfile.class);
+
+  private CqServiceImpl cqService;
+
+  @Before
+  public void setUp() {
+    GemFireCacheImpl cache = Fakes.cache();
+    when(cache.getQueryService()).thenReturn(mock(InternalQueryService.class));
+    when(filterProfile.getCqMap()).thenReturn(cqMap);
+    cqMap.put("cq1", mock(ServerCQImpl.class));
+    cqService = new CqServiceImpl(cache);
+  }
+
+  @After
+  public void tearDown() {
+    cqService.close();
+  }
+
+  @Test
+  public void indexIsReusedWhileCqsAreUnchanged() {
+    CqPredicateIndex<ServerCQImpl> index = cqService.getPredicateIndex(filterProfile);
+
+    assertThat(cqService.getPredicateIndex(filterProfile)).isSameAs(index);
+  }
+
+  @Test
+  public void indexIsRebuiltWhenCqIsRegistered() {
+    CqPredicateIndex<ServerCQImpl> index = cqService.getPredicateIndex(filterProfile);
+
+    ServerCQImpl cq = mock(ServerCQImpl.class);
+    cqMap.put("cq2", cq);
+
+    CqPredicateIndex<ServerCQImpl> rebuilt = cqService.getPredicateIndex(filterProfile);
+    assertThat(rebuilt).isNotSameAs(index);
+    assertThat(rebuilt.getCandidates("value", null)).contains(cq);
+    assertThat(cqService.getPredicateIndex(filterProfile)).isSameAs(rebuilt);
+  }
+
+  @Test
+  public void indexIsRebuiltWhenCqIsClosed() {
+    CqPredicateIndex<ServerCQImpl> index = cqService.getPredicateIndex(filterProfile);
+
+    cqMap.remove("cq1");
+
+    CqPredicateIndex<ServerCQImpl> rebuilt = cqService.getPredicateIndex(filterProfile);
+    assertThat(rebuilt).isNotSameAs(index);
+    assertThat(rebuilt.getCandidates("value", null)).isEmpty();
+  }
+}
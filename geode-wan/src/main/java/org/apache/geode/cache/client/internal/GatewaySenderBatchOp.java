@@ -29,6 +29,7 @@ import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
 import org.apache.geode.internal.cache.tier.sockets.Message;
 import org.apache.geode.internal.cache.tier.sockets.Part;
 import org.apache.geode.internal.cache.wan.BatchException70;
+import org.apache.geode.internal.cache.wan.GatewayBatchValueCompression;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
 import org.apache.geode.internal.cache.wan.GatewaySenderEventRemoteDispatcher.GatewayAck;
 import org.apache.geode.internal.logging.LogService;
@@ -57,11 +58,12 @@ public class GatewaySenderBatchOp {
     // the same parameters...
     if (Version.GFE_651.compareTo(con.getWanSiteVersion()) >= 0) {
       op = new GatewaySenderGFEBatchOpImpl(events, batchId, removeFromQueueOnException,
-          con.getDistributedSystemId(), isRetry);
+          con.getDistributedSystemId(), isRetry, false);
     } else {
       // Default should create a batch of server version (ACCEPTOR.VERSION)
       op = new GatewaySenderGFEBatchOpImpl(events, batchId, removeFromQueueOnException,
-          con.getDistributedSystemId(), isRetry);
+          con.getDistributedSystemId(), isRetry,
+          GatewayBatchValueCompression.isEnabledFor(con.getWanSiteVersion()));
     }
     pool.executeOn(con, op, true/* timeoutFatal */);
   }
@@ -79,10 +81,11 @@ public class GatewaySenderBatchOp {
   static class GatewaySenderGFEBatchOpImpl extends AbstractOp {
 
     /**
+     * @param compressValues true if the receiver understands compressed values
      * @throws org.apache.geode.SerializationException if serialization fails
      */
     public GatewaySenderGFEBatchOpImpl(List events, int batchId, boolean removeFromQueueOnException,
-        int dsId, boolean isRetry) {
+        int dsId, boolean isRetry, boolean compressValues) {
       super(MessageType.GATEWAY_RECEIVER_COMMAND, calcPartCount(events));
       if (isRetry) {
         getMessage().setIsRetry();
@@ -97,9 +100,21 @@ public class GatewaySenderBatchOp {
         // Add action
         int action = event.getAction();
         getMessage().addIntPart(action);
-        { // Add posDup flag
-          byte posDupByte = (byte) (event.getPossibleDuplicate() ? 0x01 : 0x00);
-          getMessage().addBytesPart(new byte[] {posDupByte});
+        byte[] value = null;
+        byte[] compressedValue = null;
+        if (action < 2 /* it is 0 or 1 */) {
+          value = event.getSerializedValue();
+          if (compressValues) {
+            compressedValue = GatewayBatchValueCompression.compress(value);
+          }
+        }
+        { // Add posDup and value compressed flags
+          byte flags = event.getPossibleDuplicate() ? GatewayBatchValueCompression.POSSIBLE_DUPLICATE
+              : (byte) 0x00;
+          if (compressedValue != null) {
+            flags |= GatewayBatchValueCompression.VALUE_COMPRESSED;
+          }
+          getMessage().addBytesPart(new byte[] {flags});
         }
         if (action >= 0 && action <= 3) {
           // 0 = create
@@ -117,10 +132,10 @@ public class GatewaySenderBatchOp {
           // Add key
           getMessage().addStringOrObjPart(key);
           if (action < 2 /* it is 0 or 1 */) {
-            byte[] value = event.getSerializedValue();
-            byte valueIsObject = event.getValueIsObject();;
+            byte valueIsObject = event.getValueIsObject();
             // Add value (which is already a serialized byte[])
-            getMessage().addRawPart(value, (valueIsObject == 0x01));
+            getMessage().addRawPart(compressedValue != null ? compressedValue : value,
+                (valueIsObject == 0x01));
           }
           // Add callback arg if necessary
           if (callbackArg == null) {